@@ -1,6 +1,7 @@
 package com.learntrack.authorizationserver.configs;
 
-import com.learntrack.authorizationserver.models.User;
+import com.learntrack.authorizationserver.jose.RotatingJwkSource;
+import com.learntrack.authorizationserver.models.UserSnapshot;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.core.Authentication;
@@ -13,17 +14,25 @@ import org.springframework.stereotype.Component;
 public class CustomJwtTokenCustomizer implements OAuth2TokenCustomizer<JwtEncodingContext> {
 
     private final Logger logger = LoggerFactory.getLogger(CustomJwtTokenCustomizer.class);
+    private final RotatingJwkSource jwkSource;
+
+    public CustomJwtTokenCustomizer(RotatingJwkSource jwkSource) {
+        this.jwkSource = jwkSource;
+    }
 
     @Override
     public void customize(JwtEncodingContext context) {
+        // several keys are published while they rotate, the encoder needs to be told which one signs
+        context.getJwsHeader().keyId(jwkSource.currentKeyId());
+
         Authentication principal = context.getPrincipal();
         var identity = principal.getPrincipal();
         
-        if (identity instanceof User user) {
+        if (identity instanceof UserSnapshot user) {
             context.getClaims().claim("user_id", user.getId());
             context.getClaims().claim("roles", user.getRoleNames());
         } else {
-            logger.error("Principal is not an instance of User: {}", identity);
+            logger.error("Principal is not an instance of UserSnapshot: {}", identity);
         }
     }
 
@@ -22,6 +22,9 @@ public class DatabaseConfig {
     @Value("classpath:oauth2-authorization-consent-schema.sql")
     private Resource authorizationConsentSchema;
 
+    @Value("classpath:oauth2-signing-key-schema.sql")
+    private Resource signingKeySchema;
+
     @Bean
     public DataSourceInitializer dataSourceInitializer(DataSource dataSource) {
         DataSourceInitializer initializer = new DataSourceInitializer();
@@ -35,6 +38,7 @@ public class DatabaseConfig {
         populator.addScript(registeredClientSchema);
         populator.addScript(authorizationSchema);
         populator.addScript(authorizationConsentSchema);
+        populator.addScript(signingKeySchema);
         populator.setSeparator(";");
         return populator;
     }
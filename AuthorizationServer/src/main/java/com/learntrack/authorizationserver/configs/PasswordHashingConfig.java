@@ -0,0 +1,54 @@
+package com.learntrack.authorizationserver.configs;
+
+import com.learntrack.authorizationserver.crypto.BoundedPasswordEncoder;
+import com.learntrack.authorizationserver.crypto.PasswordHashingRejectionFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.Map;
+
+@Configuration
+public class PasswordHashingConfig {
+
+    @Value("${password.bcrypt.strength:10}")
+    private int bcryptStrength;
+
+    @Value("${password.hashing.threads:0}")
+    private int hashingThreads;
+
+    @Value("${password.hashing.queue-capacity:64}")
+    private int hashingQueueCapacity;
+
+    @Value("${password.hashing.retry-after:PT1S}")
+    private Duration retryAfter;
+
+    /**
+     * New hashes are bcrypt at {@code password.bcrypt.strength}. Hashes in any other format the default delegating
+     * encoder knows, or at a lower strength, still match, and are re-hashed when their user next signs in.
+     * {@code password.hashing.threads} defaults to half the available processors.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public BoundedPasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", new BCryptPasswordEncoder(bcryptStrength)));
+        encoder.setDefaultPasswordEncoderForMatches(PasswordEncoderFactories.createDelegatingPasswordEncoder());
+
+        int threads = hashingThreads > 0 ? hashingThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BoundedPasswordEncoder(encoder, threads, hashingQueueCapacity, meterRegistry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<PasswordHashingRejectionFilter> passwordHashingRejectionFilter() {
+        FilterRegistrationBean<PasswordHashingRejectionFilter> registration = new FilterRegistrationBean<>(new PasswordHashingRejectionFilter(retryAfter.toSeconds()));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
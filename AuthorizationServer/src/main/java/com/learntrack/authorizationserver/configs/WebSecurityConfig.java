@@ -1,11 +1,15 @@
 package com.learntrack.authorizationserver.configs;
 
-import com.learntrack.authorizationserver.jose.Jwks;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learntrack.authorizationserver.jackson.UserJackson2Module;
+import com.learntrack.authorizationserver.models.UserSnapshot;
+import com.learntrack.authorizationserver.repositories.CachingRegisteredClientRepository;
 import com.learntrack.authorizationserver.services.CustomUserDetailsService;
-import com.nimbusds.jose.jwk.JWKSet;
-import com.nimbusds.jose.jwk.RSAKey;
 import com.nimbusds.jose.jwk.source.JWKSource;
 import com.nimbusds.jose.proc.SecurityContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.Ordered;
@@ -14,25 +18,31 @@ import org.springframework.http.MediaType;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.factory.PasswordEncoderFactories;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.jackson2.SecurityJackson2Modules;
 import org.springframework.security.oauth2.core.AuthorizationGrantType;
 import org.springframework.security.oauth2.core.ClientAuthenticationMethod;
 import org.springframework.security.oauth2.core.oidc.OidcScopes;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.server.authorization.JdbcOAuth2AuthorizationService;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationService;
 import org.springframework.security.oauth2.server.authorization.client.JdbcRegisteredClientRepository;
 import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
 import org.springframework.security.oauth2.server.authorization.client.RegisteredClientRepository;
 import org.springframework.security.oauth2.server.authorization.config.annotation.web.configuration.OAuth2AuthorizationServerConfiguration;
 import org.springframework.security.oauth2.server.authorization.config.annotation.web.configurers.OAuth2AuthorizationServerConfigurer;
+import org.springframework.security.oauth2.server.authorization.jackson2.OAuth2AuthorizationServerJackson2Module;
 import org.springframework.security.oauth2.server.authorization.settings.AuthorizationServerSettings;
 import org.springframework.security.oauth2.server.authorization.settings.ClientSettings;
 import org.springframework.security.oauth2.server.authorization.settings.TokenSettings;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
 import org.springframework.security.web.authentication.LoginUrlAuthenticationEntryPoint;
 import org.springframework.security.web.util.matcher.MediaTypeRequestMatcher;
 
@@ -42,11 +52,20 @@ import java.util.UUID;
 @Configuration
 @EnableWebSecurity
 public class WebSecurityConfig {
+
+    @Value("${registered-clients.cache.maximum-size:100}")
+    private long registeredClientCacheMaximumSize;
+
+    @Value("${registered-clients.cache.ttl:PT10M}")
+    private Duration registeredClientCacheTtl;
+
     @Bean
     public AuthenticationProvider authenticationProvider(CustomUserDetailsService userDetailsService, PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authenticationProvider = new DaoAuthenticationProvider();
         authenticationProvider.setUserDetailsService(userDetailsService);
         authenticationProvider.setPasswordEncoder(passwordEncoder);
+        // re-hashes passwords stored in an older format or at a lower cost after a successful sign-in
+        authenticationProvider.setUserDetailsPasswordService(userDetailsService);
         return authenticationProvider;
     }
 
@@ -82,6 +101,7 @@ public class WebSecurityConfig {
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests((authorize) -> authorize
                         .requestMatchers("/assets/**", "/login", "/auth/register", "/.well-known/**", "/favicon.ico", "/error").permitAll()
+                        .requestMatchers(EndpointRequest.toAnyEndpoint().excluding(HealthEndpoint.class)).access(adminOnly())
                         .anyRequest().authenticated()
                 )
                 .authenticationProvider(authenticationProvider)
@@ -91,9 +111,12 @@ public class WebSecurityConfig {
                 // @formatter:on
     }
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return PasswordEncoderFactories.createDelegatingPasswordEncoder();
+    /**
+     * Signed-in users carry their authorities, not their roles, so the role is read from the {@link UserSnapshot}.
+     */
+    private static AuthorizationManager<RequestAuthorizationContext> adminOnly() {
+        return (authentication, context) -> new AuthorizationDecision(
+                authentication.get().getPrincipal() instanceof UserSnapshot user && user.getRoleNames().contains("ROLE_ADMIN"));
     }
 
     @Bean
@@ -137,19 +160,41 @@ public class WebSecurityConfig {
             repository.save(oidcClient);
         }
 
-        return repository;
+        return new CachingRegisteredClientRepository(repository, registeredClientCacheMaximumSize, registeredClientCacheTtl);
     }
 
-
+    /**
+     * Authorizations live in {@code oauth2_authorization} rather than in memory, so they survive restarts and do not
+     * accumulate on the heap. Expired rows are removed by
+     * {@link com.learntrack.authorizationserver.services.ExpiredAuthorizationPurger}.
+     */
     @Bean
-    public RSAKey rsaKey() {
-        return Jwks.getRsaKey();
+    public OAuth2AuthorizationService authorizationService(JdbcTemplate jdbcTemplate, RegisteredClientRepository registeredClientRepository) {
+        JdbcOAuth2AuthorizationService authorizationService = new JdbcOAuth2AuthorizationService(jdbcTemplate, registeredClientRepository);
+        ObjectMapper objectMapper = authorizationObjectMapper();
+
+        JdbcOAuth2AuthorizationService.OAuth2AuthorizationRowMapper rowMapper = new JdbcOAuth2AuthorizationService.OAuth2AuthorizationRowMapper(registeredClientRepository);
+        rowMapper.setObjectMapper(objectMapper);
+        authorizationService.setAuthorizationRowMapper(rowMapper);
+
+        JdbcOAuth2AuthorizationService.OAuth2AuthorizationParametersMapper parametersMapper = new JdbcOAuth2AuthorizationService.OAuth2AuthorizationParametersMapper();
+        parametersMapper.setObjectMapper(objectMapper);
+        authorizationService.setAuthorizationParametersMapper(parametersMapper);
+
+        return authorizationService;
     }
 
-    @Bean
-    public JWKSource<SecurityContext> jwkSource(RSAKey rsaKey) {
-        JWKSet jwkSet = new JWKSet(rsaKey);
-        return (jwkSelector, securityContext) -> jwkSelector.select(jwkSet);
+    /**
+     * The mapper {@link JdbcOAuth2AuthorizationService} uses by default, plus {@link UserJackson2Module} for the
+     * principal.
+     */
+    public static ObjectMapper authorizationObjectMapper() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        ClassLoader classLoader = JdbcOAuth2AuthorizationService.class.getClassLoader();
+        objectMapper.registerModules(SecurityJackson2Modules.getModules(classLoader));
+        objectMapper.registerModule(new OAuth2AuthorizationServerJackson2Module());
+        objectMapper.registerModule(new UserJackson2Module());
+        return objectMapper;
     }
 
     @Bean
@@ -157,11 +202,6 @@ public class WebSecurityConfig {
         return OAuth2AuthorizationServerConfiguration.jwtDecoder(jwkSource);
     }
 
-    @Bean
-    public JWKSet jwkSet(RSAKey rsaKey) {
-        return new JWKSet(rsaKey);
-    }
-
     @Bean
     public AuthorizationServerSettings authorizationServerSettings() {
         return AuthorizationServerSettings.builder().build();
@@ -0,0 +1,122 @@
+package com.learntrack.authorizationserver.crypto;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the delegate's hashing on a fixed number of threads, so logins and registrations can only keep that many
+ * cores busy and the token and JWK set endpoints keep the rest. Callers wait in a queue of {@code queueCapacity};
+ * when it is full the call fails at once with {@link PasswordHashingRejectedException} instead of adding to the
+ * backlog.
+ * <p>
+ * Passwords stored as {@code {noop}}, such as the registered client's secret, are compared on the calling thread,
+ * since there is no work to bound.
+ * <p>
+ * {@code password.hashing.duration} times the hashing itself by {@code operation}, {@code password.hashing.wait} the
+ * time spent queued, and {@code password.hashing.queued} / {@code password.hashing.active} show the backlog.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+    private static final String METER_PREFIX = "password.hashing";
+    private static final String NOOP_PREFIX = "{noop}";
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Timer waitTimer;
+    private final Counter rejected;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity), threadFactory(), new ThreadPoolExecutor.AbortPolicy());
+        this.encodeTimer = duration(meterRegistry, "encode");
+        this.matchesTimer = duration(meterRegistry, "matches");
+        this.waitTimer = Timer.builder(METER_PREFIX + ".wait").description("Time a password hash waited for a hashing thread").register(meterRegistry);
+        this.rejected = Counter.builder(METER_PREFIX + ".rejected").description("Password hashes refused because the queue was full").register(meterRegistry);
+        Gauge.builder(METER_PREFIX + ".queued", executor, e -> e.getQueue().size()).description("Password hashes waiting for a hashing thread").register(meterRegistry);
+        Gauge.builder(METER_PREFIX + ".active", executor, ThreadPoolExecutor::getActiveCount).description("Password hashes being computed").register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(encodeTimer, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        if (encodedPassword != null && encodedPassword.startsWith(NOOP_PREFIX)) {
+            return delegate.matches(rawPassword, encodedPassword);
+        }
+        return submit(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Upgrades are re-hashes a successful login can do without, so none are asked for while hashes are queued.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return executor.getQueue().isEmpty() && delegate.upgradeEncoding(encodedPassword);
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> T submit(Timer timer, Callable<T> hash) {
+        long queuedAt = System.nanoTime();
+        Future<T> result;
+        try {
+            result = executor.submit(() -> {
+                waitTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                return timer.recordCallable(hash);
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingRejectedException("Too many password hashes in progress");
+        }
+
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a password hash", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static Timer duration(MeterRegistry meterRegistry, String operation) {
+        // @formatter:off
+        return Timer.builder(METER_PREFIX + ".duration")
+                .description("Time spent computing password hashes")
+                .tag("operation", operation)
+                .register(meterRegistry);
+        // @formatter:on
+    }
+
+    private static ThreadFactory threadFactory() {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "password-hashing-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,11 @@
+package com.learntrack.authorizationserver.crypto;
+
+/**
+ * Thrown when the password hashing queue is full. {@link PasswordHashingRejectionFilter} answers the request with
+ * {@code 503 Service Unavailable}.
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+    public PasswordHashingRejectedException(String message) {
+        super(message);
+    }
+}
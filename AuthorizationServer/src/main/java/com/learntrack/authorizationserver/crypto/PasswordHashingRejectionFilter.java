@@ -0,0 +1,47 @@
+package com.learntrack.authorizationserver.crypto;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Answers requests that failed with {@link PasswordHashingRejectedException} with {@code 503} and a
+ * {@code Retry-After}, whether it was thrown by the login filter or by a controller. Registered ahead of the security
+ * filter chain.
+ */
+public class PasswordHashingRejectionFilter extends OncePerRequestFilter {
+    private final String retryAfterSeconds;
+
+    public PasswordHashingRejectionFilter(long retryAfterSeconds) {
+        this.retryAfterSeconds = Long.toString(retryAfterSeconds);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        try {
+            filterChain.doFilter(request, response);
+        } catch (ServletException | RuntimeException e) {
+            if (!isRejection(e) || response.isCommitted()) {
+                throw e;
+            }
+            response.resetBuffer();
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Too many sign-ins in progress, try again shortly");
+        }
+    }
+
+    private static boolean isRejection(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof PasswordHashingRejectedException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
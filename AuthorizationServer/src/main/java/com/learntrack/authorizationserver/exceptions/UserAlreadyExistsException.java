@@ -1,5 +1,9 @@
 package com.learntrack.authorizationserver.exceptions;
 
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.CONFLICT, reason = "Username already taken")
 public class UserAlreadyExistsException extends RuntimeException {
     public UserAlreadyExistsException(String message) {
         super(message);
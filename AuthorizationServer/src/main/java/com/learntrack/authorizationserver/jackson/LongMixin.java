@@ -0,0 +1,8 @@
+package com.learntrack.authorizationserver.jackson;
+
+/**
+ * Puts {@link Long} on the allowlist. The {@code user_id} claim is a {@code Long}, and the claims are stored with the
+ * token's metadata, where Jackson writes a {@code Long} together with its type.
+ */
+abstract class LongMixin {
+}
@@ -0,0 +1,23 @@
+package com.learntrack.authorizationserver.jackson;
+
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.learntrack.authorizationserver.models.UserSnapshot;
+
+/**
+ * Lets the {@link UserSnapshot} principal, and the claims taken from it, be written into and read back from a
+ * persisted {@link org.springframework.security.oauth2.server.authorization.OAuth2Authorization}. Register it next to
+ * {@link org.springframework.security.jackson2.SecurityJackson2Modules#getModules(ClassLoader)}, whose allowlist
+ * accepts classes that have a mixin.
+ */
+public class UserJackson2Module extends SimpleModule {
+
+    public UserJackson2Module() {
+        super(UserJackson2Module.class.getName());
+    }
+
+    @Override
+    public void setupModule(SetupContext context) {
+        context.setMixInAnnotations(UserSnapshot.class, UserSnapshotMixin.class);
+        context.setMixInAnnotations(Long.class, LongMixin.class);
+    }
+}
@@ -0,0 +1,35 @@
+package com.learntrack.authorizationserver.jackson;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learntrack.authorizationserver.models.UserSnapshot;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+class UserSnapshotDeserializer extends JsonDeserializer<UserSnapshot> {
+    private static final TypeReference<Set<SimpleGrantedAuthority>> AUTHORITIES = new TypeReference<>() {
+    };
+    private static final TypeReference<List<String>> ROLE_NAMES = new TypeReference<>() {
+    };
+
+    @Override
+    public UserSnapshot deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        ObjectMapper mapper = (ObjectMapper) parser.getCodec();
+        JsonNode node = mapper.readTree(parser);
+        // @formatter:off
+        return new UserSnapshot(
+                node.get("id").isNull() ? null : node.get("id").asLong(),
+                node.get("username").asText(),
+                null,
+                mapper.convertValue(node.get("authorities"), AUTHORITIES),
+                mapper.convertValue(node.get("roleNames"), ROLE_NAMES));
+        // @formatter:on
+    }
+}
@@ -0,0 +1,18 @@
+package com.learntrack.authorizationserver.jackson;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
+/**
+ * Stores the {@link com.learntrack.authorizationserver.models.UserSnapshot} principal of an authorization with its
+ * id, username, authorities and role names, which is what the token customizer reads when a refresh token is
+ * redeemed. The password hash is left out.
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.CLASS)
+@JsonDeserialize(using = UserSnapshotDeserializer.class)
+@JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY, getterVisibility = JsonAutoDetect.Visibility.NONE, isGetterVisibility = JsonAutoDetect.Visibility.NONE)
+@JsonIgnoreProperties(value = "password", ignoreUnknown = true)
+abstract class UserSnapshotMixin {
+}
@@ -0,0 +1,97 @@
+package com.learntrack.authorizationserver.jose;
+
+import com.nimbusds.jose.jwk.RSAKey;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.encrypt.Encryptors;
+import org.springframework.security.crypto.encrypt.TextEncryptor;
+import org.springframework.stereotype.Component;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Reads and writes the signing keys in {@code oauth2_signing_key}. Private keys are encrypted with AES-GCM under a
+ * key derived from {@code signing-keys.encryption-password} and {@code signing-keys.encryption-salt} (hex), which
+ * must be the same on every node. Neither has a default, so a node without them does not start.
+ */
+@Component
+public class JdbcSigningKeyStore {
+    private static final String SELECT_ALL = "SELECT kid, private_key, public_key, created_at FROM oauth2_signing_key ORDER BY created_at, kid";
+
+    /*
+     * A node only adds a key if no other node added one since the key it decided to replace. The NOT EXISTS covers a
+     * node that read the keys before a rotation had committed; two nodes replacing the same key at once are told
+     * apart by the unique replaces column, which rejects the second insert.
+     */
+    private static final String INSERT_UNLESS_NEWER = "INSERT INTO oauth2_signing_key (kid, private_key, public_key, created_at, replaces) "
+            + "SELECT ?, ?, ?, ?, ? WHERE NOT EXISTS (SELECT 1 FROM oauth2_signing_key WHERE created_at > ?)";
+
+    private static final String DELETE = "DELETE FROM oauth2_signing_key WHERE kid = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TextEncryptor encryptor;
+
+    public JdbcSigningKeyStore(JdbcTemplate jdbcTemplate, @Value("${signing-keys.encryption-password}") String password, @Value("${signing-keys.encryption-salt}") String salt) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.encryptor = Encryptors.delux(password, salt);
+    }
+
+    /**
+     * All stored keys, oldest first.
+     */
+    public List<SigningKey> findAll() {
+        return jdbcTemplate.query(SELECT_ALL, this::mapRow);
+    }
+
+    /**
+     * Generates a key and stores it, unless a key created after {@code replacing} exists already.
+     *
+     * @return whether the key was stored
+     */
+    public boolean generate(Instant createdAt, Instant replacing) {
+        KeyPair keyPair = KeyGeneratorUtils.generateRsaKey();
+        String privateKey = encryptor.encrypt(Base64.getEncoder().encodeToString(keyPair.getPrivate().getEncoded()));
+        String publicKey = Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded());
+        try {
+            return jdbcTemplate.update(INSERT_UNLESS_NEWER, UUID.randomUUID().toString(), privateKey, publicKey, Timestamp.from(createdAt), Timestamp.from(replacing), Timestamp.from(replacing)) == 1;
+        } catch (DuplicateKeyException e) {
+            // another node replaced the same key first
+            return false;
+        }
+    }
+
+    public void delete(String keyId) {
+        jdbcTemplate.update(DELETE, keyId);
+    }
+
+    private SigningKey mapRow(ResultSet rs, int rowNum) throws SQLException {
+        try {
+            KeyFactory keyFactory = KeyFactory.getInstance("RSA");
+            byte[] privateKey = Base64.getDecoder().decode(encryptor.decrypt(rs.getString("private_key")));
+            byte[] publicKey = Base64.getDecoder().decode(rs.getString("public_key"));
+            // @formatter:off
+            RSAKey rsaKey = new RSAKey.Builder((RSAPublicKey) keyFactory.generatePublic(new X509EncodedKeySpec(publicKey)))
+                    .privateKey((RSAPrivateKey) keyFactory.generatePrivate(new PKCS8EncodedKeySpec(privateKey)))
+                    .keyID(rs.getString("kid"))
+                    .build();
+            // @formatter:on
+            return new SigningKey(rsaKey, rs.getTimestamp("created_at").toInstant());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not read signing key " + rs.getString("kid"), e);
+        }
+    }
+}
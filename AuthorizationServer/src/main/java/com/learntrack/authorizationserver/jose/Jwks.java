@@ -1,33 +0,0 @@
-package com.learntrack.authorizationserver.jose;
-
-import com.nimbusds.jose.jwk.RSAKey;
-
-import java.security.KeyPair;
-import java.security.interfaces.RSAPrivateKey;
-import java.security.interfaces.RSAPublicKey;
-import java.util.UUID;
-
-public final class Jwks {
-
-    private static final RSAKey RSA_KEY = generateRsa();
-
-    private Jwks() {
-    }
-
-    public static RSAKey getRsaKey() {
-        return RSA_KEY;
-    }
-
-    private static RSAKey generateRsa() {
-        KeyPair keyPair = KeyGeneratorUtils.generateRsaKey();
-        RSAPublicKey publicKey = (RSAPublicKey) keyPair.getPublic();
-        RSAPrivateKey privateKey = (RSAPrivateKey) keyPair.getPrivate();
-        // @formatter:off
-        return new RSAKey.Builder(publicKey)
-                .privateKey(privateKey)
-                .keyID(UUID.randomUUID().toString())
-                .build();
-        // @formatter:on
-    }
-
-}
\ No newline at end of file
@@ -0,0 +1,128 @@
+package com.learntrack.authorizationserver.jose;
+
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Serves the signing keys kept in {@link JdbcSigningKeyStore} and rotates them.
+ * <p>
+ * A key is added once the newest one is {@code rotation-interval} old. It is published in the JWK set straight away
+ * but only signs tokens after {@code activation-delay}, by when every node has loaded it and resource servers had
+ * the chance to refresh their cached JWK set. The key it replaces stays published for {@code retention} afterwards,
+ * which has to cover the longest token lifetime, and is then deleted.
+ * <p>
+ * Keys are re-read every {@code refresh-interval}, which must be shorter than {@code activation-delay}. Tokens name
+ * the signing key in their {@code kid} header, see {@link #currentKeyId()}.
+ */
+@Component
+@DependsOn("dataSourceInitializer")
+public class RotatingJwkSource implements JWKSource<SecurityContext> {
+    private final JdbcSigningKeyStore keyStore;
+    private final Logger logger = LoggerFactory.getLogger(RotatingJwkSource.class);
+
+    @Value("${signing-keys.rotation-interval:P30D}")
+    private Duration rotationInterval;
+
+    @Value("${signing-keys.activation-delay:PT1H}")
+    private Duration activationDelay;
+
+    @Value("${signing-keys.retention:P11D}")
+    private Duration retention;
+
+    private volatile Keys keys;
+
+    public RotatingJwkSource(JdbcSigningKeyStore keyStore) {
+        this.keyStore = keyStore;
+    }
+
+    @PostConstruct
+    public void load() {
+        refresh();
+    }
+
+    @Override
+    public List<JWK> get(JWKSelector jwkSelector, SecurityContext context) {
+        return jwkSelector.select(keys.jwkSet);
+    }
+
+    public String currentKeyId() {
+        return keys.currentKeyId;
+    }
+
+    public JWKSet getPublicJwkSet() {
+        return keys.jwkSet.toPublicJWKSet();
+    }
+
+    @Scheduled(fixedDelayString = "${signing-keys.refresh-interval:PT5M}", initialDelayString = "${signing-keys.refresh-interval:PT5M}")
+    public void refresh() {
+        Instant now = Instant.now();
+        List<SigningKey> stored = keyStore.findAll();
+
+        SigningKey newest = stored.isEmpty() ? null : stored.get(stored.size() - 1);
+        if (newest == null || !newest.createdAt().plus(rotationInterval).isAfter(now)) {
+            if (keyStore.generate(now, newest == null ? Instant.EPOCH : newest.createdAt())) {
+                logger.info("Generated a new signing key, signing with it from {}", stored.isEmpty() ? now : now.plus(activationDelay));
+            }
+            stored = keyStore.findAll();
+        }
+
+        this.keys = select(deleteExpired(stored, now), now);
+    }
+
+    // keys replaced more than retention ago are no longer published, and are removed from the store
+    private List<SigningKey> deleteExpired(List<SigningKey> stored, Instant now) {
+        int current = current(stored, now);
+        List<SigningKey> kept = new ArrayList<>(stored.size());
+        for (int i = 0; i < stored.size(); i++) {
+            SigningKey key = stored.get(i);
+            if (i < current && !activatesAt(stored.get(i + 1)).plus(retention).isAfter(now)) {
+                keyStore.delete(key.keyId());
+                logger.info("Deleted signing key {}, replaced more than {} ago", key.keyId(), retention);
+            } else {
+                kept.add(key);
+            }
+        }
+        return kept;
+    }
+
+    private Keys select(List<SigningKey> stored, Instant now) {
+        List<JWK> published = new ArrayList<>(stored.size());
+        for (SigningKey key : stored) {
+            published.add(key.rsaKey());
+        }
+        return new Keys(new JWKSet(published), stored.get(current(stored, now)).keyId());
+    }
+
+    // the newest active key signs; the very first key is active as soon as it exists
+    private int current(List<SigningKey> stored, Instant now) {
+        int current = 0;
+        for (int i = 1; i < stored.size(); i++) {
+            if (!activatesAt(stored.get(i)).isAfter(now)) {
+                current = i;
+            }
+        }
+        return current;
+    }
+
+    private Instant activatesAt(SigningKey key) {
+        return key.createdAt().plus(activationDelay);
+    }
+
+    private record Keys(JWKSet jwkSet, String currentKeyId) {
+    }
+}
@@ -0,0 +1,15 @@
+package com.learntrack.authorizationserver.jose;
+
+import com.nimbusds.jose.jwk.RSAKey;
+
+import java.time.Instant;
+
+/**
+ * A signing key as stored in {@code oauth2_signing_key}, with its private part.
+ */
+public record SigningKey(RSAKey rsaKey, Instant createdAt) {
+
+    public String keyId() {
+        return rsaKey.getKeyID();
+    }
+}
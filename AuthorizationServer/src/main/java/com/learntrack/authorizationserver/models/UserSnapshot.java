@@ -0,0 +1,86 @@
+package com.learntrack.authorizationserver.models;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Immutable copy of a {@link User} with its roles and authorities resolved, used as the authenticated principal.
+ * It can be cached and shared between requests, and nothing read from it touches the database.
+ */
+public final class UserSnapshot implements UserDetails {
+    private final Long id;
+    private final String username;
+    private final String password;
+    private final Set<GrantedAuthority> authorities;
+    private final List<String> roleNames;
+
+    public UserSnapshot(Long id, String username, String password, Collection<? extends GrantedAuthority> authorities, Collection<String> roleNames) {
+        this.id = id;
+        this.username = username;
+        this.password = password;
+        this.authorities = Collections.unmodifiableSet(new HashSet<>(authorities));
+        this.roleNames = Collections.unmodifiableList(new ArrayList<>(roleNames));
+    }
+
+    public static UserSnapshot from(User user) {
+        Set<GrantedAuthority> authorities = new HashSet<>();
+        List<String> roleNames = new ArrayList<>(user.getRoles().size());
+        for (Role role : user.getRoles()) {
+            roleNames.add(role.getName());
+            for (Authority authority : role.getAuthoritiesSet()) {
+                authorities.add(new SimpleGrantedAuthority(authority.getName()));
+            }
+        }
+        return new UserSnapshot(user.getId(), user.getUsername(), user.getPassword(), authorities, roleNames);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public Set<GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    public List<String> getRoleNames() {
+        return roleNames;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        UserSnapshot other = (UserSnapshot) obj;
+        return Objects.equals(username, other.username);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(username);
+    }
+
+    @Override
+    public String toString() {
+        return "UserSnapshot [id=" + id + ", username=" + username + ", roleNames=" + roleNames + "]";
+    }
+}
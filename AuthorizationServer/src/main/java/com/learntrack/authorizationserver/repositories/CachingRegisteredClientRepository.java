@@ -0,0 +1,86 @@
+package com.learntrack.authorizationserver.repositories;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClientRepository;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps parsed {@link RegisteredClient}s in memory, looked up both by id and by client id, so the token, authorize
+ * and introspection endpoints do not read and deserialize the client's row on every request.
+ * <p>
+ * {@link #save} evicts the client on this node. Entries also expire after {@code ttl}, which bounds how long other
+ * nodes, or changes made directly in the database, can go unnoticed. Unknown ids are not cached, and clients read
+ * while a save was in progress are not stored.
+ */
+public class CachingRegisteredClientRepository implements RegisteredClientRepository {
+    private final RegisteredClientRepository delegate;
+    private final Cache<String, RegisteredClient> byId;
+    private final Cache<String, RegisteredClient> byClientId;
+    private final AtomicLong generation = new AtomicLong();
+    private final Object lock = new Object();
+
+    public CachingRegisteredClientRepository(RegisteredClientRepository delegate, long maximumSize, Duration ttl) {
+        this.delegate = delegate;
+        this.byId = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(ttl).build();
+        this.byClientId = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(ttl).build();
+    }
+
+    @Override
+    public void save(RegisteredClient registeredClient) {
+        evict(registeredClient);
+        try {
+            delegate.save(registeredClient);
+        } finally {
+            evict(registeredClient);
+        }
+    }
+
+    @Override
+    public RegisteredClient findById(String id) {
+        RegisteredClient cached = byId.getIfPresent(id);
+        if (cached != null) {
+            return cached;
+        }
+        long startedAt = generation.get();
+        return remember(delegate.findById(id), startedAt);
+    }
+
+    @Override
+    public RegisteredClient findByClientId(String clientId) {
+        RegisteredClient cached = byClientId.getIfPresent(clientId);
+        if (cached != null) {
+            return cached;
+        }
+        long startedAt = generation.get();
+        return remember(delegate.findByClientId(clientId), startedAt);
+    }
+
+    private RegisteredClient remember(RegisteredClient registeredClient, long startedAt) {
+        if (registeredClient == null) {
+            return null;
+        }
+        synchronized (lock) {
+            if (generation.get() == startedAt) {
+                byId.put(registeredClient.getId(), registeredClient);
+                byClientId.put(registeredClient.getClientId(), registeredClient);
+            }
+        }
+        return registeredClient;
+    }
+
+    // a save may change the client id, so the cached client's old client id is evicted as well
+    private void evict(RegisteredClient registeredClient) {
+        synchronized (lock) {
+            generation.incrementAndGet();
+            RegisteredClient previous = byId.asMap().remove(registeredClient.getId());
+            if (previous != null) {
+                byClientId.invalidate(previous.getClientId());
+            }
+            byClientId.invalidate(registeredClient.getClientId());
+        }
+    }
+}
@@ -1,21 +1,84 @@
 package com.learntrack.authorizationserver.services;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.learntrack.authorizationserver.models.User;
+import com.learntrack.authorizationserver.models.UserSnapshot;
 import com.learntrack.authorizationserver.repositories.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loads users as {@link UserSnapshot}s and keeps them in a bounded cache, so a login does not join users, roles and
+ * authorities again. Services that change a user's username, roles, or what a role is must evict the users concerned
+ * once the change is saved; entries also expire after {@code users.cache.ttl}. Users read while an eviction was in
+ * progress are not stored, so a lookup that started before a change cannot put the old user back.
+ */
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
     private final UserRepository userRepository;
+    private final Cache<String, UserSnapshot> users;
+    private final AtomicLong generation = new AtomicLong();
+    private final Object lock = new Object();
 
-    public CustomUserDetailsService(UserRepository userRepository) {
+    public CustomUserDetailsService(UserRepository userRepository, @Value("${users.cache.maximum-size:10000}") long maximumSize, @Value("${users.cache.ttl:PT10M}") Duration ttl) {
         this.userRepository = userRepository;
+        this.users = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(ttl).build();
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        return userRepository.findByUsername(username).orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        UserSnapshot cached = users.getIfPresent(username);
+        if (cached != null) {
+            return cached;
+        }
+        long startedAt = generation.get();
+        UserSnapshot snapshot = load(username);
+        synchronized (lock) {
+            if (generation.get() == startedAt) {
+                users.put(username, snapshot);
+            }
+        }
+        return snapshot;
+    }
+
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        User account = userRepository.findByUsername(user.getUsername()).orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        account.setPassword(newPassword);
+        UserSnapshot snapshot = UserSnapshot.from(userRepository.save(account));
+        synchronized (lock) {
+            generation.incrementAndGet();
+            users.put(snapshot.getUsername(), snapshot);
+        }
+        return snapshot;
+    }
+
+    // a save may change the username, so the user is also evicted from under any name it was cached by
+    public void evict(User user) {
+        synchronized (lock) {
+            generation.incrementAndGet();
+            users.invalidate(user.getUsername());
+            users.asMap().values().removeIf(snapshot -> Objects.equals(snapshot.getId(), user.getId()));
+        }
+    }
+
+    public void evictAll() {
+        synchronized (lock) {
+            generation.incrementAndGet();
+            users.invalidateAll();
+        }
+    }
+
+    private UserSnapshot load(String username) {
+        return userRepository.findByUsername(username).map(UserSnapshot::from).orElseThrow(() -> new UsernameNotFoundException("User not found"));
     }
 }
@@ -0,0 +1,75 @@
+package com.learntrack.authorizationserver.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Deletes authorizations that can no longer be used.
+ * <p>
+ * An authorization is expired once every token it was issued has expired; its expiry is the latest of the token
+ * expiry columns, which {@code oauth2_authorization_expires_at_idx} indexes. Authorizations that never got a token,
+ * such as consent requests the user walked away from, are deleted {@code abandoned-after} their creation.
+ * <p>
+ * Rows are deleted in batches of {@code batch-size}, each in its own statement so no lock is held for long, and rows
+ * another node is updating are skipped until the next run. One run deletes at most {@code max-batches} batches.
+ */
+@Component
+public class ExpiredAuthorizationPurger {
+    // @formatter:off
+    private static final String EXPIRES_AT = "GREATEST(authorization_code_expires_at, access_token_expires_at, refresh_token_expires_at, "
+            + "oidc_id_token_expires_at, user_code_expires_at, device_code_expires_at)";
+
+    private static final String DELETE_EXPIRED = "DELETE FROM oauth2_authorization WHERE id IN ("
+            + "SELECT id FROM oauth2_authorization WHERE " + EXPIRES_AT + " < ? LIMIT ? FOR UPDATE SKIP LOCKED)";
+
+    private static final String DELETE_ABANDONED = "DELETE FROM oauth2_authorization WHERE id IN ("
+            + "SELECT id FROM oauth2_authorization WHERE " + EXPIRES_AT + " IS NULL AND created_at < ? LIMIT ? FOR UPDATE SKIP LOCKED)";
+    // @formatter:on
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Logger logger = LoggerFactory.getLogger(ExpiredAuthorizationPurger.class);
+
+    @Value("${authorization.purge.batch-size:500}")
+    private int batchSize;
+
+    @Value("${authorization.purge.max-batches:200}")
+    private int maxBatches;
+
+    @Value("${authorization.purge.abandoned-after:PT24H}")
+    private Duration abandonedAfter;
+
+    public ExpiredAuthorizationPurger(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Scheduled(fixedDelayString = "${authorization.purge.interval:PT15M}", initialDelayString = "${authorization.purge.initial-delay:PT1M}")
+    public void purge() {
+        Instant now = Instant.now();
+        int expired = deleteInBatches(DELETE_EXPIRED, Timestamp.from(now));
+        int abandoned = deleteInBatches(DELETE_ABANDONED, Timestamp.from(now.minus(abandonedAfter)));
+
+        if (expired + abandoned > 0) {
+            logger.info("Purged {} expired and {} abandoned authorizations", expired, abandoned);
+        }
+    }
+
+    private int deleteInBatches(String sql, Timestamp cutoff) {
+        int total = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            int deleted = jdbcTemplate.update(sql, cutoff, batchSize);
+            total += deleted;
+            if (deleted < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+}
@@ -7,9 +7,9 @@ import com.learntrack.authorizationserver.models.UserRegistrationRequestDTO;
 import com.learntrack.authorizationserver.models.UserResponseDTO;
 import com.learntrack.authorizationserver.repositories.RoleRepository;
 import com.learntrack.authorizationserver.repositories.UserRepository;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import javax.management.relation.RoleNotFoundException;
 import java.util.Optional;
@@ -26,7 +26,11 @@ public class UserRegistrationService {
         this.roleRepository = roleRepository;
     }
 
-    @Transactional
+    /**
+     * Not transactional: the password is hashed, possibly after waiting for a hashing thread, without holding a
+     * database connection. The unique username column still rejects a concurrent registration of the same name,
+     * which is reported as {@link UserAlreadyExistsException} like the check up front.
+     */
     public UserResponseDTO registerUser(UserRegistrationRequestDTO userRegDTO) {
         User savedUSer;
         try {
@@ -55,7 +59,15 @@ public class UserRegistrationService {
         Role userRole = role.get();
         user.addRole(userRole);
 
-        return userRepository.save(user);
+        try {
+            return userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            // another registration took the name after the check above
+            if (userRepository.existsByUsername(userRegDTO.getUsername())) {
+                throw new UserAlreadyExistsException("Username already taken");
+            }
+            throw e;
+        }
     }
 
 }
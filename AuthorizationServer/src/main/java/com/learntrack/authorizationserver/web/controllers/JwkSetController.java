@@ -1,6 +1,6 @@
 package com.learntrack.authorizationserver.web.controllers;
 
-import com.nimbusds.jose.jwk.JWKSet;
+import com.learntrack.authorizationserver.jose.RotatingJwkSource;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -10,15 +10,15 @@ import java.util.Map;
 @Controller
 public class JwkSetController {
 
-    private final JWKSet jwkSet;
+    private final RotatingJwkSource jwkSource;
 
-    public JwkSetController(JWKSet jwkSet) {
-        this.jwkSet = jwkSet;
+    public JwkSetController(RotatingJwkSource jwkSource) {
+        this.jwkSource = jwkSource;
     }
 
 
     @GetMapping("/.well-known/jwks.json")
     public ResponseEntity<Map<String, Object>> getKeys() {
-        return ResponseEntity.ok(this.jwkSet.toJSONObject());
+        return ResponseEntity.ok(this.jwkSource.getPublicJwkSet().toJSONObject());
     }
 }
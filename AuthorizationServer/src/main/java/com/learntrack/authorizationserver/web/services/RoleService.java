@@ -4,6 +4,7 @@ import com.learntrack.authorizationserver.models.Role;
 import com.learntrack.authorizationserver.models.User;
 import com.learntrack.authorizationserver.repositories.RoleRepository;
 import com.learntrack.authorizationserver.repositories.UserRepository;
+import com.learntrack.authorizationserver.services.CustomUserDetailsService;
 import org.springframework.stereotype.Service;
 
 import java.util.Optional;
@@ -12,10 +13,12 @@ import java.util.Optional;
 public class RoleService {
     private final RoleRepository roleRepository;
     private final UserRepository userRepository;
+    private final CustomUserDetailsService userDetailsService;
 
-    public RoleService(RoleRepository roleRepository, UserRepository userRepository) {
+    public RoleService(RoleRepository roleRepository, UserRepository userRepository, CustomUserDetailsService userDetailsService) {
         this.roleRepository = roleRepository;
         this.userRepository = userRepository;
+        this.userDetailsService = userDetailsService;
     }
 
     public Role findByName(String name) {
@@ -23,7 +26,13 @@ public class RoleService {
     }
 
     public Role save(Role role) {
-        return roleRepository.save(role);
+        boolean existing = role.getId() != null;
+        Role saved = roleRepository.save(role);
+        if (existing) {
+            // roles are shared by many users and rarely change, so every cached user is dropped
+            userDetailsService.evictAll();
+        }
+        return saved;
     }
 
     public Iterable<Role> findAll() {
@@ -32,6 +41,7 @@ public class RoleService {
 
     public void delete(Long id) {
         roleRepository.deleteById(id);
+        userDetailsService.evictAll();
     }
 
     public Role update(Long id, Role role) {
@@ -64,7 +74,9 @@ public class RoleService {
         User user = userOptional.get();
         Role role = roleOptional.get();
         user.addRole(role);
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userDetailsService.evict(saved);
+        return saved;
     }
 
     public User removeUserFromRole(Long userId, Long roleId) {
@@ -81,7 +93,9 @@ public class RoleService {
         User user = userOptional.get();
         Role role = roleOptional.get();
         user.removeRole(role);
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userDetailsService.evict(saved);
+        return saved;
     }
 
     public Iterable<Role> findAllRolesForUser(Long userId) {
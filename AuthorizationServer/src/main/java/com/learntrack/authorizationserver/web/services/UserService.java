@@ -3,6 +3,7 @@ package com.learntrack.authorizationserver.web.services;
 import com.learntrack.authorizationserver.models.User;
 import com.learntrack.authorizationserver.models.UserUpdateRequestDTO;
 import com.learntrack.authorizationserver.repositories.UserRepository;
+import com.learntrack.authorizationserver.services.CustomUserDetailsService;
 import org.springframework.stereotype.Service;
 
 import java.util.Optional;
@@ -10,9 +11,11 @@ import java.util.Optional;
 @Service
 public class UserService {
     private final UserRepository userRepository;
+    private final CustomUserDetailsService userDetailsService;
 
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, CustomUserDetailsService userDetailsService) {
         this.userRepository = userRepository;
+        this.userDetailsService = userDetailsService;
     }
 
     public Iterable<User> findAll() {
@@ -24,11 +27,15 @@ public class UserService {
     }
 
     public User save(User user) {
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userDetailsService.evict(saved);
+        return saved;
     }
 
     public void deleteById(Long id) {
+        Optional<User> user = findById(id);
         userRepository.deleteById(id);
+        user.ifPresent(userDetailsService::evict);
     }
 
     public Optional<User> findByUsername(String username) {
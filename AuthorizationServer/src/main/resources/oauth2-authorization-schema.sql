@@ -39,3 +39,27 @@ CREATE TABLE IF NOT EXISTS oauth2_authorization (
     device_code_metadata text DEFAULT NULL,
     PRIMARY KEY (id)
 );
+
+/*
+Not part of the schema shipped with Spring Authorization Server, whose insert leaves it to the default.
+Used to purge authorizations that never had a token issued.
+*/
+ALTER TABLE oauth2_authorization ADD COLUMN IF NOT EXISTS created_at timestamp DEFAULT CURRENT_TIMESTAMP;
+
+/*
+Token lookups are equality matches on values that can exceed the size of a B-tree index entry, so they use hash
+indexes. Each index only covers the rows that hold that kind of token. A lookup without a token type ORs all of them.
+*/
+CREATE INDEX IF NOT EXISTS oauth2_authorization_state_idx ON oauth2_authorization USING hash (state) WHERE state IS NOT NULL;
+CREATE INDEX IF NOT EXISTS oauth2_authorization_authorization_code_value_idx ON oauth2_authorization USING hash (authorization_code_value) WHERE authorization_code_value IS NOT NULL;
+CREATE INDEX IF NOT EXISTS oauth2_authorization_access_token_value_idx ON oauth2_authorization USING hash (access_token_value) WHERE access_token_value IS NOT NULL;
+CREATE INDEX IF NOT EXISTS oauth2_authorization_oidc_id_token_value_idx ON oauth2_authorization USING hash (oidc_id_token_value) WHERE oidc_id_token_value IS NOT NULL;
+CREATE INDEX IF NOT EXISTS oauth2_authorization_refresh_token_value_idx ON oauth2_authorization USING hash (refresh_token_value) WHERE refresh_token_value IS NOT NULL;
+CREATE INDEX IF NOT EXISTS oauth2_authorization_user_code_value_idx ON oauth2_authorization USING hash (user_code_value) WHERE user_code_value IS NOT NULL;
+CREATE INDEX IF NOT EXISTS oauth2_authorization_device_code_value_idx ON oauth2_authorization USING hash (device_code_value) WHERE device_code_value IS NOT NULL;
+
+/*
+Used by ExpiredAuthorizationPurger. An authorization expires with the last of its tokens.
+*/
+CREATE INDEX IF NOT EXISTS oauth2_authorization_expires_at_idx ON oauth2_authorization ((GREATEST(authorization_code_expires_at, access_token_expires_at, refresh_token_expires_at, oidc_id_token_expires_at, user_code_expires_at, device_code_expires_at)));
+CREATE INDEX IF NOT EXISTS oauth2_authorization_pending_created_at_idx ON oauth2_authorization (created_at) WHERE GREATEST(authorization_code_expires_at, access_token_expires_at, refresh_token_expires_at, oidc_id_token_expires_at, user_code_expires_at, device_code_expires_at) IS NULL;
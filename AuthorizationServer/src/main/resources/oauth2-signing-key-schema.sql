@@ -0,0 +1,15 @@
+/*
+RSA keys the authorization server signs tokens with. The private key is PKCS#8, encrypted with
+signing-keys.encryption-password; the public key is X.509. Both are base64 before encryption.
+replaces is the created_at of the key that was newest when this one was added (the epoch for the
+first key); it is unique, so two nodes rotating at the same time cannot both add a key.
+*/
+CREATE TABLE IF NOT EXISTS oauth2_signing_key (
+    kid varchar(100) NOT NULL,
+    private_key text NOT NULL,
+    public_key text NOT NULL,
+    created_at timestamp NOT NULL,
+    replaces timestamp NOT NULL,
+    PRIMARY KEY (kid),
+    UNIQUE (replaces)
+);
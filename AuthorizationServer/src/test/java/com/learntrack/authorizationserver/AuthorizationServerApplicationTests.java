@@ -3,7 +3,12 @@ package com.learntrack.authorizationserver;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+// @formatter:off
+@SpringBootTest(properties = {
+        "signing-keys.encryption-password=test-password",
+        "signing-keys.encryption-salt=5c0744940b5c369b"
+})
+// @formatter:on
 class AuthorizationServerApplicationTests {
 
     @Test
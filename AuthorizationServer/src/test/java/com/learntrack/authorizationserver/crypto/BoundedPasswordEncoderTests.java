@@ -0,0 +1,89 @@
+package com.learntrack.authorizationserver.crypto;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundedPasswordEncoderTests {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final PasswordEncoder delegate = PasswordEncoderFactories.createDelegatingPasswordEncoder();
+    private final PasswordEncoder blocking = new PasswordEncoder() {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return delegate.encode(rawPassword);
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return delegate.matches(rawPassword, encodedPassword);
+        }
+
+        @Override
+        public boolean upgradeEncoding(String encodedPassword) {
+            return delegate.upgradeEncoding(encodedPassword);
+        }
+    };
+    private final BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(blocking, 1, 1, meterRegistry);
+
+    @AfterEach
+    void shutdown() {
+        release.countDown();
+        encoder.shutdown();
+    }
+
+    @Test
+    void hashesOnTheExecutor() {
+        release.countDown();
+
+        String hash = encoder.encode("password");
+
+        assertThat(hash).startsWith("{bcrypt}");
+        assertThat(encoder.matches("password", hash)).isTrue();
+        assertThat(meterRegistry.get("password.hashing.duration").tag("operation", "encode").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("password.hashing.duration").tag("operation", "matches").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsOnceTheQueueIsFull() throws Exception {
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("first"));
+        started.await(5, TimeUnit.SECONDS);
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("second"));
+        while (meterRegistry.get("password.hashing.queued").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        assertThatThrownBy(() -> encoder.encode("third")).isInstanceOf(PasswordHashingRejectedException.class);
+        assertThat(meterRegistry.get("password.hashing.rejected").counter().count()).isEqualTo(1);
+        assertThat(encoder.upgradeEncoding("{noop}password")).isFalse();
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).startsWith("{bcrypt}");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).startsWith("{bcrypt}");
+        assertThat(encoder.upgradeEncoding("{noop}password")).isTrue();
+    }
+
+    @Test
+    void noopPasswordsAreComparedInline() throws Exception {
+        CompletableFuture.supplyAsync(() -> encoder.encode("first"));
+        started.await(5, TimeUnit.SECONDS);
+
+        assertThat(encoder.matches("secret", "{noop}secret")).isTrue();
+    }
+}
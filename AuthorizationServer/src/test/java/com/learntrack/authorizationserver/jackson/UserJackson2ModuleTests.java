@@ -0,0 +1,55 @@
+package com.learntrack.authorizationserver.jackson;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learntrack.authorizationserver.configs.WebSecurityConfig;
+import com.learntrack.authorizationserver.models.UserSnapshot;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.Principal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.InstanceOfAssertFactories.MAP;
+
+class UserJackson2ModuleTests {
+    private final ObjectMapper objectMapper = WebSecurityConfig.authorizationObjectMapper();
+
+    @Test
+    void principalSurvivesAuthorizationAttributes() throws Exception {
+        UserSnapshot user = new UserSnapshot(7L, "lecturer", "{bcrypt}hash", List.of(new SimpleGrantedAuthority("READ"), new SimpleGrantedAuthority("WRITE")), List.of("ROLE_USER", "ROLE_LECTURER"));
+        Authentication authentication = UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities());
+
+        Map<String, Object> stored = new HashMap<>();
+        stored.put(Principal.class.getName(), authentication);
+        String json = objectMapper.writeValueAsString(stored);
+        Map<String, Object> attributes = objectMapper.readValue(json, new TypeReference<>() {
+        });
+
+        UserSnapshot principal = (UserSnapshot) ((Authentication) attributes.get(Principal.class.getName())).getPrincipal();
+        assertThat(principal.getId()).isEqualTo(7L);
+        assertThat(principal.getUsername()).isEqualTo("lecturer");
+        assertThat(principal.getRoleNames()).containsExactly("ROLE_USER", "ROLE_LECTURER");
+        assertThat(principal.getAuthorities()).extracting("authority").containsExactlyInAnyOrder("READ", "WRITE");
+        assertThat(json).doesNotContain("{bcrypt}hash");
+    }
+
+    @Test
+    void userIdClaimSurvivesTokenMetadata() throws Exception {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("user_id", 7L);
+        Map<String, Object> metadata = new HashMap<>();
+        metadata.put("metadata.token.claims", claims);
+
+        String json = objectMapper.writeValueAsString(metadata);
+        Map<String, Object> read = objectMapper.readValue(json, new TypeReference<>() {
+        });
+
+        assertThat(read).extractingByKey("metadata.token.claims").asInstanceOf(MAP).containsEntry("user_id", 7L);
+    }
+}
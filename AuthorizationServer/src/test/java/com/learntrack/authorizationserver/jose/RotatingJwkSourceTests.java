@@ -0,0 +1,110 @@
+package com.learntrack.authorizationserver.jose;
+
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.RSAKey;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.KeyPair;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RotatingJwkSourceTests {
+    private final List<SigningKey> stored = new ArrayList<>();
+    private final JdbcSigningKeyStore keyStore = mock(JdbcSigningKeyStore.class);
+    private final RotatingJwkSource jwkSource = new RotatingJwkSource(keyStore);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(jwkSource, "rotationInterval", Duration.ofDays(30));
+        ReflectionTestUtils.setField(jwkSource, "activationDelay", Duration.ofHours(1));
+        ReflectionTestUtils.setField(jwkSource, "retention", Duration.ofDays(11));
+
+        when(keyStore.findAll()).thenAnswer(invocation -> List.copyOf(stored));
+        when(keyStore.generate(any(), any())).thenAnswer(invocation -> stored.add(key("generated", invocation.getArgument(0))));
+        doAnswer(invocation -> stored.removeIf(key -> key.keyId().equals(invocation.getArgument(0)))).when(keyStore).delete(anyString());
+    }
+
+    @Test
+    void firstKeyIsGeneratedAndUsedStraightAway() {
+        jwkSource.load();
+
+        assertThat(jwkSource.currentKeyId()).isEqualTo("generated");
+        assertThat(publishedKeyIds()).containsExactly("generated");
+    }
+
+    @Test
+    void storedKeysAreReused() {
+        stored.add(key("existing", Instant.now().minus(Duration.ofDays(3))));
+
+        jwkSource.load();
+
+        assertThat(jwkSource.currentKeyId()).isEqualTo("existing");
+        verify(keyStore, never()).generate(any(), any());
+    }
+
+    @Test
+    void newKeyIsPublishedBeforeItSigns() {
+        stored.add(key("old", Instant.now().minus(Duration.ofDays(31))));
+
+        jwkSource.refresh();
+
+        assertThat(jwkSource.currentKeyId()).isEqualTo("old");
+        assertThat(publishedKeyIds()).containsExactly("old", "generated");
+    }
+
+    @Test
+    void replacedKeyIsPublishedForTheRetentionPeriod() {
+        stored.add(key("old", Instant.now().minus(Duration.ofDays(20))));
+        stored.add(key("new", Instant.now().minus(Duration.ofDays(5))));
+
+        jwkSource.refresh();
+
+        assertThat(jwkSource.currentKeyId()).isEqualTo("new");
+        assertThat(publishedKeyIds()).containsExactly("old", "new");
+        verify(keyStore, never()).delete(anyString());
+    }
+
+    @Test
+    void replacedKeyIsDeletedAfterTheRetentionPeriod() {
+        stored.add(key("old", Instant.now().minus(Duration.ofDays(25))));
+        stored.add(key("new", Instant.now().minus(Duration.ofDays(12))));
+
+        jwkSource.refresh();
+
+        assertThat(jwkSource.currentKeyId()).isEqualTo("new");
+        assertThat(publishedKeyIds()).containsExactly("new");
+        verify(keyStore).delete("old");
+    }
+
+    @Test
+    void publishedSetHasNoPrivateKeys() {
+        jwkSource.load();
+
+        assertThat(jwkSource.getPublicJwkSet().getKeys()).noneMatch(JWK::isPrivate);
+    }
+
+    private List<String> publishedKeyIds() {
+        return jwkSource.getPublicJwkSet().getKeys().stream().map(JWK::getKeyID).toList();
+    }
+
+    private static SigningKey key(String keyId, Instant createdAt) {
+        KeyPair keyPair = KeyGeneratorUtils.generateRsaKey();
+        RSAKey rsaKey = new RSAKey.Builder((RSAPublicKey) keyPair.getPublic()).privateKey((RSAPrivateKey) keyPair.getPrivate()).keyID(keyId).build();
+        return new SigningKey(rsaKey, createdAt);
+    }
+}
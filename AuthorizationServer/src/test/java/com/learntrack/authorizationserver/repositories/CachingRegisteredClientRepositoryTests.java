@@ -0,0 +1,75 @@
+package com.learntrack.authorizationserver.repositories;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClientRepository;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachingRegisteredClientRepositoryTests {
+    private final AtomicInteger reads = new AtomicInteger();
+    private final Map<String, RegisteredClient> rows = new HashMap<>(Map.of("client-1", client("learntrack")));
+    private final RegisteredClientRepository counting = new RegisteredClientRepository() {
+        @Override
+        public void save(RegisteredClient registeredClient) {
+            rows.put(registeredClient.getId(), registeredClient);
+        }
+
+        @Override
+        public RegisteredClient findById(String id) {
+            reads.incrementAndGet();
+            return rows.get(id);
+        }
+
+        @Override
+        public RegisteredClient findByClientId(String clientId) {
+            reads.incrementAndGet();
+            return rows.values().stream().filter(client -> client.getClientId().equals(clientId)).findFirst().orElse(null);
+        }
+    };
+    private final CachingRegisteredClientRepository repository = new CachingRegisteredClientRepository(counting, 100, Duration.ofMinutes(10));
+
+    @Test
+    void lookupsByEitherKeyAreServedFromTheCache() {
+        RegisteredClient byClientId = repository.findByClientId("learntrack");
+        RegisteredClient byId = repository.findById("client-1");
+        repository.findByClientId("learntrack");
+
+        assertThat(byId).isSameAs(byClientId);
+        assertThat(reads).hasValue(1);
+    }
+
+    @Test
+    void saveEvictsTheOldAndNewClientId() {
+        repository.findByClientId("learntrack");
+
+        repository.save(RegisteredClient.from(rows.get("client-1")).clientId("learntrack-web").build());
+
+        assertThat(repository.findByClientId("learntrack")).isNull();
+        assertThat(repository.findByClientId("learntrack-web").getId()).isEqualTo("client-1");
+        assertThat(reads).hasValue(3);
+    }
+
+    @Test
+    void unknownClientsAreNotCached() {
+        repository.findByClientId("unknown");
+        repository.findByClientId("unknown");
+
+        assertThat(reads).hasValue(2);
+    }
+
+    private static RegisteredClient client(String clientId) {
+        // @formatter:off
+        return RegisteredClient.withId("client-1")
+                .clientId(clientId)
+                .authorizationGrantType(AuthorizationGrantType.CLIENT_CREDENTIALS)
+                .build();
+        // @formatter:on
+    }
+}
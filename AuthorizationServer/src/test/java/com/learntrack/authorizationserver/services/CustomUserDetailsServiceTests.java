@@ -0,0 +1,107 @@
+package com.learntrack.authorizationserver.services;
+
+import com.learntrack.authorizationserver.models.Authority;
+import com.learntrack.authorizationserver.models.Role;
+import com.learntrack.authorizationserver.models.User;
+import com.learntrack.authorizationserver.models.UserSnapshot;
+import com.learntrack.authorizationserver.repositories.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CustomUserDetailsServiceTests {
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final CustomUserDetailsService userDetailsService = new CustomUserDetailsService(userRepository, 100, Duration.ofMinutes(10));
+
+    @Test
+    void loadsAFlattenedSnapshotOnce() {
+        when(userRepository.findByUsername("admin")).thenReturn(Optional.of(admin()));
+
+        UserSnapshot first = (UserSnapshot) userDetailsService.loadUserByUsername("admin");
+        UserSnapshot second = (UserSnapshot) userDetailsService.loadUserByUsername("admin");
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.getId()).isEqualTo(1L);
+        assertThat(first.getRoleNames()).containsExactlyInAnyOrder("ROLE_USER", "ROLE_ADMIN");
+        assertThat(first.getAuthorities()).extracting("authority").containsExactlyInAnyOrder("READ", "WRITE", "DELETE");
+        verify(userRepository, times(1)).findByUsername("admin");
+    }
+
+    @Test
+    void evictedUsersAreReloaded() {
+        when(userRepository.findByUsername("admin")).thenReturn(Optional.of(admin()));
+
+        userDetailsService.loadUserByUsername("admin");
+        userDetailsService.evict(admin());
+        userDetailsService.loadUserByUsername("admin");
+
+        verify(userRepository, times(2)).findByUsername("admin");
+    }
+
+    @Test
+    void renamedUsersAreEvictedUnderTheirOldName() {
+        when(userRepository.findByUsername("admin")).thenReturn(Optional.of(admin()));
+        userDetailsService.loadUserByUsername("admin");
+
+        User renamed = admin();
+        renamed.setUsername("root");
+        userDetailsService.evict(renamed);
+        when(userRepository.findByUsername("admin")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> userDetailsService.loadUserByUsername("admin")).isInstanceOf(UsernameNotFoundException.class);
+    }
+
+    @Test
+    void usersReadDuringAnEvictionAreNotCached() {
+        // the user is changed and evicted after the lookup has read it
+        when(userRepository.findByUsername("admin")).thenAnswer(invocation -> {
+            User stale = admin();
+            userDetailsService.evict(stale);
+            return Optional.of(stale);
+        });
+
+        userDetailsService.loadUserByUsername("admin");
+        userDetailsService.loadUserByUsername("admin");
+
+        verify(userRepository, times(2)).findByUsername("admin");
+    }
+
+    @Test
+    void unknownUsersAreNotCached() {
+        when(userRepository.findByUsername("nobody")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> userDetailsService.loadUserByUsername("nobody")).isInstanceOf(UsernameNotFoundException.class);
+        assertThatThrownBy(() -> userDetailsService.loadUserByUsername("nobody")).isInstanceOf(UsernameNotFoundException.class);
+
+        verify(userRepository, times(2)).findByUsername("nobody");
+    }
+
+    private static User admin() {
+        Role user = role(1L, "ROLE_USER", "READ", "WRITE");
+        Role admin = role(2L, "ROLE_ADMIN", "READ", "WRITE", "DELETE");
+        User account = new User("admin", "{noop}password");
+        ReflectionTestUtils.setField(account, "id", 1L);
+        account.addRole(user);
+        account.addRole(admin);
+        return account;
+    }
+
+    private static Role role(Long id, String name, String... authorities) {
+        Role role = new Role(name);
+        ReflectionTestUtils.setField(role, "id", id);
+        for (String authority : authorities) {
+            role.addAuthority(new Authority(authority));
+        }
+        return role;
+    }
+}
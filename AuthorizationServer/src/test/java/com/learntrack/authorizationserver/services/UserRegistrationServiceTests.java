@@ -0,0 +1,56 @@
+package com.learntrack.authorizationserver.services;
+
+import com.learntrack.authorizationserver.exceptions.UserAlreadyExistsException;
+import com.learntrack.authorizationserver.models.Role;
+import com.learntrack.authorizationserver.models.User;
+import com.learntrack.authorizationserver.models.UserRegistrationRequestDTO;
+import com.learntrack.authorizationserver.repositories.RoleRepository;
+import com.learntrack.authorizationserver.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserRegistrationServiceTests {
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final RoleRepository roleRepository = mock(RoleRepository.class);
+    private final UserRegistrationService registrationService = new UserRegistrationService(new BCryptPasswordEncoder(4), userRepository, roleRepository);
+
+    @BeforeEach
+    void setUp() {
+        when(userRepository.findByUsername("student")).thenReturn(Optional.empty());
+        when(roleRepository.findByName("ROLE_USER")).thenReturn(Optional.of(new Role("ROLE_USER")));
+    }
+
+    @Test
+    void concurrentRegistrationOfTheSameNameIsAConflict() {
+        when(userRepository.save(any(User.class))).thenThrow(new DataIntegrityViolationException("duplicate key"));
+        when(userRepository.existsByUsername("student")).thenReturn(true);
+
+        assertThatThrownBy(() -> registrationService.registerUser(request())).isInstanceOf(UserAlreadyExistsException.class);
+    }
+
+    @Test
+    void otherConstraintViolationsAreRethrown() {
+        when(userRepository.save(any(User.class))).thenThrow(new DataIntegrityViolationException("value too long"));
+        when(userRepository.existsByUsername("student")).thenReturn(false);
+
+        assertThatThrownBy(() -> registrationService.registerUser(request())).isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    private static UserRegistrationRequestDTO request() {
+        UserRegistrationRequestDTO request = new UserRegistrationRequestDTO();
+        ReflectionTestUtils.setField(request, "username", "student");
+        ReflectionTestUtils.setField(request, "password", "password");
+        ReflectionTestUtils.setField(request, "role", "ROLE_USER");
+        return request;
+    }
+}
@@ -0,0 +1,122 @@
+package com.learntrack.clientserver.benchmarks;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learntrack.clientserver.models.CourseResponseDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.StringTemplateResolver;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decodes a page of courses as the resource server sends it and renders the course cards of {@code courses.html}.
+ * Run with {@code -prof gc}; {@code gc.alloc.rate.norm} is the allocation per page render.
+ * <ul>
+ * <li>{@code untyped} with {@code compiler=false} is how pages were rendered before: {@code Object[]} of maps read
+ * by interpreted SpEL.</li>
+ * <li>{@code typedArray} decodes into {@link CourseResponseDTO} records in one pass, as the courses and lessons
+ * pages do.</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PageRenderBenchmark {
+    private static final ResolvableType OBJECT_ARRAY = ResolvableType.forClass(Object[].class);
+    private static final ResolvableType COURSE_ARRAY = ResolvableType.forClass(CourseResponseDTO[].class);
+
+    // @formatter:off
+    private static final String TEMPLATE = """
+            <div class="row g-4">
+              <div class="col-md-4" th:each="course : ${courses}">
+                <div class="card h-100" th:data-course-id="${course.id}">
+                  <a th:href="|/courses/${course.id}|" class="text-decoration-none text-dark">
+                    <div class="card-body">
+                      <h5 class="card-title" th:text="${course.name}">Course Name</h5>
+                      <p class="card-text" th:text="${course.description}">Course Description</p>
+                    </div>
+                  </a>
+                </div>
+              </div>
+            </div>
+            """;
+    // @formatter:on
+
+    @Param({"20", "100"})
+    public int size;
+
+    @Param({"false", "true"})
+    public boolean compiler;
+
+    private byte[] json;
+    private Jackson2JsonDecoder decoder;
+    private SpringTemplateEngine templateEngine;
+
+    @Setup
+    public void setUp() throws Exception {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().featuresToDisable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES).build();
+        decoder = new Jackson2JsonDecoder(objectMapper);
+
+        List<Map<String, Object>> courses = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            courses.add(Map.of("id", (long) i, "name", "Course " + i, "description", "An introduction to topic number " + i + " and the ideas around it"));
+        }
+        json = objectMapper.writeValueAsBytes(courses);
+
+        StringTemplateResolver templateResolver = new StringTemplateResolver();
+        templateResolver.setTemplateMode(TemplateMode.HTML);
+        templateResolver.setCacheable(true);
+        templateEngine = new SpringTemplateEngine();
+        templateEngine.setEnableSpringELCompiler(compiler);
+        templateEngine.setTemplateResolver(templateResolver);
+    }
+
+    @Benchmark
+    public String untyped() {
+        Object[] courses = (Object[]) decoder.decodeToMono(body(), OBJECT_ARRAY, MediaType.APPLICATION_JSON, Map.of()).block();
+        return render(Arrays.asList(courses));
+    }
+
+    @Benchmark
+    public String typedArray() {
+        CourseResponseDTO[] courses = (CourseResponseDTO[]) decoder.decodeToMono(body(), COURSE_ARRAY, MediaType.APPLICATION_JSON, Map.of()).block();
+        return render(Arrays.asList(courses));
+    }
+
+    private Flux<DataBuffer> body() {
+        return Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(json));
+    }
+
+    private String render(List<?> courses) {
+        Context context = new Context();
+        context.setVariable("courses", courses);
+        return templateEngine.process(TEMPLATE, context);
+    }
+}
@@ -1,19 +1,72 @@
 package com.learntrack.clientserver.config;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learntrack.clientserver.http.ResponseCacheFilter;
+import com.learntrack.clientserver.http.SingleFlightFilter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import java.time.Duration;
+
 @Configuration
 public class WebClientConfig {
 
     @Value("${resource.server.url}")
     private String resourceServerUrl;
 
+    @Value("${webclient.cache.maximum-size:1000}")
+    private long cacheMaximumSize;
+
+    @Value("${webclient.cache.ttl:PT5S}")
+    private Duration cacheTtl;
+
+    @Value("${webclient.cache.stale-while-revalidate:PT30S}")
+    private Duration cacheStaleWhileRevalidate;
+
+    @Value("${webclient.cache.retention:PT10M}")
+    private Duration cacheRetention;
+
+    /**
+     * Shared by every WebClient built from {@link #webClientBuilder}, so a change made through one controller
+     * evicts what the others cached.
+     */
+    @Bean
+    ResponseCacheFilter responseCacheFilter() {
+        return new ResponseCacheFilter(cacheMaximumSize, cacheTtl, cacheStaleWhileRevalidate, cacheRetention);
+    }
+
+    @Bean
+    SingleFlightFilter singleFlightFilter(MeterRegistry meterRegistry) {
+        return new SingleFlightFilter(meterRegistry);
+    }
+
+    /**
+     * Resource server calls use a copy of the application's {@link ObjectMapper} that ignores fields the records do
+     * not declare and leaves nulls out of request bodies; the server side keeps the defaults. The copy is made once
+     * here, so its deserializers are shared by every WebClient. The cache answers first, so only misses and
+     * revalidations are coalesced.
+     */
     @Bean
-    WebClient.Builder webClientBuilder() {
+    WebClient.Builder webClientBuilder(ObjectMapper objectMapper, ResponseCacheFilter responseCacheFilter, SingleFlightFilter singleFlightFilter) {
+        // @formatter:off
+        ObjectMapper resourceServerMapper = objectMapper.copy()
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        // @formatter:on
         return WebClient.builder()
-                .baseUrl(resourceServerUrl);
+                .baseUrl(resourceServerUrl)
+                .codecs(codecs -> {
+                    codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(resourceServerMapper));
+                    codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(resourceServerMapper));
+                })
+                .filter(responseCacheFilter)
+                .filter(singleFlightFilter);
     }
-} 
\ No newline at end of file
+}
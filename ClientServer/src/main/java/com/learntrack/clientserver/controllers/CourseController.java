@@ -1,5 +1,7 @@
 package com.learntrack.clientserver.controllers;
 
+import com.learntrack.clientserver.models.CourseDetailDTO;
+import com.learntrack.clientserver.models.CourseResponseDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.core.Authentication;
@@ -18,10 +20,13 @@ import reactor.core.publisher.Mono;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @Controller
 @RequestMapping("/courses")
 public class CourseController {
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final WebClient webClient;
     private final Logger logger = LoggerFactory.getLogger(CourseController.class);
 
@@ -40,17 +45,23 @@ public class CourseController {
 
     @GetMapping
     public Mono<String> courses(
+            @RequestParam(required = false) Long after,
             Model model,
             @RegisteredOAuth2AuthorizedClient("learntrack") OAuth2AuthorizedClient authorizedClient,
             @CurrentSecurityContext(expression = "authentication") Authentication authentication) {
         return webClient
                 .get()
-                .uri("/api/v1/courses")
+                .uri(uriBuilder -> uriBuilder
+                        .path("/api/v1/courses")
+                        .queryParamIfPresent("after", Optional.ofNullable(after))
+                        .build())
                 .headers(headers -> headers.setBearerAuth(authorizedClient.getAccessToken().getTokenValue()))
                 .retrieve()
-                .bodyToMono(Object[].class)
-                .map(courses -> {
-                    model.addAttribute("courses", courses);
+                .toEntity(CourseResponseDTO[].class)
+                .map(response -> {
+                    // a page holds at most 100 courses, which decode with less garbage as one array than as a stream
+                    model.addAttribute("courses", List.of(response.getBody()));
+                    model.addAttribute("nextCursor", response.getHeaders().getFirst(NEXT_CURSOR_HEADER));
                     model.addAttribute("canManageCourses", hasRequiredRole(authentication));
                     return "courses";
                 });
@@ -71,7 +82,7 @@ public class CourseController {
                 .headers(headers -> headers.setBearerAuth(authorizedClient.getAccessToken().getTokenValue()))
                 .bodyValue(courseData)
                 .retrieve()
-                .bodyToMono(Object.class)
+                .toBodilessEntity()
                 .thenReturn("redirect:/courses");
     }
 
@@ -109,7 +120,7 @@ public class CourseController {
                 .headers(headers -> headers.setBearerAuth(authorizedClient.getAccessToken().getTokenValue()))
                 .bodyValue(courseData)
                 .retrieve()
-                .bodyToMono(Object.class)
+                .toBodilessEntity()
                 .thenReturn("redirect:/courses");
     }
 
@@ -120,28 +131,16 @@ public class CourseController {
             @RegisteredOAuth2AuthorizedClient("learntrack") OAuth2AuthorizedClient authorizedClient,
             @CurrentSecurityContext(expression = "authentication") Authentication authentication) {
         logger.info("Fetching course detail for course ID: {}", courseId);
-        
-        Mono<Object> courseMono = webClient
-                .get()
-                .uri("/api/v1/courses/{courseId}", courseId)
-                .headers(headers -> headers.setBearerAuth(authorizedClient.getAccessToken().getTokenValue()))
-                .retrieve()
-                .bodyToMono(Object.class);
-                
-        Mono<Object[]> lessonsMono = webClient
+
+        return webClient
                 .get()
-                .uri("/api/v1/courses/{courseId}/lessons", courseId)
+                .uri("/api/v1/courses/{courseId}/detail", courseId)
                 .headers(headers -> headers.setBearerAuth(authorizedClient.getAccessToken().getTokenValue()))
                 .retrieve()
-                .bodyToMono(Object[].class);
-                
-        return Mono.zip(courseMono, lessonsMono)
-                .map(tuple -> {
-                    Object course = tuple.getT1();
-                    Object[] lessons = tuple.getT2();
-                    
+                .bodyToMono(CourseDetailDTO.class)
+                .map(course -> {
                     model.addAttribute("course", course);
-                    model.addAttribute("lessons", lessons);
+                    model.addAttribute("lessons", course.lessons());
                     model.addAttribute("canManageCourses", hasRequiredRole(authentication));
                     return "course-detail";
                 });
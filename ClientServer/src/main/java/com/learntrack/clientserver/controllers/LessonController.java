@@ -8,7 +8,8 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.reactive.function.client.WebClient;
 
 import com.learntrack.clientserver.models.LessonDTO;
-import com.learntrack.clientserver.models.ReviewResponseDTO;
+import com.learntrack.clientserver.models.LessonDetailDTO;
+import com.learntrack.clientserver.models.LessonResponseDTO;
 
 import reactor.core.publisher.Mono;
 
@@ -55,7 +56,8 @@ public class LessonController {
                 .uri("/api/v1/courses/{courseId}/lessons", courseId)
                 .headers(headers -> headers.setBearerAuth(authorizedClient.getAccessToken().getTokenValue()))
                 .retrieve()
-                .bodyToMono(Object[].class)
+                // the response cache holds whole bodies, so there is nothing to stream; one array decodes with less garbage
+                .bodyToMono(LessonResponseDTO[].class)
                 .map(lessons -> {
                     model.addAttribute("courseId", courseId);
                     model.addAttribute("lessons", lessons);
@@ -81,7 +83,7 @@ public class LessonController {
                 .headers(headers -> headers.setBearerAuth(authorizedClient.getAccessToken().getTokenValue()))
                 .bodyValue(lessonDTO)
                 .retrieve()
-                .bodyToMono(Object.class)
+                .toBodilessEntity()
                 .thenReturn("redirect:/courses/" + courseId);
     }
 
@@ -123,7 +125,7 @@ public class LessonController {
                 .headers(headers -> headers.setBearerAuth(authorizedClient.getAccessToken().getTokenValue()))
                 .bodyValue(lessonDTO)
                 .retrieve()
-                .bodyToMono(Object.class)
+                .toBodilessEntity()
                 .thenReturn("redirect:/courses/" + courseId);
     }
 
@@ -135,29 +137,17 @@ public class LessonController {
             @RegisteredOAuth2AuthorizedClient("learntrack") OAuth2AuthorizedClient authorizedClient,
             @AuthenticationPrincipal OidcUser user) {
         logger.info("Fetching lesson detail for lesson ID: {} in course ID: {}", lessonId, courseId);
-        
-        Mono<Object> lessonMono = webClient
-                .get()
-                .uri("/api/v1/courses/{courseId}/lessons/{lessonId}", courseId, lessonId)
-                .headers(headers -> headers.setBearerAuth(authorizedClient.getAccessToken().getTokenValue()))
-                .retrieve()
-                .bodyToMono(Object.class);
-                
-        Mono<ReviewResponseDTO[]> reviewsMono = webClient
+
+        return webClient
                 .get()
-                .uri("/api/v1/courses/{courseId}/lessons/{lessonId}/reviews", courseId, lessonId)
+                .uri("/api/v1/courses/{courseId}/lessons/{lessonId}/detail", courseId, lessonId)
                 .headers(headers -> headers.setBearerAuth(authorizedClient.getAccessToken().getTokenValue()))
                 .retrieve()
-                .bodyToMono(ReviewResponseDTO[].class);
-                
-        return Mono.zip(lessonMono, reviewsMono)
-                .map(tuple -> {
-                    Object lesson = tuple.getT1();
-                    ReviewResponseDTO[] reviews = tuple.getT2();
-                    
+                .bodyToMono(LessonDetailDTO.class)
+                .map(lesson -> {
                     model.addAttribute("courseId", courseId);
                     model.addAttribute("lesson", lesson);
-                    model.addAttribute("reviews", reviews);
+                    model.addAttribute("reviews", lesson.reviews());
                     model.addAttribute("canManageLessons", hasRequiredRole(user));
                     model.addAttribute("currentUserId", Long.parseLong(user.getAttributes().get("user_id").toString()));
                     return "lesson-detail";
@@ -47,7 +47,7 @@ public class ReviewController {
                 .headers(headers -> headers.setBearerAuth(authorizedClient.getAccessToken().getTokenValue()))
                 .bodyValue(reviewDTO)
                 .retrieve()
-                .bodyToMono(Object.class)
+                .toBodilessEntity()
                 .thenReturn("redirect:/courses/" + courseId + "/lessons/" + lessonId);
     }
 
@@ -66,7 +66,7 @@ public class ReviewController {
                 .headers(headers -> headers.setBearerAuth(authorizedClient.getAccessToken().getTokenValue()))
                 .bodyValue(reviewDTO)
                 .retrieve()
-                .bodyToMono(Object.class)
+                .toBodilessEntity()
                 .thenReturn("redirect:/courses/" + courseId + "/lessons/" + lessonId);
     }
 
@@ -0,0 +1,51 @@
+package com.learntrack.clientserver.http;
+
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * A response read fully into memory, which can be handed out any number of times as a new {@link ClientResponse}.
+ */
+final class BufferedResponse {
+    private static final byte[] EMPTY = new byte[0];
+
+    private final HttpStatusCode status;
+    private final HttpHeaders headers;
+    private final byte[] body;
+    private final ExchangeStrategies strategies;
+
+    private BufferedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body, ExchangeStrategies strategies) {
+        this.status = status;
+        this.headers = HttpHeaders.readOnlyHttpHeaders(headers);
+        this.body = body;
+        this.strategies = strategies;
+    }
+
+    static Mono<BufferedResponse> of(ClientResponse response) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.addAll(response.headers().asHttpHeaders());
+        // @formatter:off
+        return response.bodyToMono(byte[].class)
+                .defaultIfEmpty(EMPTY)
+                .map(body -> new BufferedResponse(response.statusCode(), headers, body, response.strategies()));
+        // @formatter:on
+    }
+
+    HttpHeaders headers() {
+        return headers;
+    }
+
+    ClientResponse toResponse() {
+        // @formatter:off
+        return ClientResponse.create(status, strategies)
+                .headers(target -> target.addAll(headers))
+                .body(Flux.defer(() -> Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(body))))
+                .build();
+        // @formatter:on
+    }
+}
@@ -0,0 +1,207 @@
+package com.learntrack.clientserver.http;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches the bodies of successful GET responses per URI.
+ * <p>
+ * A response younger than {@code ttl} is served without calling the resource server. Up to
+ * {@code staleWhileRevalidate} after that it is still served, while one background request revalidates it. Older
+ * responses are kept for {@code retention} so the next GET can be sent with {@code If-None-Match} /
+ * {@code If-Modified-Since} and a 304 answered from the cached body.
+ * <p>
+ * The resource server serves every GET to anonymous callers too, so responses do not depend on the bearer token and
+ * are shared between users. Freshness is decided by the settings above rather than by {@code Cache-Control}, which
+ * Spring Security sets to {@code no-store} on every response.
+ * <p>
+ * A POST, PUT, PATCH or DELETE evicts the cached responses it can change, both when it is sent and when it
+ * completes: everything below the changed path, and everything that reaches the changed path's ancestors through
+ * named segments only, such as {@code /count}, {@code /detail} or the collection itself. Responses stored by
+ * requests that were in flight across such an eviction are discarded.
+ */
+public class ResponseCacheFilter implements ExchangeFilterFunction {
+    private static final Set<HttpMethod> MUTATING = Set.of(HttpMethod.POST, HttpMethod.PUT, HttpMethod.PATCH, HttpMethod.DELETE);
+
+    private final Cache<URI, CachedResponse> cache;
+    private final long ttlNanos;
+    private final long staleNanos;
+    private final Ticker ticker;
+    private final AtomicLong generation = new AtomicLong();
+    private final Object lock = new Object();
+    private final Logger logger = LoggerFactory.getLogger(ResponseCacheFilter.class);
+
+    public ResponseCacheFilter(long maximumSize, Duration ttl, Duration staleWhileRevalidate, Duration retention) {
+        this(maximumSize, ttl, staleWhileRevalidate, retention, Ticker.systemTicker());
+    }
+
+    ResponseCacheFilter(long maximumSize, Duration ttl, Duration staleWhileRevalidate, Duration retention, Ticker ticker) {
+        this.ttlNanos = ttl.toNanos();
+        this.staleNanos = ttlNanos + staleWhileRevalidate.toNanos();
+        this.ticker = ticker;
+        // @formatter:off
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(retention.compareTo(ttl.plus(staleWhileRevalidate)) > 0 ? retention : ttl.plus(staleWhileRevalidate))
+                .ticker(ticker)
+                .build();
+        // @formatter:on
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        if (MUTATING.contains(request.method())) {
+            String path = request.url().getPath();
+            invalidate(path);
+            return next.exchange(request).doFinally(signal -> invalidate(path));
+        }
+
+        if (request.method() != HttpMethod.GET) {
+            return next.exchange(request);
+        }
+
+        URI key = request.url();
+        CachedResponse cached = cache.getIfPresent(key);
+        if (cached == null) {
+            return fetch(key, request, null, next);
+        }
+
+        long age = ticker.read() - cached.storedAt;
+        if (age < ttlNanos) {
+            return Mono.just(cached.toResponse());
+        }
+
+        if (age < staleNanos) {
+            if (cached.revalidating.compareAndSet(false, true)) {
+                // @formatter:off
+                fetch(key, request, cached, next)
+                        .flatMap(ClientResponse::releaseBody)
+                        .doFinally(signal -> cached.revalidating.set(false))
+                        .subscribe(null, error -> logger.debug("Background revalidation of {} failed", key, error));
+                // @formatter:on
+            }
+            return Mono.just(cached.toResponse());
+        }
+
+        return fetch(key, request, cached, next);
+    }
+
+    /**
+     * Evicts every cached response that a change to the given path can affect.
+     */
+    public void invalidate(String mutatedPath) {
+        synchronized (lock) {
+            generation.incrementAndGet();
+            cache.asMap().keySet().removeIf(key -> affects(mutatedPath, key.getPath()));
+        }
+    }
+
+    static boolean affects(String mutatedPath, String cachedPath) {
+        String[] mutated = segments(mutatedPath);
+        String[] cached = segments(cachedPath);
+
+        int common = 0;
+        while (common < mutated.length && common < cached.length && mutated[common].equals(cached[common])) {
+            common++;
+        }
+
+        if (common == mutated.length) {
+            return true;
+        }
+
+        for (int i = common; i < cached.length; i++) {
+            if (isId(cached[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Mono<ClientResponse> fetch(URI key, ClientRequest request, CachedResponse cached, ExchangeFunction next) {
+        long startedAt = generation.get();
+        return next.exchange(conditional(request, cached)).flatMap(response -> {
+            if (cached != null && response.statusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                return response.releaseBody().then(Mono.fromSupplier(() -> store(key, cached.revalidated(ticker.read()), startedAt).toResponse()));
+            }
+
+            if (!response.statusCode().isSameCodeAs(HttpStatus.OK)) {
+                if (cached != null && response.statusCode().is4xxClientError()) {
+                    cache.asMap().remove(key, cached);
+                }
+                return Mono.just(response);
+            }
+
+            return BufferedResponse.of(response).map(buffered -> store(key, new CachedResponse(buffered, ticker.read()), startedAt).toResponse());
+        });
+    }
+
+    private CachedResponse store(URI key, CachedResponse response, long startedAt) {
+        synchronized (lock) {
+            if (generation.get() == startedAt) {
+                cache.put(key, response);
+            }
+        }
+        return response;
+    }
+
+    private static ClientRequest conditional(ClientRequest request, CachedResponse cached) {
+        if (cached == null) {
+            return request;
+        }
+
+        return ClientRequest.from(request).headers(headers -> {
+            HttpHeaders validators = cached.response.headers();
+            if (validators.getETag() != null) {
+                headers.setIfNoneMatch(validators.getETag());
+            }
+            if (validators.getLastModified() != -1) {
+                headers.setIfModifiedSince(validators.getLastModified());
+            }
+        }).build();
+    }
+
+    private static String[] segments(String path) {
+        String trimmed = path == null ? "" : path.replaceAll("^/+|/+$", "");
+        return trimmed.isEmpty() ? new String[0] : trimmed.split("/+");
+    }
+
+    private static boolean isId(String segment) {
+        return !segment.isEmpty() && segment.chars().allMatch(Character::isDigit);
+    }
+
+    private static final class CachedResponse {
+        private final BufferedResponse response;
+        private final long storedAt;
+        private final AtomicBoolean revalidating = new AtomicBoolean();
+
+        private CachedResponse(BufferedResponse response, long storedAt) {
+            this.response = response;
+            this.storedAt = storedAt;
+        }
+
+        private CachedResponse revalidated(long now) {
+            return new CachedResponse(response, now);
+        }
+
+        private ClientResponse toResponse() {
+            return response.toResponse();
+        }
+    }
+}
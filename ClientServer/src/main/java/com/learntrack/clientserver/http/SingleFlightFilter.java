@@ -0,0 +1,99 @@
+package com.learntrack.clientserver.http;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lets concurrent identical GETs share one call to the resource server. The first request for a key goes upstream;
+ * requests for the same key that arrive before it completes wait for its response, and every caller gets its own
+ * copy of the status, headers and body.
+ * <p>
+ * The bearer token is not part of the key, since the resource server answers every GET for anonymous callers too.
+ * Callers whose responses must not be shared with other users can put a different class in the
+ * {@link #VISIBILITY_ATTRIBUTE} request attribute; requests only share a call within one class.
+ * <p>
+ * {@code webclient.single-flight.requests} counts GETs by whether they went {@code upstream} or were {@code shared},
+ * the latter being the calls saved.
+ */
+public class SingleFlightFilter implements ExchangeFilterFunction {
+    public static final String VISIBILITY_ATTRIBUTE = SingleFlightFilter.class.getName() + ".visibility";
+    public static final String PUBLIC = "public";
+
+    private static final String METER_PREFIX = "webclient.single-flight";
+
+    private final Map<Key, Flight> inFlight = new ConcurrentHashMap<>();
+    private final Counter upstream;
+    private final Counter shared;
+
+    public SingleFlightFilter(MeterRegistry meterRegistry) {
+        this.upstream = requests(meterRegistry, "upstream");
+        this.shared = requests(meterRegistry, "shared");
+        Gauge.builder(METER_PREFIX + ".in-flight", inFlight, Map::size).description("Distinct GETs currently in flight").register(meterRegistry);
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        if (request.method() != HttpMethod.GET) {
+            return next.exchange(request);
+        }
+
+        return Mono.defer(() -> {
+            Key key = Key.of(request);
+            boolean[] leader = new boolean[1];
+            Flight flight = inFlight.computeIfAbsent(key, k -> {
+                leader[0] = true;
+                return new Flight(k, request, next);
+            });
+            (leader[0] ? upstream : shared).increment();
+            return flight.response.map(BufferedResponse::toResponse);
+        });
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String outcome) {
+        // @formatter:off
+        return Counter.builder(METER_PREFIX + ".requests")
+                .description("GETs sent to the resource server or answered by another caller's identical GET")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+        // @formatter:on
+    }
+
+    // the validators are part of the key so a conditional GET never receives a 304 meant for another caller
+    private record Key(URI uri, Object visibility, String accept, String ifNoneMatch, String ifModifiedSince) {
+        static Key of(ClientRequest request) {
+            HttpHeaders headers = request.headers();
+            Object visibility = request.attribute(VISIBILITY_ATTRIBUTE).orElse(PUBLIC);
+            // @formatter:off
+            return new Key(request.url(), visibility,
+                    headers.getFirst(HttpHeaders.ACCEPT),
+                    headers.getFirst(HttpHeaders.IF_NONE_MATCH),
+                    headers.getFirst(HttpHeaders.IF_MODIFIED_SINCE));
+            // @formatter:on
+        }
+    }
+
+    private final class Flight {
+        private final Mono<BufferedResponse> response;
+
+        private Flight(Key key, ClientRequest request, ExchangeFunction next) {
+            // @formatter:off
+            this.response = Mono.defer(() -> next.exchange(request))
+                    .flatMap(BufferedResponse::of)
+                    .doFinally(signal -> inFlight.remove(key, this))
+                    .share();
+            // @formatter:on
+        }
+    }
+}
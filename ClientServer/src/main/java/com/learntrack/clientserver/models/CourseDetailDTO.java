@@ -0,0 +1,6 @@
+package com.learntrack.clientserver.models;
+
+import java.util.List;
+
+public record CourseDetailDTO(Long id, String name, String description, List<LessonSummaryDTO> lessons) {
+}
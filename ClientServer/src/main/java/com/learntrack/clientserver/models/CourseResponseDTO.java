@@ -0,0 +1,4 @@
+package com.learntrack.clientserver.models;
+
+public record CourseResponseDTO(Long id, String name, String description) {
+}
@@ -0,0 +1,6 @@
+package com.learntrack.clientserver.models;
+
+import java.util.List;
+
+public record LessonDetailDTO(Long id, String title, String description, Long courseId, List<ReviewResponseDTO> reviews) {
+}
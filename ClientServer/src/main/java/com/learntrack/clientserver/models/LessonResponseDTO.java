@@ -0,0 +1,4 @@
+package com.learntrack.clientserver.models;
+
+public record LessonResponseDTO(Long id, String title, String description, Long courseId) {
+}
@@ -0,0 +1,4 @@
+package com.learntrack.clientserver.models;
+
+public record LessonSummaryDTO(Long id, String title, String description, long reviewCount) {
+}
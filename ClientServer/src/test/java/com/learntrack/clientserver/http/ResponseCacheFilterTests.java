@@ -0,0 +1,127 @@
+package com.learntrack.clientserver.http;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseCacheFilterTests {
+    private static final URI COURSE = URI.create("http://resource/api/v1/courses/1");
+    private static final URI DETAIL = URI.create("http://resource/api/v1/courses/1/detail");
+
+    private final AtomicLong now = new AtomicLong();
+    private final ResponseCacheFilter filter = new ResponseCacheFilter(100, Duration.ofSeconds(5), Duration.ofSeconds(30), Duration.ofMinutes(10), now::get);
+    private final Upstream upstream = new Upstream();
+
+    @Test
+    void freshResponsesAreServedFromTheCache() {
+        assertThat(get(COURSE)).isEqualTo("v1");
+        upstream.body = "v2";
+
+        assertThat(get(COURSE)).isEqualTo("v1");
+        assertThat(upstream.requests).hasSize(1);
+    }
+
+    @Test
+    void staleResponsesAreServedWhileRevalidatingInTheBackground() {
+        get(COURSE);
+        upstream.body = "v2";
+        advance(Duration.ofSeconds(10));
+
+        assertThat(get(COURSE)).isEqualTo("v1");
+        assertThat(upstream.requests).hasSize(2);
+        assertThat(upstream.requests.get(1).headers().getIfNoneMatch()).containsExactly("\"v1\"");
+        assertThat(get(COURSE)).isEqualTo("v2");
+        assertThat(upstream.requests).hasSize(2);
+    }
+
+    @Test
+    void expiredResponsesAreRevalidatedBeforeTheyAreServed() {
+        get(COURSE);
+        advance(Duration.ofMinutes(1));
+
+        assertThat(get(COURSE)).isEqualTo("v1");
+        assertThat(upstream.notModified).isEqualTo(1);
+
+        // the 304 made the response fresh again
+        assertThat(get(COURSE)).isEqualTo("v1");
+        assertThat(upstream.requests).hasSize(2);
+    }
+
+    @Test
+    void changesEvictWhatTheyCanAffect() {
+        URI courses = URI.create("http://resource/api/v1/courses?after=5");
+        URI otherCourse = URI.create("http://resource/api/v1/courses/2/detail");
+        get(COURSE);
+        get(DETAIL);
+        get(courses);
+        get(otherCourse);
+
+        send(HttpMethod.POST, URI.create("http://resource/api/v1/courses/1/lessons/3/reviews"));
+
+        // the course, its detail with review counts and the course list are refetched; the other course is not
+        upstream.requests.clear();
+        get(COURSE);
+        get(DETAIL);
+        get(courses);
+        get(otherCourse);
+        assertThat(upstream.requests).extracting(ClientRequest::url).containsExactly(COURSE, DETAIL, courses);
+    }
+
+    @Test
+    void affectedPaths() {
+        assertThat(ResponseCacheFilter.affects("/api/v1/courses/1", "/api/v1/courses/1/lessons/3")).isTrue();
+        assertThat(ResponseCacheFilter.affects("/api/v1/courses/1", "/api/v1/courses/count")).isTrue();
+        assertThat(ResponseCacheFilter.affects("/api/v1/courses", "/api/v1/search")).isTrue();
+        assertThat(ResponseCacheFilter.affects("/api/v1/courses/1/lessons/3", "/api/v1/courses/1/lessons/4")).isFalse();
+        assertThat(ResponseCacheFilter.affects("/api/v1/courses/1", "/api/v1/courses/2/detail")).isFalse();
+    }
+
+    private String get(URI uri) {
+        ClientResponse response = filter.filter(ClientRequest.create(HttpMethod.GET, uri).build(), upstream).block();
+        return response.bodyToMono(String.class).block();
+    }
+
+    private void send(HttpMethod method, URI uri) {
+        filter.filter(ClientRequest.create(method, uri).build(), upstream).flatMap(ClientResponse::releaseBody).block();
+    }
+
+    private void advance(Duration duration) {
+        now.addAndGet(duration.toNanos());
+    }
+
+    private static final class Upstream implements ExchangeFunction {
+        private final List<ClientRequest> requests = new ArrayList<>();
+        private String body = "v1";
+        private int notModified;
+
+        @Override
+        public Mono<ClientResponse> exchange(ClientRequest request) {
+            requests.add(request);
+            String eTag = "\"" + body + "\"";
+            if (request.headers().getIfNoneMatch().contains(eTag)) {
+                notModified++;
+                return Mono.just(ClientResponse.create(HttpStatus.NOT_MODIFIED).header(HttpHeaders.ETAG, eTag).build());
+            }
+            // @formatter:off
+            return Mono.just(ClientResponse.create(HttpStatus.OK)
+                    .header(HttpHeaders.ETAG, eTag)
+                    .header(HttpHeaders.CONTENT_TYPE, "text/plain")
+                    .body(body)
+                    .build());
+            // @formatter:on
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.learntrack.clientserver.http;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SingleFlightFilterTests {
+    private static final URI COURSE = URI.create("http://resource/api/v1/courses/1/detail");
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlightFilter filter = new SingleFlightFilter(meterRegistry);
+    private final AtomicInteger calls = new AtomicInteger();
+    private final Sinks.One<ClientResponse> upstreamResponse = Sinks.one();
+    private final ExchangeFunction upstream = request -> {
+        calls.incrementAndGet();
+        return upstreamResponse.asMono();
+    };
+
+    @Test
+    void concurrentIdenticalGetsShareOneCall() {
+        List<String> bodies = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ClientRequest request = ClientRequest.create(HttpMethod.GET, COURSE).headers(headers -> headers.setBearerAuth("token-" + calls.get())).build();
+            filter.filter(request, upstream).flatMap(response -> response.bodyToMono(String.class)).subscribe(bodies::add);
+        }
+        assertThat(gauge("in-flight")).isEqualTo(1);
+
+        upstreamResponse.tryEmitValue(ClientResponse.create(HttpStatus.OK).body("course").build());
+
+        assertThat(bodies).containsExactly("course", "course", "course");
+        assertThat(calls).hasValue(1);
+        assertThat(counter("upstream")).isEqualTo(1);
+        assertThat(counter("shared")).isEqualTo(2);
+        assertThat(gauge("in-flight")).isZero();
+    }
+
+    @Test
+    void differentVisibilityClassesAreNotShared() {
+        filter.filter(ClientRequest.create(HttpMethod.GET, COURSE).build(), upstream).subscribe();
+        filter.filter(ClientRequest.create(HttpMethod.GET, COURSE).attribute(SingleFlightFilter.VISIBILITY_ATTRIBUTE, "user-2").build(), upstream).subscribe();
+
+        assertThat(calls).hasValue(2);
+        assertThat(counter("shared")).isZero();
+    }
+
+    @Test
+    void completedCallsAreNotReused() {
+        ExchangeFunction immediate = request -> {
+            calls.incrementAndGet();
+            return Mono.just(ClientResponse.create(HttpStatus.OK).body("course").build());
+        };
+
+        filter.filter(ClientRequest.create(HttpMethod.GET, COURSE).build(), immediate).block();
+        filter.filter(ClientRequest.create(HttpMethod.GET, COURSE).build(), immediate).block();
+
+        assertThat(calls).hasValue(2);
+    }
+
+    private double counter(String outcome) {
+        return meterRegistry.get("webclient.single-flight.requests").tag("outcome", outcome).counter().count();
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get("webclient.single-flight." + name).gauge().value();
+    }
+}
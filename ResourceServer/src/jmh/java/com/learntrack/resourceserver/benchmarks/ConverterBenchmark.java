@@ -0,0 +1,66 @@
+package com.learntrack.resourceserver.benchmarks;
+
+import com.learntrack.resourceserver.converters.CourseConverter;
+import com.learntrack.resourceserver.converters.LessonConverter;
+import com.learntrack.resourceserver.converters.ReviewConverter;
+import com.learntrack.resourceserver.dto.CourseResponseDTO;
+import com.learntrack.resourceserver.dto.LessonResponseDTO;
+import com.learntrack.resourceserver.dto.ReviewResponseDTO;
+import com.learntrack.resourceserver.models.Course;
+import com.learntrack.resourceserver.models.Lesson;
+import com.learntrack.resourceserver.models.Review;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to response DTO list conversion, as done by the controllers for create/update responses and the
+ * NDJSON streams.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConverterBenchmark {
+    @Param({"10", "1000", "100000"})
+    public int size;
+
+    private List<Course> courses;
+    private List<Lesson> lessons;
+    private List<Review> reviews;
+
+    @Setup
+    public void setUp() {
+        courses = Fixtures.courses(size);
+        lessons = Fixtures.lessons(size);
+        reviews = Fixtures.reviews(size);
+    }
+
+    @Benchmark
+    public List<CourseResponseDTO> courses() {
+        return CourseConverter.convertToCourseResponseDTOList(courses);
+    }
+
+    @Benchmark
+    public List<LessonResponseDTO> lessons() {
+        return LessonConverter.convertToLessonResponseDTOList(lessons);
+    }
+
+    @Benchmark
+    public List<ReviewResponseDTO> reviews() {
+        return ReviewConverter.convertToReviewResponseDTOList(reviews);
+    }
+}
@@ -0,0 +1,69 @@
+package com.learntrack.resourceserver.benchmarks;
+
+import com.learntrack.resourceserver.annotations.CurrentUserIdResolver;
+import com.learntrack.resourceserver.security.AuthenticatedUserConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of identifying the caller: building the principal from the JWT claims once, and the
+ * {@link CurrentUserIdResolver#getCurrentUserId} lookups the controllers make afterwards.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CurrentUserIdBenchmark {
+    private final AuthenticatedUserConverter converter = new AuthenticatedUserConverter();
+
+    private Jwt jwt;
+    private Authentication authentication;
+
+    @Setup
+    public void setUp() {
+        // @formatter:off
+        jwt = Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .subject("42")
+                .claim("user_id", 42)
+                .claim("roles", List.of("ROLE_USER", "ROLE_LECTURER"))
+                .claim("scope", List.of("openid", "profile"))
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(3600))
+                .build();
+        // @formatter:on
+        authentication = converter.convert(jwt);
+    }
+
+    @Benchmark
+    public AbstractAuthenticationToken convert() {
+        return converter.convert(jwt);
+    }
+
+    @Benchmark
+    public Long getCurrentUserId() {
+        return CurrentUserIdResolver.getCurrentUserId(authentication);
+    }
+
+    @Benchmark
+    public Long getCurrentUserIdAnonymous() {
+        return CurrentUserIdResolver.getCurrentUserId(null);
+    }
+}
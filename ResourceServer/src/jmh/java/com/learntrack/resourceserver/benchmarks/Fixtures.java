@@ -0,0 +1,47 @@
+package com.learntrack.resourceserver.benchmarks;
+
+import com.learntrack.resourceserver.models.Course;
+import com.learntrack.resourceserver.models.Lesson;
+import com.learntrack.resourceserver.models.Review;
+
+import java.util.ArrayList;
+import java.util.List;
+
+final class Fixtures {
+    private static final String DESCRIPTION = "An introduction to the fundamentals, with exercises after every chapter.";
+
+    private Fixtures() {
+    }
+
+    static List<Course> courses(int size) {
+        List<Course> courses = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Course course = new Course("Course " + i, DESCRIPTION, (long) (i % 50));
+            course.setId((long) i);
+            courses.add(course);
+        }
+        return courses;
+    }
+
+    static List<Lesson> lessons(int size) {
+        Course course = courses(1).get(0);
+        List<Lesson> lessons = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Lesson lesson = new Lesson("Lesson " + i, DESCRIPTION, course, course.getOwnerId());
+            lesson.setId((long) i);
+            lessons.add(lesson);
+        }
+        return lessons;
+    }
+
+    static List<Review> reviews(int size) {
+        Lesson lesson = lessons(1).get(0);
+        List<Review> reviews = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Review review = new Review("Review " + i, DESCRIPTION, lesson, (long) (i % 1000));
+            review.setId((long) i);
+            reviews.add(review);
+        }
+        return reviews;
+    }
+}
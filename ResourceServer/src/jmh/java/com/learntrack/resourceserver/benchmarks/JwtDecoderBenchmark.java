@@ -0,0 +1,91 @@
+package com.learntrack.resourceserver.benchmarks;
+
+import com.learntrack.resourceserver.security.CachingJwtDecoder;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of decoding the same bearer token repeatedly, as the ClientServer does on every call: a plain
+ * {@link NimbusJwtDecoder} (RS256 verification and claim parsing each time) against the {@link CachingJwtDecoder}
+ * in front of it. The JWK set is in memory, so neither side pays for network access.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtDecoderBenchmark {
+    private JwtDecoder nimbusJwtDecoder;
+    private JwtDecoder cachingJwtDecoder;
+    private String token;
+
+    @Setup
+    public void setUp() throws Exception {
+        RSAKey key = new RSAKeyGenerator(2048).keyID("benchmark").generate();
+        JWKSource<SecurityContext> jwkSource = new ImmutableJWKSet<>(new JWKSet(key.toPublicJWK()));
+
+        // @formatter:off
+        nimbusJwtDecoder = NimbusJwtDecoder.withJwkSetUri("http://localhost/jwks.json")
+                .jwsAlgorithm(SignatureAlgorithm.RS256)
+                .jwtProcessorCustomizer(processor -> processor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, jwkSource)))
+                .build();
+        // @formatter:on
+        cachingJwtDecoder = new CachingJwtDecoder(nimbusJwtDecoder, jwkSource, 10_000);
+
+        // @formatter:off
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .subject("42")
+                .issuer("http://localhost:9001")
+                .audience("learntrack")
+                .claim("user_id", 42)
+                .claim("roles", List.of("ROLE_USER", "ROLE_LECTURER"))
+                .claim("scope", List.of("openid", "profile"))
+                .issueTime(new Date())
+                .expirationTime(Date.from(Instant.now().plusSeconds(3600)))
+                .build();
+        // @formatter:on
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(), claims);
+        jwt.sign(new RSASSASigner(key));
+        token = jwt.serialize();
+    }
+
+    @Benchmark
+    public Jwt withoutCache() {
+        return nimbusJwtDecoder.decode(token);
+    }
+
+    @Benchmark
+    public Jwt withCache() {
+        return cachingJwtDecoder.decode(token);
+    }
+}
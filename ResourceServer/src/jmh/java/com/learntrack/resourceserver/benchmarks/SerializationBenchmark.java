@@ -0,0 +1,84 @@
+package com.learntrack.resourceserver.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learntrack.resourceserver.converters.CourseConverter;
+import com.learntrack.resourceserver.converters.LessonConverter;
+import com.learntrack.resourceserver.converters.ReviewConverter;
+import com.learntrack.resourceserver.dto.CourseResponseDTO;
+import com.learntrack.resourceserver.dto.LessonResponseDTO;
+import com.learntrack.resourceserver.dto.ReviewResponseDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of response DTO collections with the same base {@link ObjectMapper} Spring MVC builds.
+ * The output is discarded, as the response stream would be, so only the serializer cost is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+    @Param({"10", "1000", "100000"})
+    public int size;
+
+    private final OutputStream out = new DiscardingOutputStream();
+
+    private ObjectMapper objectMapper;
+    private List<CourseResponseDTO> courses;
+    private List<LessonResponseDTO> lessons;
+    private List<ReviewResponseDTO> reviews;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        courses = CourseConverter.convertToCourseResponseDTOList(Fixtures.courses(size));
+        lessons = LessonConverter.convertToLessonResponseDTOList(Fixtures.lessons(size));
+        reviews = ReviewConverter.convertToReviewResponseDTOList(Fixtures.reviews(size));
+    }
+
+    @Benchmark
+    public void courses() throws IOException {
+        objectMapper.writeValue(out, courses);
+    }
+
+    @Benchmark
+    public void lessons() throws IOException {
+        objectMapper.writeValue(out, lessons);
+    }
+
+    @Benchmark
+    public void reviews() throws IOException {
+        objectMapper.writeValue(out, reviews);
+    }
+
+    /**
+     * Unlike {@link OutputStream#nullOutputStream()} this survives the close Jackson issues after every value.
+     */
+    private static final class DiscardingOutputStream extends OutputStream {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    }
+}
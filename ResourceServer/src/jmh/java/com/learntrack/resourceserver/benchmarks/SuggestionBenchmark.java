@@ -0,0 +1,58 @@
+package com.learntrack.resourceserver.benchmarks;
+
+import com.learntrack.resourceserver.dto.SuggestionDTO;
+import com.learntrack.resourceserver.search.PrefixTrie;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Type-ahead lookups against a trie of {@code size} course names and lesson titles. Sample mode, so the output
+ * includes the p99 of a single lookup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SuggestionBenchmark {
+    private static final String[] WORDS = {"intro", "advanced", "java", "spring", "security", "databases", "algorithms", "distributed", "systems", "machine", "learning", "web", "design", "patterns", "testing", "cloud"};
+    private static final String[] PREFIXES = {"j", "ja", "spr", "security", "dis", "distributed sys", "mach", "web d", "te", "cl"};
+
+    @Param({"10000", "200000"})
+    public int size;
+
+    private PrefixTrie trie;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<SuggestionDTO> entries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String text = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + i;
+            entries.add(new SuggestionDTO(i % 10 == 0 ? "course" : "lesson", i, i / 10, text, random.nextInt(1000)));
+        }
+        trie = PrefixTrie.of(entries);
+    }
+
+    @Benchmark
+    public List<SuggestionDTO> suggest() {
+        next = (next + 1) % PREFIXES.length;
+        return trie.suggest(PREFIXES[next], PrefixTrie.MAX_SUGGESTIONS);
+    }
+}
@@ -0,0 +1,75 @@
+package com.learntrack.resourceserver.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Stored p99 latencies and throughput the harness compares a run against. A baseline only applies to runs at the
+ * concurrency it was recorded with, and routes with too few samples for a stable p99 are skipped.
+ */
+final class Baselines {
+    static final String RESOURCE = "/loadtest-baselines.properties";
+    private static final int MINIMUM_SAMPLES = 200;
+
+    private final Properties properties;
+
+    private Baselines(Properties properties) {
+        this.properties = properties;
+    }
+
+    static Baselines load() throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = Baselines.class.getResourceAsStream(RESOURCE)) {
+            if (in != null) {
+                properties.load(in);
+            }
+        }
+        return new Baselines(properties);
+    }
+
+    /**
+     * @return a description of every regression beyond {@code tolerance} (0.25 allows 25% slower or less throughput)
+     */
+    List<String> regressions(int concurrency, Map<Route, RouteStats.Summary> summaries, double totalThroughput, double tolerance) {
+        List<String> regressions = new ArrayList<>();
+        if (Integer.parseInt(properties.getProperty("concurrency", "-1")) != concurrency) {
+            return regressions;
+        }
+
+        String total = properties.getProperty("throughput.total");
+        if (total != null && totalThroughput < Double.parseDouble(total) * (1 - tolerance)) {
+            regressions.add(String.format(Locale.ROOT, "total throughput %.0f req/s is below the baseline %s req/s", totalThroughput, total));
+        }
+
+        for (Map.Entry<Route, RouteStats.Summary> entry : summaries.entrySet()) {
+            String baseline = properties.getProperty("p99." + entry.getKey().name());
+            RouteStats.Summary summary = entry.getValue();
+            if (baseline == null || summary.requests() < MINIMUM_SAMPLES) {
+                continue;
+            }
+            if (summary.p99Millis() > Double.parseDouble(baseline) * (1 + tolerance)) {
+                regressions.add(String.format(Locale.ROOT, "%s p99 %.2f ms is above the baseline %s ms", entry.getKey().label(), summary.p99Millis(), baseline));
+            }
+        }
+        return regressions;
+    }
+
+    static void write(Path file, int concurrency, Map<Route, RouteStats.Summary> summaries, double totalThroughput) throws IOException {
+        Files.createDirectories(file.getParent());
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            writer.write("concurrency=" + concurrency + "\n");
+            writer.write(String.format(Locale.ROOT, "throughput.total=%.0f%n", totalThroughput));
+            for (Map.Entry<Route, RouteStats.Summary> entry : summaries.entrySet()) {
+                writer.write(String.format(Locale.ROOT, "p99.%s=%.2f%n", entry.getKey().name(), entry.getValue().p99Millis()));
+            }
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.learntrack.resourceserver.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs the weighted route mix from a fixed number of closed-loop workers: each worker sends its next request as
+ * soon as the previous one completes. Only requests finished during the measured phase are recorded.
+ */
+final class LoadDriver {
+    private static final String JSON = "application/json";
+
+    private final String baseUrl;
+    private final List<Seed> seeds;
+    private final String lecturerToken;
+    private final String[] studentTokens;
+    private final Route[] schedule;
+    private final HttpClient client;
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<Route, RouteStats> stats = new EnumMap<>(Route.class);
+
+    private volatile boolean measuring;
+    private volatile boolean running;
+
+    /**
+     * One seeded course/lesson/review triple owned by the lecturer.
+     */
+    record Seed(long courseId, long lessonId, long reviewId) {
+    }
+
+    LoadDriver(String baseUrl, List<Seed> seeds, String lecturerToken, String[] studentTokens) {
+        this.baseUrl = baseUrl;
+        this.seeds = seeds;
+        this.lecturerToken = lecturerToken;
+        this.studentTokens = studentTokens;
+        this.schedule = schedule();
+        this.client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).connectTimeout(Duration.ofSeconds(5)).build();
+        for (Route route : Route.values()) {
+            stats.put(route, new RouteStats());
+        }
+    }
+
+    Map<Route, RouteStats> run(int concurrency, Duration warmup, Duration duration) throws InterruptedException {
+        running = true;
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            String studentToken = studentTokens[i % studentTokens.length];
+            workers.execute(() -> work(studentToken));
+        }
+
+        Thread.sleep(warmup.toMillis());
+        measuring = true;
+        Thread.sleep(duration.toMillis());
+        measuring = false;
+        running = false;
+
+        workers.shutdown();
+        if (!workers.awaitTermination(30, TimeUnit.SECONDS)) {
+            workers.shutdownNow();
+        }
+        return stats;
+    }
+
+    private void work(String studentToken) {
+        // reviews this worker created and may update or delete
+        Deque<long[]> ownReviews = new ArrayDeque<>();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        while (running) {
+            Route route = schedule[random.nextInt(schedule.length)];
+            if ((route == Route.UPDATE_REVIEW || route == Route.DELETE_REVIEW) && ownReviews.isEmpty()) {
+                route = Route.CREATE_REVIEW;
+            }
+            Seed seed = seeds.get(random.nextInt(seeds.size()));
+
+            HttpRequest request = request(route, seed, studentToken, ownReviews);
+            long start = System.nanoTime();
+            boolean error;
+            try {
+                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                error = response.statusCode() != route.expectedStatus();
+                if (route == Route.CREATE_REVIEW && !error) {
+                    ownReviews.addLast(new long[]{seed.courseId(), seed.lessonId(), idFromLocation(response)});
+                }
+            } catch (Exception e) {
+                error = true;
+            }
+            long elapsed = System.nanoTime() - start;
+
+            if (measuring) {
+                stats.get(route).record(elapsed, error);
+            }
+        }
+    }
+
+    private HttpRequest request(Route route, Seed seed, String studentToken, Deque<long[]> ownReviews) {
+        String course = "/api/v1/courses/" + seed.courseId();
+        String lesson = course + "/lessons/" + seed.lessonId();
+        long n = sequence.incrementAndGet();
+
+        return switch (route) {
+            case LIST_COURSES -> get("/api/v1/courses?limit=20");
+            case GET_COURSE -> get(course);
+            case COUNT_COURSES -> get("/api/v1/courses/count");
+            case CREATE_COURSE -> send("POST", "/api/v1/courses", lecturerToken, "{\"name\":\"Load course " + n + "\",\"description\":\"Created by the load test\"}");
+            case UPDATE_COURSE -> send("PUT", course, lecturerToken, "{\"name\":\"Course " + seed.courseId() + "\",\"description\":\"Updated " + n + "\"}");
+            case LIST_LESSONS -> get(course + "/lessons");
+            case GET_LESSON -> get(lesson);
+            case CREATE_LESSON -> send("POST", course + "/lessons", lecturerToken, "{\"title\":\"Load lesson " + n + "\",\"description\":\"Created by the load test\"}");
+            case LIST_REVIEWS -> get(lesson + "/reviews");
+            case GET_REVIEW -> get(lesson + "/reviews/" + seed.reviewId());
+            case CREATE_REVIEW -> send("POST", lesson + "/reviews", studentToken, "{\"title\":\"Load review " + n + "\",\"content\":\"Created by the load test\"}");
+            case UPDATE_REVIEW -> {
+                long[] own = ownReviews.peekLast();
+                yield send("PUT", "/api/v1/courses/" + own[0] + "/lessons/" + own[1] + "/reviews/" + own[2], studentToken, "{\"title\":\"Load review\",\"content\":\"Updated " + n + "\"}");
+            }
+            case DELETE_REVIEW -> {
+                long[] own = ownReviews.pollFirst();
+                yield HttpRequest.newBuilder(uri("/api/v1/courses/" + own[0] + "/lessons/" + own[1] + "/reviews/" + own[2])).header("Authorization", "Bearer " + studentToken).DELETE().build();
+            }
+        };
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri(path)).header("Accept", JSON).GET().build();
+    }
+
+    private HttpRequest send(String method, String path, String token, String body) {
+        // @formatter:off
+        return HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", JSON)
+                .header("Accept", JSON)
+                .header("Authorization", "Bearer " + token)
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        // @formatter:on
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    private static long idFromLocation(HttpResponse<?> response) {
+        String location = response.headers().firstValue("Location").orElseThrow();
+        return Long.parseLong(location.substring(location.lastIndexOf('/') + 1));
+    }
+
+    private static Route[] schedule() {
+        int total = 0;
+        for (Route route : Route.values()) {
+            total += route.weight();
+        }
+        Route[] schedule = new Route[total];
+        int i = 0;
+        for (Route route : Route.values()) {
+            for (int w = 0; w < route.weight(); w++) {
+                schedule[i++] = route;
+            }
+        }
+        return schedule;
+    }
+}
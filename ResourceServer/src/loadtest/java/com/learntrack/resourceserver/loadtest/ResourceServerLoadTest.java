@@ -0,0 +1,143 @@
+package com.learntrack.resourceserver.loadtest;
+
+import com.learntrack.resourceserver.models.Course;
+import com.learntrack.resourceserver.models.Lesson;
+import com.learntrack.resourceserver.models.Review;
+import com.learntrack.resourceserver.repositories.CourseRepository;
+import com.learntrack.resourceserver.repositories.LessonRepository;
+import com.learntrack.resourceserver.repositories.ReviewRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Boots ResourceServer on H2 in PostgreSQL mode with a local token issuer and drives the mixed workload of
+ * {@link Route}. Run with {@code mvn -Ploadtest test}; tune with {@code -Dloadtest.concurrency},
+ * {@code -Dloadtest.warmup}, {@code -Dloadtest.duration} and {@code -Dloadtest.tolerance}. The run fails on
+ * request errors and on regressions against {@code loadtest-baselines.properties}; {@code -Dloadtest.record=true}
+ * writes the numbers of the run to {@code target/loadtest/baselines.properties} instead.
+ */
+// @formatter:off
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:loadtest;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "logging.level.org.springframework.security=WARN",
+        "logging.level.com.learntrack=${loadtest.log-level:WARN}",
+        "logging.level.com.learntrack.resourceserver.loadtest=INFO"
+})
+// @formatter:on
+class ResourceServerLoadTest {
+    private static final long LECTURER_ID = 1L;
+
+    private static final TestTokenIssuer issuer = startIssuer();
+
+    private static final Logger logger = LoggerFactory.getLogger(ResourceServerLoadTest.class);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private LessonRepository lessonRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @DynamicPropertySource
+    static void tokenIssuer(DynamicPropertyRegistry registry) {
+        registry.add("spring.security.oauth2.resourceserver.jwt.jwk-set-uri", issuer::jwkSetUri);
+    }
+
+    @AfterAll
+    static void stopIssuer() {
+        issuer.close();
+    }
+
+    @Test
+    void mixedWorkload() throws Exception {
+        int concurrency = Integer.getInteger("loadtest.concurrency", 16);
+        Duration warmup = Duration.parse(System.getProperty("loadtest.warmup", "PT10S"));
+        Duration duration = Duration.parse(System.getProperty("loadtest.duration", "PT30S"));
+        double tolerance = Double.parseDouble(System.getProperty("loadtest.tolerance", "0.2"));
+
+        String[] studentTokens = new String[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            studentTokens[i] = issuer.mint(1000L + i, "ROLE_USER");
+        }
+        LoadDriver driver = new LoadDriver("http://localhost:" + port, seed(), issuer.mint(LECTURER_ID, "ROLE_USER", "ROLE_LECTURER"), studentTokens);
+
+        Map<Route, RouteStats> stats = driver.run(concurrency, warmup, duration);
+
+        double seconds = duration.toNanos() / 1e9;
+        Map<Route, RouteStats.Summary> summaries = new EnumMap<>(Route.class);
+        stats.forEach((route, routeStats) -> summaries.put(route, routeStats.summarize(seconds)));
+        double totalThroughput = summaries.values().stream().mapToDouble(RouteStats.Summary::throughput).sum();
+        int errors = summaries.values().stream().mapToInt(RouteStats.Summary::errors).sum();
+
+        report(concurrency, summaries, totalThroughput);
+
+        if (Boolean.getBoolean("loadtest.record")) {
+            Path file = Path.of("target", "loadtest", "baselines.properties");
+            Baselines.write(file, concurrency, summaries, totalThroughput);
+            logger.info("Recorded baselines to {}", file.toAbsolutePath());
+            return;
+        }
+
+        assertThat(errors).as("requests with an unexpected status").isZero();
+        assertThat(Baselines.load().regressions(concurrency, summaries, totalThroughput, tolerance)).isEmpty();
+    }
+
+    private List<LoadDriver.Seed> seed() {
+        int courses = Integer.getInteger("loadtest.seed.courses", 20);
+        List<LoadDriver.Seed> seeds = new ArrayList<>();
+        for (int c = 0; c < courses; c++) {
+            Course course = courseRepository.save(new Course("Course " + c, "Seeded by the load test", LECTURER_ID));
+            for (int l = 0; l < 5; l++) {
+                Lesson lesson = lessonRepository.save(new Lesson("Lesson " + l, "Seeded by the load test", course, LECTURER_ID));
+                for (int r = 0; r < 5; r++) {
+                    Review review = reviewRepository.save(new Review("Review " + r, "Seeded by the load test", lesson, 2000L + r));
+                    seeds.add(new LoadDriver.Seed(course.getId(), lesson.getId(), review.getId()));
+                }
+            }
+        }
+        return seeds;
+    }
+
+    private static void report(int concurrency, Map<Route, RouteStats.Summary> summaries, double totalThroughput) {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format(Locale.ROOT, "%nLoad test at concurrency %d%n", concurrency));
+        report.append(String.format(Locale.ROOT, "%-36s %9s %7s %10s %9s %9s%n", "route", "requests", "errors", "req/s", "p50 ms", "p99 ms"));
+        summaries.forEach((route, s) -> report.append(String.format(Locale.ROOT, "%-36s %9d %7d %10.1f %9.2f %9.2f%n", route.label(), s.requests(), s.errors(), s.throughput(), s.p50Millis(), s.p99Millis())));
+        report.append(String.format(Locale.ROOT, "%-36s %9s %7s %10.1f%n", "total", "", "", totalThroughput));
+        logger.info("{}", report);
+    }
+
+    private static TestTokenIssuer startIssuer() {
+        try {
+            return TestTokenIssuer.start();
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not start the test token issuer", e);
+        }
+    }
+}
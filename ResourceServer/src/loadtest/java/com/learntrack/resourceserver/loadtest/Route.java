@@ -0,0 +1,43 @@
+package com.learntrack.resourceserver.loadtest;
+
+/**
+ * The routes of api-spec.yaml the harness drives, with their share of the mixed workload. Weights are relative;
+ * the defaults model a read-heavy catalogue with a steady trickle of writes.
+ */
+enum Route {
+    LIST_COURSES("GET /courses", 10, 200),
+    GET_COURSE("GET /courses/{id}", 15, 200),
+    COUNT_COURSES("GET /courses/count", 3, 200),
+    CREATE_COURSE("POST /courses", 2, 201),
+    UPDATE_COURSE("PUT /courses/{id}", 2, 200),
+    LIST_LESSONS("GET /courses/{id}/lessons", 15, 200),
+    GET_LESSON("GET /courses/{id}/lessons/{id}", 10, 200),
+    CREATE_LESSON("POST /courses/{id}/lessons", 2, 201),
+    LIST_REVIEWS("GET /lessons/{id}/reviews", 15, 200),
+    GET_REVIEW("GET /lessons/{id}/reviews/{id}", 10, 200),
+    CREATE_REVIEW("POST /lessons/{id}/reviews", 8, 201),
+    UPDATE_REVIEW("PUT /lessons/{id}/reviews/{id}", 2, 200),
+    DELETE_REVIEW("DELETE /lessons/{id}/reviews/{id}", 1, 204);
+
+    private final String label;
+    private final int weight;
+    private final int expectedStatus;
+
+    Route(String label, int weight, int expectedStatus) {
+        this.label = label;
+        this.weight = weight;
+        this.expectedStatus = expectedStatus;
+    }
+
+    String label() {
+        return label;
+    }
+
+    int weight() {
+        return weight;
+    }
+
+    int expectedStatus() {
+        return expectedStatus;
+    }
+}
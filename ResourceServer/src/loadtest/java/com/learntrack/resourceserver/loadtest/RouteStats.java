@@ -0,0 +1,39 @@
+package com.learntrack.resourceserver.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Latencies recorded for one route during the measured phase.
+ */
+final class RouteStats {
+    private long[] latencies = new long[1024];
+    private int count;
+    private int errors;
+
+    synchronized void record(long nanos, boolean error) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = nanos;
+        if (error) {
+            errors++;
+        }
+    }
+
+    synchronized Summary summarize(double seconds) {
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        return new Summary(count, errors, count / seconds, percentile(sorted, 0.50), percentile(sorted, 0.99));
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    record Summary(int requests, int errors, double throughput, double p50Millis, double p99Millis) {
+    }
+}
@@ -0,0 +1,81 @@
+package com.learntrack.resourceserver.loadtest;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Stands in for the AuthorizationServer: serves a JWK set over HTTP and mints RS256 access tokens with the same
+ * {@code user_id} and {@code roles} claims the real token customizer adds.
+ */
+final class TestTokenIssuer implements AutoCloseable {
+    private final RSAKey key;
+    private final HttpServer server;
+
+    private TestTokenIssuer(RSAKey key, HttpServer server) {
+        this.key = key;
+        this.server = server;
+    }
+
+    static TestTokenIssuer start() throws IOException, JOSEException {
+        RSAKey key = new RSAKeyGenerator(2048).keyID("loadtest").generate();
+        byte[] jwkSet = new JWKSet(key.toPublicJWK()).toString().getBytes(StandardCharsets.UTF_8);
+
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/.well-known/jwks.json", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, jwkSet.length);
+            exchange.getResponseBody().write(jwkSet);
+            exchange.close();
+        });
+        server.start();
+        return new TestTokenIssuer(key, server);
+    }
+
+    String jwkSetUri() {
+        return "http://localhost:" + server.getAddress().getPort() + "/.well-known/jwks.json";
+    }
+
+    String mint(long userId, String... roles) {
+        Instant now = Instant.now();
+        // @formatter:off
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .subject(Long.toString(userId))
+                .issuer("http://localhost:9001")
+                .audience("learntrack")
+                .claim("user_id", userId)
+                .claim("roles", List.of(roles))
+                .claim("scope", List.of("openid", "profile"))
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plus(Duration.ofHours(1))))
+                .build();
+        // @formatter:on
+        try {
+            SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(), claims);
+            jwt.sign(new RSASSASigner(key));
+            return jwt.serialize();
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Could not sign a test token", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
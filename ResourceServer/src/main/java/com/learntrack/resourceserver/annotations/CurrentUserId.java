@@ -1,15 +1,15 @@
 package com.learntrack.resourceserver.annotations;
 
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
+/**
+ * Binds the {@code user_id} of the authenticated caller, or {@code null} for anonymous requests.
+ */
 @Target({ElementType.PARAMETER, ElementType.ANNOTATION_TYPE})
 @Retention(RetentionPolicy.RUNTIME)
-@AuthenticationPrincipal(expression = "#this.getClaim('user_id')")
 public @interface CurrentUserId {
 
 }
@@ -1,81 +1,46 @@
 package com.learntrack.resourceserver.annotations;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.learntrack.resourceserver.security.AuthenticatedUser;
+import com.learntrack.resourceserver.security.AuthenticatedUserToken;
 import org.springframework.core.MethodParameter;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.support.WebDataBinderFactory;
 import org.springframework.web.context.request.NativeWebRequest;
 import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.method.support.ModelAndViewContainer;
 
+/**
+ * Resolves {@link AuthenticatedUser} parameters and {@link CurrentUserId} annotated parameters from the
+ * principal built by {@link com.learntrack.resourceserver.security.AuthenticatedUserConverter}. Both resolve to
+ * {@code null} for anonymous requests.
+ */
 public class CurrentUserIdResolver implements HandlerMethodArgumentResolver {
-    private final Logger logger = LoggerFactory.getLogger(getClass());
 
     public static Long getCurrentUserId(Authentication authentication) {
-        CurrentUserIdResolver resolver = new CurrentUserIdResolver();
-        try {
-            return resolver.resolveArgument(null, null, null, null);
-        } catch (Exception e) {
-            return null;
+        AuthenticatedUser user = getCurrentUser(authentication);
+        return user == null ? null : user.getUserId();
+    }
+
+    public static AuthenticatedUser getCurrentUser(Authentication authentication) {
+        if (authentication instanceof AuthenticatedUserToken token) {
+            return token.getUser();
         }
+        return null;
     }
 
     @Override
     public boolean supportsParameter(MethodParameter parameter) {
-        return parameter.hasMethodAnnotation(CurrentUserId.class);
+        return parameter.getParameterType() == AuthenticatedUser.class || parameter.hasParameterAnnotation(CurrentUserId.class);
     }
 
     @Override
-    public Long resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer, NativeWebRequest webRequest, WebDataBinderFactory binderFactory) throws Exception {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer, NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        AuthenticatedUser user = getCurrentUser(SecurityContextHolder.getContext().getAuthentication());
 
-        if (authentication == null || !authentication.isAuthenticated()) {
-            logger.info("No authenticated user found");
-            return null;
+        if (parameter.getParameterType() == AuthenticatedUser.class) {
+            return user;
         }
-
-        Object principal = authentication.getPrincipal();
-
-//        if (authentication instanceof BearerTokenAuthentication bearerAuth) {
-//            try {
-//                Map<String, Object> attributes = bearerAuth.getTokenAttributes();
-//                Object userIdObject = attributes.get("user_id");
-//
-//                if (userIdObject instanceof Number) {
-//                    return ((Number) userIdObject).longValue();
-//                } else if (userIdObject instanceof String) {
-//                    return Long.parseLong((String) userIdObject);
-//                }
-//
-//                logger.warn("user_id claim is not in expected format: {}", userIdObject);
-//            } catch (Exception e) {
-//                logger.error("Error extracting user_id from token attributes: {}", e.getMessage());
-//            }
-//        }
-
-        if (principal instanceof Jwt jwt) {
-            try {
-                logger.info("Checking principal '{}'", jwt);
-                Object userIdObject = jwt.getClaims().get("user_id");
-
-                if (userIdObject instanceof Number) {
-                    return ((Number) userIdObject).longValue();
-                } else if (userIdObject instanceof String) {
-                    return Long.parseLong((String) userIdObject);
-                }
-
-                logger.error("User id is not a number or string");
-                return null;
-            } catch (Exception e) {
-                logger.error("Error getting user id from JWT", e);
-                return null;
-            }
-        }
-
-        logger.debug("Unable to extract user_id. Authentication type: {}", authentication.getClass().getName());
-        return null;
+        return user == null ? null : user.getUserId();
     }
 }
@@ -0,0 +1,79 @@
+package com.learntrack.resourceserver.cache;
+
+import com.learntrack.resourceserver.models.Course;
+import com.learntrack.resourceserver.models.Lesson;
+import com.learntrack.resourceserver.models.Review;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.hibernate.proxy.HibernateProxy;
+import org.hibernate.proxy.LazyInitializer;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+
+import java.util.function.Function;
+
+/**
+ * Evicts the cached reads that an entity change makes stale. Running as a JPA entity listener means the
+ * lessons and reviews removed through the orphan-removal cascade of a course delete are evicted as well.
+ * Listeners run during the flush, so parents are only identified by their foreign keys and never loaded.
+ */
+public class CacheInvalidationListener {
+    private final CacheManager cacheManager;
+
+    public CacheInvalidationListener(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void afterWrite(Object entity) {
+        evict(entity, false);
+    }
+
+    @PostRemove
+    public void afterRemove(Object entity) {
+        evict(entity, true);
+    }
+
+    private void evict(Object entity, boolean removed) {
+        if (entity instanceof Course course) {
+            evict(CacheNames.COURSES, course.getId());
+            clear(CacheNames.COURSE_PAGES);
+            if (removed) {
+                evict(CacheNames.LESSON_LISTS, course.getId());
+            }
+        } else if (entity instanceof Lesson lesson) {
+            Long courseId = idOf(lesson.getCourse(), Course::getId);
+            evict(CacheNames.LESSON_LISTS, courseId);
+            evict(CacheNames.LESSONS, new SimpleKey(courseId, lesson.getId()));
+            if (removed) {
+                evict(CacheNames.REVIEW_LISTS, lesson.getId());
+            }
+        } else if (entity instanceof Review review) {
+            evict(CacheNames.REVIEW_LISTS, idOf(review.getLesson(), Lesson::getId));
+            evict(CacheNames.REVIEWS, review.getId());
+        }
+    }
+
+    // the id of an uninitialized proxy is read from the proxy itself, without loading the entity
+    private static <T> Long idOf(T association, Function<T, Long> getId) {
+        LazyInitializer proxy = HibernateProxy.extractLazyInitializer(association);
+        return proxy != null ? (Long) proxy.getInternalIdentifier() : getId.apply(association);
+    }
+
+    private void evict(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evict(key);
+        }
+    }
+
+    private void clear(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+}
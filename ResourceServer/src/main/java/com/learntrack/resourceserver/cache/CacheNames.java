@@ -0,0 +1,17 @@
+package com.learntrack.resourceserver.cache;
+
+import java.util.List;
+
+public final class CacheNames {
+    public static final String COURSES = "courses";
+    public static final String COURSE_PAGES = "coursePages";
+    public static final String LESSONS = "lessons";
+    public static final String LESSON_LISTS = "lessonLists";
+    public static final String REVIEWS = "reviews";
+    public static final String REVIEW_LISTS = "reviewLists";
+
+    public static final List<String> ALL = List.of(COURSES, COURSE_PAGES, LESSONS, LESSON_LISTS, REVIEWS, REVIEW_LISTS);
+
+    private CacheNames() {
+    }
+}
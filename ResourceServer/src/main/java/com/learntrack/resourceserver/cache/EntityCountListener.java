@@ -0,0 +1,26 @@
+package com.learntrack.resourceserver.cache;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+
+/**
+ * Hibernate creates its own instance of each entity listener, so the counts live in the
+ * {@link EntityCounters} singleton and this listener only forwards the lifecycle events to it.
+ */
+public class EntityCountListener {
+    private final EntityCounters entityCounters;
+
+    public EntityCountListener(EntityCounters entityCounters) {
+        this.entityCounters = entityCounters;
+    }
+
+    @PostPersist
+    public void afterPersist(Object entity) {
+        entityCounters.afterPersist(entity);
+    }
+
+    @PostRemove
+    public void afterRemove(Object entity) {
+        entityCounters.afterRemove(entity);
+    }
+}
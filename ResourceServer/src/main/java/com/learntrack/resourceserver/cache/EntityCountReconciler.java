@@ -0,0 +1,54 @@
+package com.learntrack.resourceserver.cache;
+
+import com.learntrack.resourceserver.repositories.CourseRepository;
+import com.learntrack.resourceserver.repositories.LessonRepository;
+import com.learntrack.resourceserver.repositories.ReviewRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+public class EntityCountReconciler {
+    private final EntityCounters entityCounters;
+    private final CourseRepository courseRepository;
+    private final LessonRepository lessonRepository;
+    private final ReviewRepository reviewRepository;
+
+    Logger logger = LoggerFactory.getLogger(EntityCountReconciler.class);
+
+    public EntityCountReconciler(EntityCounters entityCounters, CourseRepository courseRepository, LessonRepository lessonRepository, ReviewRepository reviewRepository) {
+        this.entityCounters = entityCounters;
+        this.courseRepository = courseRepository;
+        this.lessonRepository = lessonRepository;
+        this.reviewRepository = reviewRepository;
+    }
+
+    @PostConstruct
+    public void seed() {
+        reconcile();
+    }
+
+    @Scheduled(fixedDelayString = "${counters.reconcile-interval:PT5M}", initialDelayString = "${counters.reconcile-interval:PT5M}")
+    public void reconcile() {
+        long courses = courseRepository.count();
+        Map<Long, Long> lessonsByCourse = toMap(lessonRepository.countGroupedByCourseId());
+        Map<Long, Long> reviewsByLesson = toMap(reviewRepository.countGroupedByLessonId());
+
+        entityCounters.reset(courses, lessonsByCourse, reviewsByLesson);
+        logger.debug("Reconciled counters: {} courses, {} courses with lessons, {} lessons with reviews", courses, lessonsByCourse.size(), reviewsByLesson.size());
+    }
+
+    private static Map<Long, Long> toMap(List<Object[]> rows) {
+        Map<Long, Long> counts = new HashMap<>(rows.size());
+        for (Object[] row : rows) {
+            counts.put((Long) row[0], (Long) row[1]);
+        }
+        return counts;
+    }
+}
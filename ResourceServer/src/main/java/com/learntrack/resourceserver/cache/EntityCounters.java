@@ -0,0 +1,112 @@
+package com.learntrack.resourceserver.cache;
+
+import com.learntrack.resourceserver.models.Course;
+import com.learntrack.resourceserver.models.Lesson;
+import com.learntrack.resourceserver.models.Review;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+import static com.learntrack.resourceserver.transaction.TransactionCallbacks.afterCommit;
+
+/**
+ * In-memory course, per-course lesson and per-lesson review counts. The counts are kept up to date from
+ * the JPA lifecycle of the entities through {@link EntityCountListener} (so cascaded deletes are counted
+ * too) and are applied only after the transaction commits. {@link EntityCountReconciler} seeds them at startup and periodically replaces them
+ * with the database values to repair any drift.
+ * <p>
+ * All three counts live in one {@link Counts} holder that {@link #reset} swaps as a whole. Updates hold the read
+ * side of {@link #swapLock} while they apply, so an update never lands in a holder that a concurrent reset has
+ * already replaced; reads take no lock.
+ */
+@Component
+public class EntityCounters {
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private volatile Counts counts = new Counts(new AtomicLong(), new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+
+    public long courseCount() {
+        return counts.courses().get();
+    }
+
+    public long lessonCount(Long courseId) {
+        AtomicLong count = counts.lessons().get(courseId);
+        return count == null ? 0 : count.get();
+    }
+
+    public long reviewCount(Long lessonId) {
+        AtomicLong count = counts.reviews().get(lessonId);
+        return count == null ? 0 : count.get();
+    }
+
+    void reset(long courses, Map<Long, Long> lessonsByCourse, Map<Long, Long> reviewsByLesson) {
+        Counts replacement = new Counts(new AtomicLong(courses), toCounters(lessonsByCourse), toCounters(reviewsByLesson));
+        swapLock.writeLock().lock();
+        try {
+            counts = replacement;
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+    }
+
+    public void afterPersist(Object entity) {
+        if (entity instanceof Course) {
+            afterCommit(() -> update(current -> current.courses().incrementAndGet()));
+        } else if (entity instanceof Lesson lesson) {
+            Long courseId = lesson.getCourse().getId();
+            afterCommit(() -> update(current -> current.lessons().computeIfAbsent(courseId, id -> new AtomicLong()).incrementAndGet()));
+        } else if (entity instanceof Review review) {
+            Long lessonId = review.getLesson().getId();
+            afterCommit(() -> update(current -> current.reviews().computeIfAbsent(lessonId, id -> new AtomicLong()).incrementAndGet()));
+        }
+    }
+
+    public void afterRemove(Object entity) {
+        if (entity instanceof Course course) {
+            Long courseId = course.getId();
+            afterCommit(() -> update(current -> {
+                current.courses().decrementAndGet();
+                current.lessons().remove(courseId);
+            }));
+        } else if (entity instanceof Lesson lesson) {
+            Long courseId = lesson.getCourse().getId();
+            Long lessonId = lesson.getId();
+            afterCommit(() -> update(current -> {
+                decrement(current.lessons(), courseId);
+                current.reviews().remove(lessonId);
+            }));
+        } else if (entity instanceof Review review) {
+            Long lessonId = review.getLesson().getId();
+            afterCommit(() -> update(current -> decrement(current.reviews(), lessonId)));
+        }
+    }
+
+    private void update(Consumer<Counts> change) {
+        swapLock.readLock().lock();
+        try {
+            change.accept(counts);
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    private static void decrement(Map<Long, AtomicLong> counts, Long key) {
+        AtomicLong count = counts.get(key);
+        if (count != null) {
+            count.updateAndGet(value -> Math.max(0, value - 1));
+        }
+    }
+
+    private static Map<Long, AtomicLong> toCounters(Map<Long, Long> counts) {
+        Map<Long, AtomicLong> counters = new ConcurrentHashMap<>(counts.size());
+        counts.forEach((id, count) -> counters.put(id, new AtomicLong(count)));
+        return counters;
+    }
+
+    private record Counts(AtomicLong courses, Map<Long, AtomicLong> lessons, Map<Long, AtomicLong> reviews) {
+    }
+}
@@ -0,0 +1,36 @@
+package com.learntrack.resourceserver.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.learntrack.resourceserver.cache.CacheNames;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    private static final String DEFAULT_SPEC = "maximumSize=10000,expireAfterWrite=10m";
+
+    /**
+     * Each region can be sized separately with a {@code cache.<name>.spec} Caffeine spec. Statistics are always
+     * recorded so hit, miss and eviction counts show up under the actuator {@code cache.*} metrics.
+     * Evictions are deferred until the surrounding transaction commits so a concurrent read cannot put
+     * the old row back in between.
+     */
+    @Bean
+    public CacheManager cacheManager(Environment environment) {
+        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager();
+        caffeineCacheManager.setAllowNullValues(false);
+
+        for (String name : CacheNames.ALL) {
+            String spec = environment.getProperty("cache." + name + ".spec", DEFAULT_SPEC);
+            caffeineCacheManager.registerCustomCache(name, Caffeine.from(spec).recordStats().build());
+        }
+
+        return new TransactionAwareCacheManagerProxy(caffeineCacheManager);
+    }
+}
@@ -0,0 +1,36 @@
+package com.learntrack.resourceserver.config;
+
+import com.learntrack.resourceserver.jdbc.ConcurrencyLimitingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "datasource.limiter.enabled", havingValue = "true", matchIfMissing = true)
+public class DataSourceLimiterConfig {
+
+    /**
+     * Wraps the Hikari pool so at most {@code maximumPoolSize} callers hold a connection and the rest wait up to
+     * {@code datasource.limiter.acquire-timeout} for a permit.
+     */
+    @Bean
+    public static BeanPostProcessor concurrencyLimitingDataSourcePostProcessor(Environment environment, ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource hikariDataSource) {
+                    Duration acquireTimeout = environment.getProperty("datasource.limiter.acquire-timeout", Duration.class, Duration.ofSeconds(30));
+                    return new ConcurrencyLimitingDataSource(hikariDataSource, hikariDataSource.getMaximumPoolSize(), acquireTimeout, meterRegistry.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,27 @@
+package com.learntrack.resourceserver.config;
+
+import com.learntrack.resourceserver.search.InMemorySearchIndex;
+import com.learntrack.resourceserver.search.PostgresSearchIndex;
+import com.learntrack.resourceserver.search.SearchIndex;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+
+@Configuration
+public class SearchConfig {
+
+    /**
+     * PostgreSQL full-text search when running against PostgreSQL, otherwise an in-memory index.
+     */
+    @Bean
+    public SearchIndex searchIndex(DataSource dataSource) throws MetaDataAccessException {
+        String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        return "PostgreSQL".equals(product) ? new PostgresSearchIndex(jdbcTemplate) : new InMemorySearchIndex(jdbcTemplate);
+    }
+}
@@ -1,19 +1,39 @@
 package com.learntrack.resourceserver.config;
 
+import com.learntrack.resourceserver.security.AuthenticatedUserConverter;
+import com.learntrack.resourceserver.security.AuthenticatedUserToken;
+import com.learntrack.resourceserver.security.CachingJwtDecoder;
+import com.learntrack.resourceserver.security.JwkSourceMetrics;
+import com.learntrack.resourceserver.security.Role;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.util.DefaultResourceRetriever;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
-import org.springframework.security.config.Customizer;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
-import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.time.Duration;
 
 @Configuration
 @EnableWebSecurity
@@ -22,32 +42,94 @@ public class SecurityConfig {
     @Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri}")
     private String jwkSetUri;
 
+    @Value("${jwks.cache-ttl:PT15M}")
+    private Duration jwksCacheTtl;
+
+    @Value("${jwks.refresh-ahead:PT1M}")
+    private Duration jwksRefreshAhead;
+
+    @Value("${jwks.refresh-timeout:PT15S}")
+    private Duration jwksRefreshTimeout;
+
+    @Value("${jwks.rate-limit:PT30S}")
+    private Duration jwksRateLimit;
+
+    @Value("${jwt-cache.maximum-size:10000}")
+    private long jwtCacheMaximumSize;
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         // @formatter:off
         return http
                 .authorizeHttpRequests(authorize -> authorize
+                        .requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll()
+                        .requestMatchers(EndpointRequest.toAnyEndpoint()).access(adminOnly())
                         .requestMatchers(HttpMethod.GET).permitAll()
                         .anyRequest().authenticated()
                 )
-                .oauth2ResourceServer(oauth2 -> oauth2.jwt(Customizer.withDefaults()))
+                .oauth2ResourceServer(oauth2 -> oauth2.jwt(jwt -> jwt.jwtAuthenticationConverter(jwtAuthenticationConverter())))
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .build();
         // @formatter:on
     }
 
+    /**
+     * Actuator endpoints other than health expose internals (and {@code caches}, if exposed through
+     * {@code MANAGEMENT_ENDPOINTS}, can be emptied with a DELETE), so they are limited to callers whose token
+     * carries {@link Role#ADMIN}. They are matched before the blanket GET rule.
+     */
+    private static AuthorizationManager<RequestAuthorizationContext> adminOnly() {
+        return (authentication, context) -> new AuthorizationDecision(
+                authentication.get() instanceof AuthenticatedUserToken token && token.getUser().hasRole(Role.ADMIN));
+    }
+
+    /**
+     * JWK set cached for {@code jwks.cache-ttl} and refreshed on a background thread {@code jwks.refresh-ahead}
+     * before it expires, so verification stays off the network on request threads. A token signed with an
+     * unknown {@code kid} (e.g. after the authorization server restarted with a new key) triggers a refetch,
+     * at most once per {@code jwks.rate-limit}.
+     */
+    @Bean
+    public JWKSource<SecurityContext> jwkSource(MeterRegistry meterRegistry) throws MalformedURLException {
+        JwkSourceMetrics metrics = new JwkSourceMetrics(meterRegistry);
+        int timeout = (int) jwksRefreshTimeout.toMillis();
+        DefaultResourceRetriever retriever = new DefaultResourceRetriever(timeout, timeout, JWKSourceBuilder.DEFAULT_HTTP_SIZE_LIMIT);
+
+        // @formatter:off
+        return JWKSourceBuilder.<SecurityContext>create(URI.create(jwkSetUri).toURL(), retriever)
+                .cache(jwksCacheTtl.toMillis(), jwksRefreshTimeout.toMillis(), metrics.listener("cache"))
+                .refreshAheadCache(jwksRefreshAhead.toMillis(), true, metrics.listener("refresh-ahead"))
+                .rateLimited(jwksRateLimit.toMillis(), metrics.listener("rate-limit"))
+                .retrying(metrics.listener("retry"))
+                .build();
+        // @formatter:on
+    }
+
+    /**
+     * Clients send the same long-lived access token on every call, so verified tokens are kept (up to
+     * {@code jwt-cache.maximum-size}) until they expire. Hit rates are exposed as the {@code jwtDecoder} cache metrics.
+     */
     @Bean
-    public JwtDecoder jwtDecoder() {
-        return NimbusJwtDecoder.withJwkSetUri(this.jwkSetUri).jwsAlgorithm(SignatureAlgorithm.RS256).build();
+    public JwtDecoder jwtDecoder(JWKSource<SecurityContext> jwkSource, MeterRegistry meterRegistry) {
+        // @formatter:off
+        NimbusJwtDecoder nimbusJwtDecoder = NimbusJwtDecoder.withJwkSetUri(this.jwkSetUri)
+                .jwsAlgorithm(SignatureAlgorithm.RS256)
+                .jwtProcessorCustomizer(processor -> processor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, jwkSource)))
+                .build();
+        // @formatter:on
+
+        CachingJwtDecoder cachingJwtDecoder = new CachingJwtDecoder(nimbusJwtDecoder, jwkSource, jwtCacheMaximumSize);
+        CaffeineCacheMetrics.monitor(meterRegistry, cachingJwtDecoder.getCache(), "jwtDecoder");
+        return cachingJwtDecoder;
     }
 
+    /**
+     * Parses {@code user_id} and {@code roles} once per request into the principal, so controllers get the
+     * caller from {@link com.learntrack.resourceserver.annotations.CurrentUserIdResolver} without touching claims.
+     */
     @Bean
-    public JwtAuthenticationConverter jwtAuthenticationConverter() {
-        JwtAuthenticationConverter jwtConverter = new JwtAuthenticationConverter();
+    public AuthenticatedUserConverter jwtAuthenticationConverter() {
         JwtGrantedAuthoritiesConverter authoritiesConverter = new JwtGrantedAuthoritiesConverter();
-
-        jwtConverter.setJwtGrantedAuthoritiesConverter(authoritiesConverter);
-        jwtConverter.setPrincipalClaimName("user_id");
-        return jwtConverter;
+        return new AuthenticatedUserConverter(authoritiesConverter);
     }
 }
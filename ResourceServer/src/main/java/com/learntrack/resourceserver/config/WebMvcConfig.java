@@ -1,6 +1,8 @@
 package com.learntrack.resourceserver.config;
 
 import com.learntrack.resourceserver.annotations.CurrentUserIdResolver;
+import com.learntrack.resourceserver.security.AuthenticatedUser;
+import org.springdoc.core.utils.SpringDocUtils;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -10,6 +12,11 @@ import java.util.List;
 @Configuration
 public class WebMvcConfig implements WebMvcConfigurer {
 
+    static {
+        // the caller is resolved from the security context, not from request parameters
+        SpringDocUtils.getConfig().addRequestWrapperToIgnore(AuthenticatedUser.class);
+    }
+
     @Override
     public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
         resolvers.add(new CurrentUserIdResolver());
@@ -0,0 +1,171 @@
+package com.learntrack.resourceserver.controllers;
+
+import com.learntrack.resourceserver.dto.BatchItemResultDTO;
+import com.learntrack.resourceserver.dto.LessonBatchItemDTO;
+import com.learntrack.resourceserver.dto.ReviewBatchItemDTO;
+import com.learntrack.resourceserver.dto.ScopedLessonDTO;
+import com.learntrack.resourceserver.exceptions.ResourceNotFoundException;
+import com.learntrack.resourceserver.models.Course;
+import com.learntrack.resourceserver.security.AuthenticatedUser;
+import com.learntrack.resourceserver.security.Role;
+import com.learntrack.resourceserver.services.CourseService;
+import com.learntrack.resourceserver.services.LessonService;
+import com.learntrack.resourceserver.services.ReviewService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Creates, updates and deletes many lessons or reviews in one request and one transaction. The caller is
+ * authorized once for the whole batch, and the response lists the outcome of every entry in request order.
+ * A batch is applied completely or not at all: if any entry fails, the response is 400 and nothing is written.
+ */
+@RestController
+@RequestMapping("/api/v1/courses/{courseId}")
+@Tag(name = "Batch", description = "Endpoints for changing many lessons or reviews at once")
+public class BatchController {
+    public static final int MAX_BATCH_SIZE = 500;
+
+    private final CourseService courseService;
+    private final LessonService lessonService;
+    private final ReviewService reviewService;
+    Logger logger = LoggerFactory.getLogger(BatchController.class);
+
+    public BatchController(CourseService courseService, LessonService lessonService, ReviewService reviewService) {
+        this.courseService = courseService;
+        this.lessonService = lessonService;
+        this.reviewService = reviewService;
+    }
+
+    @Operation(summary = "Create, update and delete lessons of a course in one transaction")
+    // @formatter:off
+    @ApiResponses(value = {
+            @ApiResponse(
+                responseCode = "200",
+                description = "All entries were applied",
+                content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    array = @ArraySchema(
+                        schema = @Schema(implementation = BatchItemResultDTO.class)
+                    )
+                )
+            ),
+            @ApiResponse(responseCode = "400", description = "At least one entry failed, nothing was applied", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Course not found", content = @Content),
+            @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Forbidden", content = @Content),
+            @ApiResponse(responseCode = "413", description = "More than " + MAX_BATCH_SIZE + " entries", content = @Content)
+    })
+    // @formatter:on
+    @PostMapping("/lessons:batch")
+    public ResponseEntity<List<BatchItemResultDTO>> lessons(
+            // @formatter:off
+        @PathVariable Long courseId,
+        @RequestBody List<LessonBatchItemDTO> items,
+        AuthenticatedUser user
+        // @formatter:on
+    ) {
+
+        if (user == null) {
+            logger.info("Anonymous user is trying to change lessons in batch for course with id: " + courseId);
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        } else {
+            logger.info("Principal '{}' is trying to change {} lessons in batch for course with id: " + courseId, user.getUserId(), items.size());
+            if (!user.hasAnyRole(Role.LECTURER, Role.ADMIN)) {
+                logger.info("Principal '{}' is not an admin or lecturer", user.getUserId());
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
+        }
+
+        if (items.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
+
+        Optional<Course> courseOptional = courseService.findById(courseId);
+        if (courseOptional.isEmpty()) {
+            logger.info("Course with id: " + courseId + " not found");
+            throw new ResourceNotFoundException("Course with id: " + courseId + " not found");
+        }
+
+        Course course = courseOptional.get();
+        if (!user.isOwner(course.getOwnerId())) {
+            logger.info("Principal '{}' is not the owner of the course '{}'", user.getUserId(), courseId);
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        return respond(lessonService.applyBatch(course, items));
+    }
+
+    @Operation(summary = "Create, update and delete reviews of a lesson in one transaction")
+    // @formatter:off
+    @ApiResponses(value = {
+            @ApiResponse(
+                responseCode = "200",
+                description = "All entries were applied",
+                content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    array = @ArraySchema(
+                        schema = @Schema(implementation = BatchItemResultDTO.class)
+                    )
+                )
+            ),
+            @ApiResponse(responseCode = "400", description = "At least one entry failed, nothing was applied", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Lesson not found", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Course not found", content = @Content),
+            @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content),
+            @ApiResponse(responseCode = "413", description = "More than " + MAX_BATCH_SIZE + " entries", content = @Content)
+    })
+    // @formatter:on
+    @PostMapping("/lessons/{lessonId}/reviews:batch")
+    public ResponseEntity<List<BatchItemResultDTO>> reviews(
+            // @formatter:off
+        @PathVariable Long courseId,
+        @PathVariable Long lessonId,
+        @RequestBody List<ReviewBatchItemDTO> items,
+        AuthenticatedUser user
+        // @formatter:on
+    ) {
+
+        if (user == null) {
+            logger.info("Anonymous user is trying to change reviews in batch for lesson with id: " + lessonId);
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        } else {
+            logger.info("Principal '{}' is trying to change {} reviews in batch for lesson with id: " + lessonId, user.getUserId(), items.size());
+        }
+
+        if (items.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
+
+        Optional<ScopedLessonDTO> scopedOptional = lessonService.findScoped(courseId, lessonId);
+        if (scopedOptional.isEmpty()) {
+            logger.info("Course with id: " + courseId + " not found");
+            throw new ResourceNotFoundException("Course with id: " + courseId + " not found");
+        }
+
+        if (scopedOptional.get().getLessonId() == null) {
+            logger.info("Lesson with id: " + lessonId + " not found for course with id: " + courseId);
+            throw new ResourceNotFoundException("Lesson with id: " + lessonId + " not found for course with id: " + courseId);
+        }
+
+        return respond(reviewService.applyBatch(lessonId, user.getUserId(), items));
+    }
+
+    private static ResponseEntity<List<BatchItemResultDTO>> respond(List<BatchItemResultDTO> results) {
+        boolean failed = results.stream().anyMatch(BatchItemResultDTO::isFailed);
+        return ResponseEntity.status(failed ? HttpStatus.BAD_REQUEST : HttpStatus.OK).body(results);
+    }
+}
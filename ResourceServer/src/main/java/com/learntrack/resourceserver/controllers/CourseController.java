@@ -1,14 +1,21 @@
 package com.learntrack.resourceserver.controllers;
 
-import com.learntrack.resourceserver.annotations.CurrentUserIdResolver;
 import com.learntrack.resourceserver.converters.CourseConverter;
+import com.learntrack.resourceserver.dto.CourseDetailDTO;
 import com.learntrack.resourceserver.dto.CourseRequestDTO;
 import com.learntrack.resourceserver.dto.CourseResponseDTO;
+import com.learntrack.resourceserver.dto.LessonSummaryDTO;
+import com.learntrack.resourceserver.dto.SuggestionDTO;
 import com.learntrack.resourceserver.exceptions.ResourceNotFoundException;
 import com.learntrack.resourceserver.models.Course;
+import com.learntrack.resourceserver.security.AuthenticatedUser;
+import com.learntrack.resourceserver.security.Role;
+import com.learntrack.resourceserver.search.PrefixTrie;
 import com.learntrack.resourceserver.services.CourseService;
+import com.learntrack.resourceserver.services.SuggestionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.headers.Header;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
@@ -19,11 +26,9 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.annotation.CurrentSecurityContext;
-import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.util.UriComponentsBuilder;
@@ -38,12 +43,18 @@ import java.util.Optional;
 @Validated
 public class CourseController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 100;
+
     private final CourseService courseService;
+    private final SuggestionService suggestionService;
 
     Logger logger = LoggerFactory.getLogger(CourseController.class);
 
-    public CourseController(CourseService courseService) {
+    public CourseController(CourseService courseService, SuggestionService suggestionService) {
         this.courseService = courseService;
+        this.suggestionService = suggestionService;
     }
 
     @Operation(summary = "Find all courses")
@@ -52,7 +63,8 @@ public class CourseController {
         value = {
             @ApiResponse(
                 responseCode = "200", 
-                description = "Successfully retrieved list", 
+                description = "Successfully retrieved a page of courses. When more courses are available, the id to pass as 'after' is returned in the " + NEXT_CURSOR_HEADER + " header", 
+                headers = @Header(name = NEXT_CURSOR_HEADER, description = "id to pass as 'after' for the next page, absent on the last page", schema = @Schema(type = "integer", format = "int64")),
                 content = {
                     @Content(
                         mediaType = "application/json", 
@@ -66,19 +78,37 @@ public class CourseController {
     @GetMapping
     public ResponseEntity<Iterable<CourseResponseDTO>> findAll(
     // @formatter:off
-        @CurrentSecurityContext(expression = "authentication") Authentication authentication
+        @Parameter(description = "id of the last course from the previous page") @RequestParam(required = false) Long after,
+        @Parameter(description = "maximum number of courses to return (1-" + MAX_PAGE_SIZE + ")") @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit,
+        AuthenticatedUser user
         // @formatter:on
     ) {
 
-        Long userId = CurrentUserIdResolver.getCurrentUserId(authentication);
-        if (userId == null) {
-            logger.info("Anonymous user is trying to get all courses");
+        if (user == null) {
+            logger.info("Anonymous user is trying to get courses after '{}'", after);
         } else {
-            logger.info("Principal '{}' is trying to get all courses", userId);
+            logger.info("Principal '{}' is trying to get courses after '{}'", user.getUserId(), after);
+        }
+
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        // fetch one extra row to know whether there is a next page without running a count query
+        List<CourseResponseDTO> courses = courseService.findPage(after, pageSize + 1);
+        if (courses.size() <= pageSize) {
+            return ResponseEntity.ok()
+                    .eTag(ETags.ofList("courses", courses, CourseResponseDTO::getId, CourseResponseDTO::getVersion, after))
+                    .body(courses);
         }
 
-        Iterable<CourseResponseDTO> courses = CourseConverter.convertToCourseResponseDTOList(courseService.findAll());
-        return ResponseEntity.ok(courses);
+        List<CourseResponseDTO> page = courses.subList(0, pageSize);
+        Long nextCursor = page.get(pageSize - 1).getId();
+
+        // @formatter:off
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, String.valueOf(nextCursor))
+                .eTag(ETags.ofList("courses", page, CourseResponseDTO::getId, CourseResponseDTO::getVersion, after + ":" + nextCursor))
+                .body(page);
+        // @formatter:on
     }
 
     @Operation(summary = "Find course by id")
@@ -102,28 +132,77 @@ public class CourseController {
     @GetMapping("/{requestedId}")
     public ResponseEntity<CourseResponseDTO> findById(
     // @formatter:off
-        @CurrentSecurityContext(expression = "authentication") Authentication authentication,
+        AuthenticatedUser user,
         @Parameter(description = "id of a course to be searched") @PathVariable Long requestedId
         // @formatter:on
     ) {
 
-        Long userId = CurrentUserIdResolver.getCurrentUserId(authentication);
-        if (userId == null) {
+        if (user == null) {
             logger.info("Anonymous user is trying to get course '{}'", requestedId);
         } else {
-            logger.info("Principal '{}' is trying to get course '{}'", userId, requestedId);
+            logger.info("Principal '{}' is trying to get course '{}'", user.getUserId(), requestedId);
         }
 
-        Optional<Course> courseOptional = courseService.findById(requestedId);
+        Optional<CourseResponseDTO> courseOptional = courseService.findResponseById(requestedId);
         if (courseOptional.isEmpty()) {
             logger.info("Course not found");
             throw new ResourceNotFoundException("Course with id " + requestedId + " not found");
         }
 
-        CourseResponseDTO courseResponseDTO = CourseConverter.convertToCourseResponseDTO(courseOptional.get());
+        logger.info("Course found: {}", requestedId);
+        CourseResponseDTO course = courseOptional.get();
+        return ResponseEntity.ok()
+                .eTag(ETags.of("course", course.getId(), course.getVersion()))
+                .body(course);
+    }
 
-        logger.info("Course found: {}", courseOptional.get());
-        return ResponseEntity.ok(courseResponseDTO);
+    @Operation(summary = "Find a course together with its lessons and their review counts")
+    // @formatter:off
+    @ApiResponses(
+        value = {
+            @ApiResponse(
+                responseCode = "200",
+                description = "Successfully retrieved course detail",
+                content = {
+                    @Content(
+                        mediaType = "application/json",
+                        schema = @Schema(implementation = CourseDetailDTO.class)
+                    )
+                }
+            ),
+            @ApiResponse(responseCode = "404", description = "Course not found", content = @Content)
+        }
+    )
+    // @formatter:on
+    @GetMapping("/{requestedId}/detail")
+    public ResponseEntity<CourseDetailDTO> findDetailById(
+    // @formatter:off
+        AuthenticatedUser user,
+        @Parameter(description = "id of a course to be searched") @PathVariable Long requestedId
+        // @formatter:on
+    ) {
+
+        if (user == null) {
+            logger.info("Anonymous user is trying to get detail of course '{}'", requestedId);
+        } else {
+            logger.info("Principal '{}' is trying to get detail of course '{}'", user.getUserId(), requestedId);
+        }
+
+        Optional<CourseDetailDTO> detailOptional = courseService.findDetail(requestedId);
+        if (detailOptional.isEmpty()) {
+            logger.info("Course not found");
+            throw new ResourceNotFoundException("Course with id " + requestedId + " not found");
+        }
+
+        CourseDetailDTO detail = detailOptional.get();
+        List<Long> reviewCounts = detail.getLessons().stream().map(LessonSummaryDTO::getReviewCount).toList();
+
+        // the review counts are part of the tag so a new or deleted review also changes it
+        // @formatter:off
+        return ResponseEntity.ok()
+                .eTag(ETags.ofList("course-detail", detail.getLessons(), LessonSummaryDTO::getId, LessonSummaryDTO::getVersion, detail.getId() + ":" + detail.getVersion() + ":" + reviewCounts))
+                .body(detail);
+        // @formatter:on
     }
 
     @Operation(summary = "Create a new course")
@@ -168,26 +247,22 @@ public class CourseController {
             )
         ) @Valid @RequestBody CourseRequestDTO course, 
         UriComponentsBuilder uriBuilder,
-        @CurrentSecurityContext(expression = "authentication") Authentication authentication
+        AuthenticatedUser user
         // @formatter:on
     ) {
 
-        Long userId = CurrentUserIdResolver.getCurrentUserId(authentication);
-        if (userId == null) {
+        if (user == null) {
             logger.info("Anonymous user is trying to create a new course '{}'", course);
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         } else {
-            logger.info("Principal '{}' is trying to create a new course '{}'", userId, course);
-            Jwt jwt = (Jwt) authentication.getPrincipal();
-            @SuppressWarnings("unchecked")
-            List<String> roles = (List<String>) jwt.getClaims().get("roles");
-            if (!roles.contains("ROLE_LECTURER") && !roles.contains("ROLE_ADMIN")) {
-                logger.info("Principal '{}' is not an admin or lecturer", userId);
+            logger.info("Principal '{}' is trying to create a new course '{}'", user.getUserId(), course);
+            if (!user.hasAnyRole(Role.LECTURER, Role.ADMIN)) {
+                logger.info("Principal '{}' is not an admin or lecturer", user.getUserId());
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
         }
 
-        Course savedCourse = courseService.save(new Course(course, userId));
+        Course savedCourse = courseService.save(new Course(course, user.getUserId()));
 
         CourseResponseDTO courseResponseDTO = CourseConverter.convertToCourseResponseDTO(savedCourse);
 
@@ -212,7 +287,8 @@ public class CourseController {
             @ApiResponse(responseCode = "400", description = "Invalid input", content = @Content), 
             @ApiResponse(responseCode = "404", description = "Course not found", content = @Content),
             @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content),
-            @ApiResponse(responseCode = "403", description = "Forbidden", content = @Content)
+            @ApiResponse(responseCode = "403", description = "Forbidden", content = @Content),
+            @ApiResponse(responseCode = "412", description = "Course changed since the If-Match tag was issued", content = @Content)
         }
     )
     // @formatter:on
@@ -230,20 +306,17 @@ public class CourseController {
                 )
             )
         ) @Valid @RequestBody CourseRequestDTO course,
-        @CurrentSecurityContext(expression = "authentication") Authentication authentication
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+        AuthenticatedUser user
         // @formatter:on
     ) {
-        Long userId = CurrentUserIdResolver.getCurrentUserId(authentication);
-        if (userId == null) {
+        if (user == null) {
             logger.info("Anonymous user is trying to update course '{}'", requestedId);
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         } else {
-            logger.info("Principal '{}' is trying to update course '{}'", userId, requestedId);
-            Jwt jwt = (Jwt) authentication.getPrincipal();
-            @SuppressWarnings("unchecked")
-            List<String> roles = (List<String>) jwt.getClaims().get("roles");
-            if (!roles.contains("ROLE_LECTURER") && !roles.contains("ROLE_ADMIN")) {
-                logger.info("Principal '{}' is not an admin or lecturer", userId);
+            logger.info("Principal '{}' is trying to update course '{}'", user.getUserId(), requestedId);
+            if (!user.hasAnyRole(Role.LECTURER, Role.ADMIN)) {
+                logger.info("Principal '{}' is not an admin or lecturer", user.getUserId());
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
         }
@@ -256,11 +329,16 @@ public class CourseController {
 
         Course courseToUpdate = courseOptional.get();
 
-        if (!courseToUpdate.getOwnerId().equals(userId)) {
-            logger.info("Principal '{}' is not the owner of the course '{}'", userId, requestedId);
+        if (!user.isOwner(courseToUpdate.getOwnerId())) {
+            logger.info("Principal '{}' is not the owner of the course '{}'", user.getUserId(), requestedId);
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
 
+        if (!ETags.matches(ifMatch, ETags.of("course", courseToUpdate.getId(), courseToUpdate.getVersion()))) {
+            logger.info("Course '{}' does not match If-Match {}", requestedId, ifMatch);
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+
         if (course.getName() != null)
             courseToUpdate.setName(course.getName());
 
@@ -271,7 +349,9 @@ public class CourseController {
         logger.info("Course updated: '{}'", updatedCourse);
 
         CourseResponseDTO courseResponseDTO = CourseConverter.convertToCourseResponseDTO(updatedCourse);
-        return ResponseEntity.ok(courseResponseDTO);
+        return ResponseEntity.ok()
+                .eTag(ETags.of("course", updatedCourse.getId(), updatedCourse.getVersion()))
+                .body(courseResponseDTO);
     }
 
     @Operation(summary = "Delete a course by id")
@@ -287,7 +367,8 @@ public class CourseController {
                 content = @Content
                 ),
             @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content),
-            @ApiResponse(responseCode = "403", description = "Forbidden", content = @Content)
+            @ApiResponse(responseCode = "403", description = "Forbidden", content = @Content),
+            @ApiResponse(responseCode = "412", description = "Course changed since the If-Match tag was issued", content = @Content)
         }
     )
     // @formatter:on
@@ -295,20 +376,17 @@ public class CourseController {
     public ResponseEntity<Void> deleteById(
     // @formatter:off
         @Parameter(description = "id of a course to be deleted") @PathVariable Long requestedId,
-        @CurrentSecurityContext(expression = "authentication") Authentication authentication
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+        AuthenticatedUser user
         // @formatter:on
     ) {
-        Long userId = CurrentUserIdResolver.getCurrentUserId(authentication);
-        if (userId == null) {
+        if (user == null) {
             logger.info("Anonymous user is trying to delete course '{}'", requestedId);
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         } else {
-            logger.info("Principal '{}' is trying to delete course '{}'", userId, requestedId);
-            Jwt jwt = (Jwt) authentication.getPrincipal();
-            @SuppressWarnings("unchecked")
-            List<String> roles = (List<String>) jwt.getClaims().get("roles");
-            if (!roles.contains("ROLE_LECTURER") && !roles.contains("ROLE_ADMIN")) {
-                logger.info("Principal '{}' is not an admin or lecturer", userId);
+            logger.info("Principal '{}' is trying to delete course '{}'", user.getUserId(), requestedId);
+            if (!user.hasAnyRole(Role.LECTURER, Role.ADMIN)) {
+                logger.info("Principal '{}' is not an admin or lecturer", user.getUserId());
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
         }
@@ -320,11 +398,16 @@ public class CourseController {
         }
 
         Course courseToDelete = optionalCourse.get();
-        if (!courseToDelete.getOwnerId().equals(userId)) {
-            logger.info("Principal '{}' is not the owner of the course '{}'", userId, requestedId);
+        if (!user.isOwner(courseToDelete.getOwnerId())) {
+            logger.info("Principal '{}' is not the owner of the course '{}'", user.getUserId(), requestedId);
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
 
+        if (!ETags.matches(ifMatch, ETags.of("course", courseToDelete.getId(), courseToDelete.getVersion()))) {
+            logger.info("Course '{}' does not match If-Match {}", requestedId, ifMatch);
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+
         courseService.deleteById(requestedId);
         logger.info("Course '{}' deleted", requestedId);
         return ResponseEntity.noContent().build();
@@ -335,4 +418,31 @@ public class CourseController {
         long count = courseService.count();
         return ResponseEntity.ok(count);
     }
+
+    @Operation(summary = "Suggest courses and lessons whose name or title starts with a prefix")
+    // @formatter:off
+    @ApiResponses(
+        value = {
+            @ApiResponse(
+                responseCode = "200",
+                description = "The most popular matching courses and lessons, most popular first. Any word of a name or title can match",
+                content = {
+                    @Content(
+                        mediaType = "application/json",
+                        array = @ArraySchema(schema = @Schema(implementation = SuggestionDTO.class))
+                    )
+                }
+            )
+        }
+    )
+    // @formatter:on
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionDTO>> suggest(
+    // @formatter:off
+        @Parameter(description = "what has been typed so far") @RequestParam String prefix,
+        @Parameter(description = "maximum number of suggestions to return (1-" + PrefixTrie.MAX_SUGGESTIONS + ")") @RequestParam(defaultValue = "" + PrefixTrie.MAX_SUGGESTIONS) int limit
+        // @formatter:on
+    ) {
+        return ResponseEntity.ok(suggestionService.suggest(prefix, limit));
+    }
 }
@@ -0,0 +1,60 @@
+package com.learntrack.resourceserver.controllers;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Builds entity tags from the JPA {@code @Version} of the returned resources.
+ * <p>
+ * The tags are derived from data the controllers already hold (cached or projected DTOs), so a
+ * conditional GET is answered with 304 by {@code ResponseEntity} without serializing the body. Updates and
+ * deletes check {@code If-Match} against the same tags with {@link #matches}.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    static String of(String type, Long id, Long version) {
+        return type + "-" + id + "-" + versionOrZero(version);
+    }
+
+    /**
+     * Aggregate tag for a list: hashes every (id, version) pair in order together with the list size and
+     * an optional discriminator (e.g. the next page cursor), so adding, removing or updating any element
+     * changes the tag.
+     */
+    static <T> String ofList(String type, List<T> items, Function<T, Long> id, Function<T, Long> version, Object discriminator) {
+        long hash = 1125899906842597L;
+        for (T item : items) {
+            hash = 31 * hash + id.apply(item);
+            hash = 31 * hash + versionOrZero(version.apply(item));
+        }
+        if (discriminator != null) {
+            hash = 31 * hash + discriminator.hashCode();
+        }
+        return type + "-" + items.size() + "-" + Long.toHexString(hash);
+    }
+
+    /**
+     * Whether a conditional write may go ahead: true without an {@code If-Match} header, or when it is {@code *}
+     * or lists {@code current}. Weak tags never match, as {@code If-Match} uses the strong comparison.
+     */
+    static boolean matches(String ifMatch, String current) {
+        if (ifMatch == null) {
+            return true;
+        }
+        String quoted = "\"" + current + "\"";
+        for (String tag : ifMatch.split(",")) {
+            String candidate = tag.strip();
+            if (candidate.equals("*") || candidate.equals(quoted)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long versionOrZero(Long version) {
+        return version == null ? 0L : version;
+    }
+}
@@ -1,14 +1,21 @@
 package com.learntrack.resourceserver.controllers;
 
-import com.learntrack.resourceserver.annotations.CurrentUserIdResolver;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.learntrack.resourceserver.converters.LessonConverter;
+import com.learntrack.resourceserver.converters.NdjsonWriter;
+import com.learntrack.resourceserver.dto.LessonDetailDTO;
 import com.learntrack.resourceserver.dto.LessonRequestDTO;
 import com.learntrack.resourceserver.dto.LessonResponseDTO;
+import com.learntrack.resourceserver.dto.ReviewResponseDTO;
+import com.learntrack.resourceserver.dto.ScopedLessonDTO;
 import com.learntrack.resourceserver.exceptions.ResourceNotFoundException;
 import com.learntrack.resourceserver.models.Course;
 import com.learntrack.resourceserver.models.Lesson;
+import com.learntrack.resourceserver.security.AuthenticatedUser;
+import com.learntrack.resourceserver.security.Role;
 import com.learntrack.resourceserver.services.CourseService;
 import com.learntrack.resourceserver.services.LessonService;
+import com.learntrack.resourceserver.services.ReviewService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -19,16 +26,18 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.annotation.CurrentSecurityContext;
-import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.util.List;
 import java.util.Optional;
@@ -40,11 +49,15 @@ import java.util.Optional;
 public class LessonController {
     private final LessonService lessonService;
     private final CourseService courseService;
+    private final ReviewService reviewService;
+    private final ObjectMapper objectMapper;
     Logger logger = LoggerFactory.getLogger(LessonController.class);
 
-    public LessonController(LessonService lessonService, CourseService courseService) {
+    public LessonController(LessonService lessonService, CourseService courseService, ReviewService reviewService, ObjectMapper objectMapper) {
         this.lessonService = lessonService;
         this.courseService = courseService;
+        this.reviewService = reviewService;
+        this.objectMapper = objectMapper;
     }
 
     @Operation(summary = "Find all lessons for a course")
@@ -67,24 +80,73 @@ public class LessonController {
     public ResponseEntity<Iterable<LessonResponseDTO>> findAll(
             // @formatter:off
         @PathVariable Long courseId,
-        @CurrentSecurityContext(expression = "authentication") Authentication authentication
+        AuthenticatedUser user
         // @formatter:on
     ) {
 
-        Long userId = CurrentUserIdResolver.getCurrentUserId(authentication);
-        if (userId == null) {
+        if (user == null) {
             logger.info("Anonymous user is trying to get all lessons for course with id: " + courseId);
         } else {
-            logger.info("Principal '{}' is trying to get all lessons for course with id: " + courseId, userId);
+            logger.info("Principal '{}' is trying to get all lessons for course with id: " + courseId, user.getUserId());
         }
 
-        if (!courseService.existsById(courseId)) {
+        if (courseService.findResponseById(courseId).isEmpty()) {
             logger.info("Course with id: " + courseId + " not found");
             throw new ResourceNotFoundException("Course with id: " + courseId + " not found");
         }
 
-        Iterable<LessonResponseDTO> lessons = LessonConverter.convertToLessonResponseDTOList(lessonService.findAllByCourseId(courseId));
-        return ResponseEntity.ok(lessons);
+        List<LessonResponseDTO> lessons = lessonService.findAllProjectedByCourseId(courseId);
+        return ResponseEntity.ok()
+                .eTag(ETags.ofList("lessons", lessons, LessonResponseDTO::getId, LessonResponseDTO::getVersion, courseId))
+                .body(lessons);
+    }
+
+    @Operation(summary = "Stream all lessons for a course as newline-delimited JSON")
+    // @formatter:off
+    @ApiResponses(value = {
+            @ApiResponse(
+                responseCode = "200", 
+                description = "Lessons are written one per line as they are read from the database", 
+                content = @Content(
+                    mediaType = MediaType.APPLICATION_NDJSON_VALUE, 
+                    schema = @Schema(implementation = LessonResponseDTO.class)
+                )
+            ),
+            @ApiResponse(responseCode = "404", description = "Course not found", content = @Content)
+    })
+    // @formatter:on
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAll(
+            // @formatter:off
+        @PathVariable Long courseId,
+        AuthenticatedUser user
+        // @formatter:on
+    ) {
+
+        if (user == null) {
+            logger.info("Anonymous user is trying to stream all lessons for course with id: " + courseId);
+        } else {
+            logger.info("Principal '{}' is trying to stream all lessons for course with id: " + courseId, user.getUserId());
+        }
+
+        if (courseService.findResponseById(courseId).isEmpty()) {
+            logger.info("Course with id: " + courseId + " not found");
+            throw new ResourceNotFoundException("Course with id: " + courseId + " not found");
+        }
+
+        StreamingResponseBody body = outputStream -> {
+            try (NdjsonWriter<LessonResponseDTO> writer = new NdjsonWriter<>(objectMapper, LessonResponseDTO.class, outputStream)) {
+                lessonService.streamAllByCourseId(courseId, lesson -> {
+                    try {
+                        writer.write(LessonConverter.convertToLessonResponseDTO(lesson));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     @Operation(summary = "Find lesson by id")
@@ -107,36 +169,69 @@ public class LessonController {
             // @formatter:off
         @PathVariable Long courseId, 
         @PathVariable Long lessonId,
-        @CurrentSecurityContext(expression = "authentication") Authentication authentication
+        AuthenticatedUser user,
+        WebRequest request
         // @formatter:on
     ) {
 
-        Long userId = CurrentUserIdResolver.getCurrentUserId(authentication);
-        if (userId == null) {
+        if (user == null) {
             logger.info("Anonymous user is trying to get lesson with id: " + lessonId + " for course with id: " + courseId);
         } else {
-            logger.info("Principal '{}' is trying to get lesson with id: " + lessonId + " for course with id: " + courseId, userId);
-        }
-        if (!courseService.existsById(courseId)) {
-            logger.info("Course with id: " + courseId + " not found");
-            throw new ResourceNotFoundException("Course with id: " + courseId + " not found");
+            logger.info("Principal '{}' is trying to get lesson with id: " + lessonId + " for course with id: " + courseId, user.getUserId());
         }
 
-        Optional<Lesson> lessonOptional = lessonService.findById(lessonId);
-        if (!lessonOptional.isPresent()) {
-            logger.info("Lesson with id: " + lessonId + " not found");
-            throw new ResourceNotFoundException("Lesson with id: " + lessonId + " not found for course with id: " + courseId);
-        }
+        ScopedLessonDTO lesson = findScopedLesson(courseId, lessonId);
 
-        Lesson lesson = lessonOptional.get();
-        if (!lesson.getCourse().getId().equals(courseId)) {
-            logger.info("Lesson with id: " + lessonId + " not found for course with id: " + courseId);
-            throw new ResourceNotFoundException("Lesson with id: " + lessonId + " not found for course with id: " + courseId);
+        String eTag = ETags.of("lesson", lesson.getLessonId(), lesson.getVersion());
+        if (request.checkNotModified(eTag)) {
+            return null;
         }
 
         LessonResponseDTO lessonResponseDTO = LessonConverter.convertToLessonResponseDTO(lesson);
 
-        return ResponseEntity.ok(lessonResponseDTO);
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .body(lessonResponseDTO);
+    }
+
+    @Operation(summary = "Find a lesson together with its reviews")
+    // @formatter:off
+    @ApiResponses(value = {
+            @ApiResponse(
+                responseCode = "200",
+                description = "Successfully retrieved lesson detail",
+                content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = LessonDetailDTO.class)
+                )
+            ),
+            @ApiResponse(responseCode = "404", description = "Lesson not found", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Course not found", content = @Content),
+    })
+    // @formatter:on
+    @GetMapping("/{lessonId}/detail")
+    public ResponseEntity<LessonDetailDTO> findDetailById(
+            // @formatter:off
+        @PathVariable Long courseId,
+        @PathVariable Long lessonId,
+        AuthenticatedUser user
+        // @formatter:on
+    ) {
+
+        if (user == null) {
+            logger.info("Anonymous user is trying to get detail of lesson with id: " + lessonId + " for course with id: " + courseId);
+        } else {
+            logger.info("Principal '{}' is trying to get detail of lesson with id: " + lessonId + " for course with id: " + courseId, user.getUserId());
+        }
+
+        ScopedLessonDTO lesson = findScopedLesson(courseId, lessonId);
+        LessonDetailDTO detail = new LessonDetailDTO(lesson, reviewService.findAllProjectedByLessonId(lessonId));
+
+        // @formatter:off
+        return ResponseEntity.ok()
+                .eTag(ETags.ofList("lesson-detail", detail.getReviews(), ReviewResponseDTO::getId, ReviewResponseDTO::getVersion, lessonId + ":" + lesson.getVersion()))
+                .body(detail);
+        // @formatter:on
     }
 
     @Operation(summary = "Create a new lesson for a course")
@@ -168,20 +263,17 @@ public class LessonController {
                 schema = @Schema(implementation = LessonRequestDTO.class)
             )) @Valid @RequestBody LessonRequestDTO lesson,
             UriComponentsBuilder uriBuilder,
-        @CurrentSecurityContext(expression = "authentication") Authentication authentication
+        AuthenticatedUser user
         // @formatter:on
     ) {
 
-        Long userId = CurrentUserIdResolver.getCurrentUserId(authentication);
-        if (userId == null) {
+        if (user == null) {
             logger.info("Anonymous user is trying to create lesson for course with id: " + courseId);
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         } else {
-            logger.info("Principal '{}' is trying to create lesson for course with id: " + courseId, userId);
-            Jwt jwt = (Jwt) authentication.getPrincipal();
-            @SuppressWarnings("unchecked") List<String> roles = (List<String>) jwt.getClaims().get("roles");
-            if (!roles.contains("ROLE_LECTURER") && !roles.contains("ROLE_ADMIN")) {
-                logger.info("Principal '{}' is not an admin or lecturer", userId);
+            logger.info("Principal '{}' is trying to create lesson for course with id: " + courseId, user.getUserId());
+            if (!user.hasAnyRole(Role.LECTURER, Role.ADMIN)) {
+                logger.info("Principal '{}' is not an admin or lecturer", user.getUserId());
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
         }
@@ -221,7 +313,8 @@ public class LessonController {
             @ApiResponse(responseCode = "404", description = "Lesson not found", content = @Content),
             @ApiResponse(responseCode = "404", description = "Course not found", content = @Content),
             @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content),
-            @ApiResponse(responseCode = "403", description = "Forbidden", content = @Content)
+            @ApiResponse(responseCode = "403", description = "Forbidden", content = @Content),
+            @ApiResponse(responseCode = "412", description = "Lesson changed since the If-Match tag was issued", content = @Content)
     })
     // @formatter:on
     @PutMapping("/{lessonId}")
@@ -237,47 +330,31 @@ public class LessonController {
                 schema = @Schema(implementation = LessonRequestDTO.class)
             )
         ) @Valid @RequestBody LessonRequestDTO lesson,
-        @CurrentSecurityContext(expression = "authentication") Authentication authentication
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+        AuthenticatedUser user
         // @formatter:on
     ) {
 
-        Long userId = CurrentUserIdResolver.getCurrentUserId(authentication);
-        if (userId == null) {
+        if (user == null) {
             logger.info("Anonymous user is trying to update lesson with id: " + lessonId + " for course with id: " + courseId);
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         } else {
-            logger.info("Principal '{}' is trying to update lesson with id: " + lessonId + " for course with id: " + courseId, userId);
-            Jwt jwt = (Jwt) authentication.getPrincipal();
-            @SuppressWarnings("unchecked") List<String> roles = (List<String>) jwt.getClaims().get("roles");
-            if (!roles.contains("ROLE_LECTURER") && !roles.contains("ROLE_ADMIN")) {
-                logger.info("Principal '{}' is not an admin or lecturer", userId);
+            logger.info("Principal '{}' is trying to update lesson with id: " + lessonId + " for course with id: " + courseId, user.getUserId());
+            if (!user.hasAnyRole(Role.LECTURER, Role.ADMIN)) {
+                logger.info("Principal '{}' is not an admin or lecturer", user.getUserId());
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
         }
 
-        Optional<Course> courseOptional = courseService.findById(courseId);
-        if (!courseOptional.isPresent()) {
-            logger.info("Course with id: " + courseId + " not found");
-            throw new ResourceNotFoundException("Course with id: " + courseId + " not found");
-        }
-
-        Course course = courseOptional.get();
-        if (!course.getOwnerId().equals(userId)) {
-            logger.info("Principal '{}' is not the owner of the course '{}'", userId, courseId);
+        Lesson lessonToUpdate = findLessonInScope(courseId, lessonId);
+        if (!user.isOwner(lessonToUpdate.getCourse().getOwnerId())) {
+            logger.info("Principal '{}' is not the owner of the course '{}'", user.getUserId(), courseId);
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
 
-        Optional<Lesson> lessonOptional = lessonService.findById(lessonId);
-        if (!lessonOptional.isPresent()) {
-            logger.info("Lesson with id: " + lessonId + " not found");
-            throw new ResourceNotFoundException("Lesson with id: " + lessonId + " not found for course with id: " + courseId);
-        }
-
-
-        Lesson lessonToUpdate = lessonOptional.get();
-        if (!lessonToUpdate.getCourse().getId().equals(courseId)) {
-            logger.info("Lesson with id: " + lessonId + " not found for course with id: " + courseId);
-            throw new ResourceNotFoundException("Lesson with id: " + lessonId + " not found for course with id: " + courseId);
+        if (!ETags.matches(ifMatch, ETags.of("lesson", lessonToUpdate.getId(), lessonToUpdate.getVersion()))) {
+            logger.info("Lesson '{}' does not match If-Match {}", lessonId, ifMatch);
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
         }
 
         if (lesson.getTitle() != null) lessonToUpdate.setTitle(lesson.getTitle());
@@ -287,7 +364,9 @@ public class LessonController {
 
         LessonResponseDTO lessonResponseDTO = LessonConverter.convertToLessonResponseDTO(updatedLesson);
 
-        return ResponseEntity.ok(lessonResponseDTO);
+        return ResponseEntity.ok()
+                .eTag(ETags.of("lesson", updatedLesson.getId(), updatedLesson.getVersion()))
+                .body(lessonResponseDTO);
     }
 
     @Operation(summary = "Delete a lesson by id")
@@ -301,7 +380,8 @@ public class LessonController {
             @ApiResponse(responseCode = "404", description = "Lesson not found", content = @Content),
             @ApiResponse(responseCode = "404", description = "Course not found", content = @Content),
             @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content),
-            @ApiResponse(responseCode = "403", description = "Forbidden", content = @Content)
+            @ApiResponse(responseCode = "403", description = "Forbidden", content = @Content),
+            @ApiResponse(responseCode = "412", description = "Lesson changed since the If-Match tag was issued", content = @Content)
     })
     // @formatter:on    
     @DeleteMapping("/{lessonId}")
@@ -309,49 +389,73 @@ public class LessonController {
             // @formatter:off
         @PathVariable Long courseId, 
         @PathVariable Long lessonId,
-        @CurrentSecurityContext(expression = "authentication") Authentication authentication
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+        AuthenticatedUser user
         // @formatter:on
     ) {
 
-        Long userId = CurrentUserIdResolver.getCurrentUserId(authentication);
-        if (userId == null) {
+        if (user == null) {
             logger.info("Anonymous user is trying to delete lesson with id: " + lessonId + " for course with id: " + courseId);
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         } else {
-            logger.info("Principal '{}' is trying to delete lesson with id: " + lessonId + " for course with id: " + courseId, userId);
-            Jwt jwt = (Jwt) authentication.getPrincipal();
-            @SuppressWarnings("unchecked") List<String> roles = (List<String>) jwt.getClaims().get("roles");
-            if (!roles.contains("ROLE_LECTURER") && !roles.contains("ROLE_ADMIN")) {
-                logger.info("Principal '{}' is not an admin or lecturer", userId);
+            logger.info("Principal '{}' is trying to delete lesson with id: " + lessonId + " for course with id: " + courseId, user.getUserId());
+            if (!user.hasAnyRole(Role.LECTURER, Role.ADMIN)) {
+                logger.info("Principal '{}' is not an admin or lecturer", user.getUserId());
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
         }
 
-        Optional<Course> courseOptional = courseService.findById(courseId);
-        if (!courseOptional.isPresent()) {
+        ScopedLessonDTO scopedLesson = findScopedLesson(courseId, lessonId);
+        if (!user.isOwner(scopedLesson.getCourseOwnerId())) {
+            logger.info("Principal '{}' is not the owner of the course '{}'", user.getUserId(), courseId);
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        if (!ETags.matches(ifMatch, ETags.of("lesson", scopedLesson.getLessonId(), scopedLesson.getVersion()))) {
+            logger.info("Lesson '{}' does not match If-Match {}", lessonId, ifMatch);
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+
+        lessonService.deleteById(lessonId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Count lessons in a course")
+    @GetMapping("/count")
+    public ResponseEntity<Long> getLessonCount(@PathVariable Long courseId) {
+        if (courseService.findResponseById(courseId).isEmpty()) {
             logger.info("Course with id: " + courseId + " not found");
             throw new ResourceNotFoundException("Course with id: " + courseId + " not found");
         }
 
-        Course course = courseOptional.get();
-        if (!course.getOwnerId().equals(userId)) {
-            logger.info("Principal '{}' is not the owner of the course '{}'", userId, courseId);
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
-        }
+        long count = lessonService.countByCourseId(courseId);
+        return ResponseEntity.ok(count);
+    }
 
-        Optional<Lesson> lessonOptional = lessonService.findById(lessonId);
-        if (!lessonOptional.isPresent()) {
-            logger.info("Lesson with id: " + lessonId + " not found");
+    private Lesson findLessonInScope(Long courseId, Long lessonId) {
+        Optional<Lesson> lessonOptional = lessonService.findInScope(courseId, lessonId);
+        if (lessonOptional.isEmpty()) {
+            // resolve the path level by level only to tell which part of it is missing
+            findScopedLesson(courseId, lessonId);
+            logger.error("Lesson with id: " + lessonId + " not found for course with id: " + courseId);
             throw new ResourceNotFoundException("Lesson with id: " + lessonId + " not found for course with id: " + courseId);
         }
 
-        Lesson lesson = lessonOptional.get();
-        if (!lesson.getCourse().getId().equals(courseId)) {
+        return lessonOptional.get();
+    }
+
+    private ScopedLessonDTO findScopedLesson(Long courseId, Long lessonId) {
+        Optional<ScopedLessonDTO> scopedOptional = lessonService.findScoped(courseId, lessonId);
+        if (scopedOptional.isEmpty()) {
+            logger.info("Course with id: " + courseId + " not found");
+            throw new ResourceNotFoundException("Course with id: " + courseId + " not found");
+        }
+
+        if (scopedOptional.get().getLessonId() == null) {
             logger.info("Lesson with id: " + lessonId + " not found for course with id: " + courseId);
             throw new ResourceNotFoundException("Lesson with id: " + lessonId + " not found for course with id: " + courseId);
         }
 
-        lessonService.deleteById(lessonId);
-        return ResponseEntity.noContent().build();
+        return scopedOptional.get();
     }
 }
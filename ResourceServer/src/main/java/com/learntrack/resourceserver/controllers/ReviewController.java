@@ -1,14 +1,15 @@
 package com.learntrack.resourceserver.controllers;
 
-import com.learntrack.resourceserver.annotations.CurrentUserIdResolver;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learntrack.resourceserver.converters.NdjsonWriter;
 import com.learntrack.resourceserver.converters.ReviewConverter;
 import com.learntrack.resourceserver.dto.ReviewRequestDTO;
 import com.learntrack.resourceserver.dto.ReviewResponseDTO;
+import com.learntrack.resourceserver.dto.ScopedLessonDTO;
+import com.learntrack.resourceserver.dto.ScopedReviewDTO;
 import com.learntrack.resourceserver.exceptions.ResourceNotFoundException;
-import com.learntrack.resourceserver.models.Course;
-import com.learntrack.resourceserver.models.Lesson;
 import com.learntrack.resourceserver.models.Review;
-import com.learntrack.resourceserver.services.CourseService;
+import com.learntrack.resourceserver.security.AuthenticatedUser;
 import com.learntrack.resourceserver.services.LessonService;
 import com.learntrack.resourceserver.services.ReviewService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -21,16 +22,18 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.annotation.CurrentSecurityContext;
-import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.util.List;
 import java.util.Optional;
@@ -42,7 +45,7 @@ import java.util.Optional;
 public class ReviewController {
     private final ReviewService reviewService;
     private final LessonService lessonService;
-    private final CourseService courseService;
+    private final ObjectMapper objectMapper;
 
     Logger logger = LoggerFactory.getLogger(ReviewController.class);
 
@@ -50,12 +53,12 @@ public class ReviewController {
             // @formatter:off
         ReviewService reviewService, 
         LessonService lessonService, 
-        CourseService courseService
+        ObjectMapper objectMapper
         // @formatter:on
     ) {
         this.reviewService = reviewService;
         this.lessonService = lessonService;
-        this.courseService = courseService;
+        this.objectMapper = objectMapper;
     }
 
     @Operation(summary = "Find all reviews for a lesson")
@@ -80,30 +83,69 @@ public class ReviewController {
             // @formatter:off
         @PathVariable Long courseId,
         @PathVariable Long lessonId,
-        @CurrentSecurityContext(expression = "authentication") Authentication authentication
+        AuthenticatedUser user
         // @formatter:on
     ) {
-        Long userId = CurrentUserIdResolver.getCurrentUserId(authentication);
-        if (userId == null) {
+        if (user == null) {
             logger.info("Anonymous user is trying to find all reviews for lesson with id: " + lessonId);
         } else {
-            logger.info("Principal '{}' is trying to find all reviews for lesson with id: " + lessonId, userId);
+            logger.info("Principal '{}' is trying to find all reviews for lesson with id: " + lessonId, user.getUserId());
         }
 
         logger.debug("Finding all reviews for lesson with id: " + lessonId);
 
-        if (!courseService.existsById(courseId)) {
-            logger.error("Course with id: " + courseId + " not found");
-            throw new ResourceNotFoundException("Course with id: " + courseId + " not found");
-        }
+        findScopedLesson(courseId, lessonId);
 
-        if (!lessonService.existsById(lessonId)) {
-            logger.error("Lesson with id: " + lessonId + " not found");
-            throw new ResourceNotFoundException("Lesson with id: " + lessonId + " not found");
+        List<ReviewResponseDTO> reviews = reviewService.findAllProjectedByLessonId(lessonId);
+        return ResponseEntity.ok()
+                .eTag(ETags.ofList("reviews", reviews, ReviewResponseDTO::getId, ReviewResponseDTO::getVersion, lessonId))
+                .body(reviews);
+    }
+
+    @Operation(summary = "Stream all reviews for a lesson as newline-delimited JSON")
+    // @formatter:off
+    @ApiResponses(value = {
+            @ApiResponse(
+                responseCode = "200", 
+                description = "Reviews are written one per line as they are read from the database", 
+                content = @Content(
+                    mediaType = MediaType.APPLICATION_NDJSON_VALUE, 
+                    schema = @Schema(implementation = ReviewResponseDTO.class)
+                )
+            ),
+            @ApiResponse(responseCode = "404", description = "Lesson not found", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Course not found", content = @Content)
+    })
+    // @formatter:on
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAll(
+            // @formatter:off
+        @PathVariable Long courseId,
+        @PathVariable Long lessonId,
+        AuthenticatedUser user
+        // @formatter:on
+    ) {
+        if (user == null) {
+            logger.info("Anonymous user is trying to stream all reviews for lesson with id: " + lessonId);
+        } else {
+            logger.info("Principal '{}' is trying to stream all reviews for lesson with id: " + lessonId, user.getUserId());
         }
 
-        Iterable<ReviewResponseDTO> reviews = ReviewConverter.convertToReviewResponseDTOList(reviewService.findAllByLessonId(lessonId));
-        return ResponseEntity.ok(reviews);
+        findScopedLesson(courseId, lessonId);
+
+        StreamingResponseBody body = outputStream -> {
+            try (NdjsonWriter<ReviewResponseDTO> writer = new NdjsonWriter<>(objectMapper, ReviewResponseDTO.class, outputStream)) {
+                reviewService.streamAllByLessonId(lessonId, review -> {
+                    try {
+                        writer.write(ReviewConverter.convertToReviewResponseDTO(review));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     @Operation(summary = "Find review by id")
@@ -128,56 +170,28 @@ public class ReviewController {
         @PathVariable Long courseId,
         @PathVariable Long lessonId,
         @PathVariable Long reviewId,
-        @CurrentSecurityContext(expression = "authentication") Authentication authentication
+        AuthenticatedUser user,
+        WebRequest request
         // @formatter:on
     ) {
-        Long userId = CurrentUserIdResolver.getCurrentUserId(authentication);
-        if (userId == null) {
+        if (user == null) {
             logger.info("Anonymous user is trying to find review with id: " + reviewId + " for lesson with id: " + lessonId);
         } else {
-            logger.info("Principal '{}' is trying to find review with id: " + reviewId + " for lesson with id: " + lessonId, userId);
+            logger.info("Principal '{}' is trying to find review with id: " + reviewId + " for lesson with id: " + lessonId, user.getUserId());
         }
 
-        logger.info("Finding course with id: " + courseId);
+        ScopedReviewDTO review = findScopedReview(courseId, lessonId, reviewId);
 
-        if (!courseService.existsById(courseId)) {
-            logger.error("Course with id: " + courseId + " not found");
-            throw new ResourceNotFoundException("Course with id: " + courseId + " not found");
-        }
-
-        logger.info("Finding lesson with id: " + lessonId);
-
-        Optional<Lesson> lessonOptional = lessonService.findById(lessonId);
-        if (!lessonOptional.isPresent()) {
-            logger.error("Lesson with id: " + lessonId + " not found");
-            throw new ResourceNotFoundException("Lesson with id: " + lessonId + " not found");
-        }
-
-        if (!lessonOptional.get().getCourse().getId().equals(courseId)) {
-            logger.info("Lesson with id: " + lessonId + " not found for course with id: " + courseId);
-
-            throw new ResourceNotFoundException("Lesson with id: " + lessonId + " not found for course with id: " + courseId);
-        }
-
-        Optional<Review> reviewOptional = reviewService.findById(reviewId);
-        if (!reviewOptional.isPresent()) {
-            logger.error("Review with id: " + reviewId + " not found");
-            throw new ResourceNotFoundException("Review with id: " + reviewId + " not found");
-        }
-
-        Review review = reviewOptional.get();
-
-        logger.info("Review found: " + review.getId());
-        logger.info("Review lesson id: " + review.getLesson().getId());
-
-        if (!review.getLesson().getId().equals(lessonId)) {
-            logger.error("Review with id: " + reviewId + " not found for lesson with id: " + lessonId);
-            throw new ResourceNotFoundException("Review with id: " + reviewId + " not found for lesson with id: " + lessonId);
+        String eTag = ETags.of("review", review.getReviewId(), review.getVersion());
+        if (request.checkNotModified(eTag)) {
+            return null;
         }
 
         ReviewResponseDTO reviewResponseDTO = ReviewConverter.convertToReviewResponseDTO(review);
 
-        return ResponseEntity.ok(reviewResponseDTO);
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .body(reviewResponseDTO);
     }
 
     @Operation(summary = "Create a new review for a lesson")
@@ -212,52 +226,22 @@ public class ReviewController {
             )
         ) @Valid @RequestBody ReviewRequestDTO review,
         UriComponentsBuilder uriBuilder,
-        @CurrentSecurityContext(expression = "authentication") Authentication authentication
+        AuthenticatedUser user
         // @formatter:on
     ) {
-        Long userId = CurrentUserIdResolver.getCurrentUserId(authentication);
-        if (userId == null) {
+        if (user == null) {
             logger.info("Anonymous user is trying to create a new review for lesson with id: " + lessonId);
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         } else {
-            logger.info("Principal '{}' is trying to create a new review for lesson with id: " + lessonId, userId);
-            // Jwt jwt = (Jwt) authentication.getPrincipal();
-            // @SuppressWarnings("unchecked") List<String> roles = (List<String>) jwt.getClaims().get("roles");
-            // if (!roles.contains("ROLE_LECTURER") && !roles.contains("ROLE_ADMIN")) {
-            //     logger.info("Principal '{}' is not an admin or lecturer", userId);
-            //     return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
-            // }
+            logger.info("Principal '{}' is trying to create a new review for lesson with id: " + lessonId, user.getUserId());
         }
 
         logger.info("Creating review for lesson with id: " + lessonId);
 
-        Optional<Course> courseOptional = courseService.findById(courseId);
-        if (!courseOptional.isPresent()) {
-            logger.info("Course with id: " + courseId + " not found");
-            throw new ResourceNotFoundException("Course with id: " + courseId + " not found");
-        }
+        findScopedLesson(courseId, lessonId);
 
-        Course course = courseOptional.get();
-
-        // if (!course.getOwnerId().equals(userId)) {
-        //     logger.info("Principal '{}' is not the owner of the course '{}'", userId, courseId);
-        //     return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
-        // }
-
-        Optional<Lesson> lessonOptional = lessonService.findById(lessonId);
-        if (!lessonOptional.isPresent()) {
-            logger.info("Lesson with id: " + lessonId + " not found");
-            throw new ResourceNotFoundException("Lesson with id: " + lessonId + " not found");
-        }
-
-        Lesson lesson = lessonOptional.get();
-
-        if (!lesson.getCourse().getId().equals(courseId)) {
-            logger.error("Lesson with id: " + lessonId + " not found for course with id: " + courseId);
-            throw new ResourceNotFoundException("Lesson with id: " + lessonId + " not found for course with id: " + courseId);
-        }
-
-        Review newReview = new Review(review, lesson, userId);
+        // the scoped lookup already proved the lesson exists, so a proxy is enough to set the foreign key
+        Review newReview = new Review(review, lessonService.getReference(lessonId), user.getUserId());
 
         Review savedReview = reviewService.save(newReview);
 
@@ -283,7 +267,8 @@ public class ReviewController {
             @ApiResponse(responseCode = "404", description = "Lesson not found", content = @Content),
             @ApiResponse(responseCode = "404", description = "Course not found", content = @Content),
             @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content),
-            @ApiResponse(responseCode = "403", description = "Forbidden", content = @Content)
+            @ApiResponse(responseCode = "403", description = "Forbidden", content = @Content),
+            @ApiResponse(responseCode = "412", description = "Review changed since the If-Match tag was issued", content = @Content)
     })
     // @formatter:on
     @PutMapping("/{reviewId}")
@@ -300,58 +285,32 @@ public class ReviewController {
                 schema = @Schema(implementation = ReviewRequestDTO.class)
             )
         ) @Valid @RequestBody ReviewRequestDTO review,
-        @CurrentSecurityContext(expression = "authentication") Authentication authentication
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+        AuthenticatedUser user
         // @formatter:on
     ) {
-        Long userId = CurrentUserIdResolver.getCurrentUserId(authentication);
-        if (userId == null) {
+        if (user == null) {
             logger.info("Anonymous user is trying to update review with id: " + reviewId + " for lesson with id: " + lessonId);
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         } else {
-            logger.info("Principal '{}' is trying to update review with id: " + reviewId + " for lesson with id: " + lessonId, userId);
+            logger.info("Principal '{}' is trying to update review with id: " + reviewId + " for lesson with id: " + lessonId, user.getUserId());
         }
 
         logger.debug("Updating review with id: " + reviewId + " for lesson with id: " + lessonId);
 
-        Optional<Course> courseOptional = courseService.findById(courseId);
-        if (!courseOptional.isPresent()) {
-            logger.error("Course with id: " + courseId + " not found");
-            throw new ResourceNotFoundException("Course with id: " + courseId + " not found");
-        }
-
-        Course course = courseOptional.get();
-
-        Optional<Lesson> lessonOptional = lessonService.findById(lessonId);
-        if (!lessonOptional.isPresent()) {
-            logger.error("Lesson with id: " + lessonId + " not found");
-            throw new ResourceNotFoundException("Lesson with id: " + lessonId + " not found");
-        }
-
-        Lesson lesson = lessonOptional.get();
-
-        if (lesson.getCourse().getId() != courseId) {
-            logger.error("Lesson with id: " + lessonId + " not found for course with id: " + courseId);
-            throw new ResourceNotFoundException("Lesson with id: " + lessonId + " not found for course with id: " + courseId);
-        }
+        Review reviewToUpdate = findReviewInScope(courseId, lessonId, reviewId);
 
-        Optional<Review> reviewOptional = reviewService.findById(reviewId);
-        if (!reviewOptional.isPresent()) {
-            logger.error("Review with id: " + reviewId + " not found");
-            throw new ResourceNotFoundException("Review with id: " + reviewId + " not found");
+        // check if the user is the creator of the review
+        if (!user.isOwner(reviewToUpdate.getOwnerId())) {
+            logger.info("Principal '{}' is not the creator of the review '{}'", user.getUserId(), reviewId);
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
 
-        Review reviewToUpdate = reviewOptional.get();
-        if (reviewToUpdate.getLesson().getId() != lessonId) {
-            logger.error("Review with id: " + reviewId + " not found for lesson with id: " + lessonId);
-            throw new ResourceNotFoundException("Review with id: " + reviewId + " not found for lesson with id: " + lessonId);
+        if (!ETags.matches(ifMatch, ETags.of("review", reviewToUpdate.getId(), reviewToUpdate.getVersion()))) {
+            logger.info("Review '{}' does not match If-Match {}", reviewId, ifMatch);
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
         }
 
-        // check if the user is the creator of the review
-        if (!reviewToUpdate.getOwnerId().equals(userId)) {
-            logger.info("Principal '{}' is not the creator of the review '{}'", userId, reviewId);
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
-        }   
-
         if (review.getTitle() != null) reviewToUpdate.setTitle(review.getTitle());
 
         if (review.getContent() != null) reviewToUpdate.setContent(review.getContent());
@@ -359,7 +318,9 @@ public class ReviewController {
 
         ReviewResponseDTO reviewResponseDTO = ReviewConverter.convertToReviewResponseDTO(updatedReview);
 
-        return ResponseEntity.ok(reviewResponseDTO);
+        return ResponseEntity.ok()
+                .eTag(ETags.of("review", updatedReview.getId(), updatedReview.getVersion()))
+                .body(reviewResponseDTO);
     }
 
     @Operation(summary = "Delete a review by id")
@@ -373,7 +334,8 @@ public class ReviewController {
             @ApiResponse(responseCode = "404", description = "Lesson not found", content = @Content),
             @ApiResponse(responseCode = "404", description = "Course not found", content = @Content),
             @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content),
-            @ApiResponse(responseCode = "403", description = "Forbidden", content = @Content)
+            @ApiResponse(responseCode = "403", description = "Forbidden", content = @Content),
+            @ApiResponse(responseCode = "412", description = "Review changed since the If-Match tag was issued", content = @Content)
     })
     // @formatter:on
     @DeleteMapping("/{reviewId}")
@@ -382,45 +344,89 @@ public class ReviewController {
         @PathVariable Long courseId, 
         @PathVariable Long lessonId,
         @PathVariable Long reviewId,
-        @CurrentSecurityContext(expression = "authentication") Authentication authentication
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+        AuthenticatedUser user
         // @formatter:on
     ) {
-        Long userId = CurrentUserIdResolver.getCurrentUserId(authentication);
-        if (userId == null) {
+        if (user == null) {
             logger.info("Anonymous user is trying to delete review with id: " + reviewId + " for lesson with id: " + lessonId);
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         } else {
-            logger.info("Principal '{}' is trying to delete review with id: " + reviewId + " for lesson with id: " + lessonId, userId);
+            logger.info("Principal '{}' is trying to delete review with id: " + reviewId + " for lesson with id: " + lessonId, user.getUserId());
         }
         logger.debug("Deleting review with id: " + reviewId);
 
-        Optional<Course> courseOptional = courseService.findById(courseId);
-        if (!courseOptional.isPresent()) {
+        ScopedReviewDTO scopedReview = findScopedReview(courseId, lessonId, reviewId);
+
+        // check if the user is the creator of the review
+        if (!user.isOwner(scopedReview.getOwnerId())) {
+            logger.info("Principal '{}' is not the creator of the review '{}'", user.getUserId(), reviewId);
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        if (!ETags.matches(ifMatch, ETags.of("review", scopedReview.getReviewId(), scopedReview.getVersion()))) {
+            logger.info("Review '{}' does not match If-Match {}", reviewId, ifMatch);
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+
+        reviewService.deleteById(reviewId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Count reviews for a lesson")
+    @GetMapping("/count")
+    public ResponseEntity<Long> getReviewCount(@PathVariable Long courseId, @PathVariable Long lessonId) {
+        findScopedLesson(courseId, lessonId);
+
+        long count = reviewService.countByLessonId(lessonId);
+        return ResponseEntity.ok(count);
+    }
+
+    private ScopedLessonDTO findScopedLesson(Long courseId, Long lessonId) {
+        Optional<ScopedLessonDTO> scopedOptional = lessonService.findScoped(courseId, lessonId);
+        if (scopedOptional.isEmpty()) {
             logger.error("Course with id: " + courseId + " not found");
             throw new ResourceNotFoundException("Course with id: " + courseId + " not found");
         }
 
-        Course course = courseOptional.get();
+        if (scopedOptional.get().getLessonId() == null) {
+            logger.error("Lesson with id: " + lessonId + " not found for course with id: " + courseId);
+            throw new ResourceNotFoundException("Lesson with id: " + lessonId + " not found for course with id: " + courseId);
+        }
+
+        return scopedOptional.get();
+    }
+
+    private Review findReviewInScope(Long courseId, Long lessonId, Long reviewId) {
+        Optional<Review> reviewOptional = reviewService.findInScope(courseId, lessonId, reviewId);
+        if (reviewOptional.isEmpty()) {
+            // resolve the path level by level only to tell which part of it is missing
+            findScopedReview(courseId, lessonId, reviewId);
+            logger.error("Review with id: " + reviewId + " not found for lesson with id: " + lessonId);
+            throw new ResourceNotFoundException("Review with id: " + reviewId + " not found for lesson with id: " + lessonId);
+        }
 
+        return reviewOptional.get();
+    }
 
-        if (!lessonService.existsById(lessonId)) {
-            logger.error("Lesson with id: " + lessonId + " not found");
-            throw new ResourceNotFoundException("Lesson with id: " + lessonId + " not found");
+    private ScopedReviewDTO findScopedReview(Long courseId, Long lessonId, Long reviewId) {
+        Optional<ScopedReviewDTO> scopedOptional = reviewService.findScoped(courseId, lessonId, reviewId);
+        if (scopedOptional.isEmpty()) {
+            logger.error("Course with id: " + courseId + " not found");
+            throw new ResourceNotFoundException("Course with id: " + courseId + " not found");
         }
 
-        Optional<Review> reviewOptional = reviewService.findById(reviewId);
-        if (!reviewOptional.isPresent()) {
-            logger.error("Review with id: " + reviewId + " not found");
-            throw new ResourceNotFoundException("Review with id: " + reviewId + " not found");
+        ScopedReviewDTO scoped = scopedOptional.get();
+        if (scoped.getLessonId() == null) {
+            logger.error("Lesson with id: " + lessonId + " not found for course with id: " + courseId);
+            throw new ResourceNotFoundException("Lesson with id: " + lessonId + " not found for course with id: " + courseId);
         }
 
-        // check if the user is the creator of the review
-        if (!reviewOptional.get().getOwnerId().equals(userId)) {
-            logger.info("Principal '{}' is not the creator of the review '{}'", userId, reviewId);
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
-        }   
+        if (scoped.getReviewId() == null) {
+            logger.error("Review with id: " + reviewId + " not found for lesson with id: " + lessonId);
+            throw new ResourceNotFoundException("Review with id: " + reviewId + " not found for lesson with id: " + lessonId);
+        }
 
-        reviewService.deleteById(reviewId);
-        return ResponseEntity.noContent().build();
+        return scoped;
     }
 }
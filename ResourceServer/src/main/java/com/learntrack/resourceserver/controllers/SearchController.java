@@ -0,0 +1,89 @@
+package com.learntrack.resourceserver.controllers;
+
+import com.learntrack.resourceserver.dto.SearchHitDTO;
+import com.learntrack.resourceserver.search.SearchIndex;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.headers.Header;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/search")
+@Tag(name = "Search", description = "Full-text search over courses, lessons and reviews")
+public class SearchController {
+    public static final String NEXT_OFFSET_HEADER = "X-Next-Offset";
+    static final int MAX_QUERY_LENGTH = 200;
+    static final int MAX_OFFSET = 1000;
+
+    private final SearchIndex searchIndex;
+
+    Logger logger = LoggerFactory.getLogger(SearchController.class);
+
+    public SearchController(SearchIndex searchIndex) {
+        this.searchIndex = searchIndex;
+    }
+
+    @Operation(summary = "Search courses, lessons and reviews")
+    // @formatter:off
+    @ApiResponses(value = {
+            @ApiResponse(
+                responseCode = "200",
+                description = "Hits ordered by rank, best first. When more hits are available, the offset of the next page is returned in the " + NEXT_OFFSET_HEADER + " header",
+                headers = @Header(name = NEXT_OFFSET_HEADER, description = "offset to pass for the next page, absent on the last page", schema = @Schema(type = "integer", format = "int32")),
+                content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    array = @ArraySchema(
+                        schema = @Schema(implementation = SearchHitDTO.class)
+                    )
+                )
+            ),
+            @ApiResponse(responseCode = "400", description = "Missing, blank or too long query, or an offset above " + MAX_OFFSET, content = @Content)
+    })
+    // @formatter:on
+    @GetMapping
+    public ResponseEntity<List<SearchHitDTO>> search(
+            // @formatter:off
+        @Parameter(description = "words to search for, all of which must match") @RequestParam String q,
+        @Parameter(description = "number of hits to skip (0-" + MAX_OFFSET + ")") @RequestParam(defaultValue = "0") int offset,
+        @Parameter(description = "maximum number of hits to return (1-" + CourseController.MAX_PAGE_SIZE + ")") @RequestParam(defaultValue = "" + CourseController.DEFAULT_PAGE_SIZE) int limit
+        // @formatter:on
+    ) {
+
+        if (q.isBlank() || q.length() > MAX_QUERY_LENGTH) {
+            logger.info("Rejected search query of length {}", q.length());
+            return ResponseEntity.badRequest().build();
+        }
+
+        // every hit before the page has to be ranked, so deep pages are refused rather than made expensive
+        if (offset > MAX_OFFSET) {
+            logger.info("Rejected search offset {}", offset);
+            return ResponseEntity.badRequest().build();
+        }
+
+        int pageSize = Math.max(1, Math.min(limit, CourseController.MAX_PAGE_SIZE));
+        int skip = Math.max(0, offset);
+
+        // fetch one extra hit to know whether there is a next page
+        List<SearchHitDTO> hits = searchIndex.search(q, skip, pageSize + 1);
+        if (hits.size() <= pageSize || skip + pageSize > MAX_OFFSET) {
+            return ResponseEntity.ok(hits.subList(0, Math.min(hits.size(), pageSize)));
+        }
+
+        return ResponseEntity.ok().header(NEXT_OFFSET_HEADER, String.valueOf(skip + pageSize)).body(hits.subList(0, pageSize));
+    }
+}
@@ -13,6 +13,7 @@ public class CourseConverter {
         courseResponseDTO.setId(course.getId());
         courseResponseDTO.setName(course.getName());
         courseResponseDTO.setDescription(course.getDescription());
+        courseResponseDTO.setVersion(course.getVersion());
         return courseResponseDTO;
     }
 
@@ -2,6 +2,7 @@ package com.learntrack.resourceserver.converters;
 
 import com.learntrack.resourceserver.dto.LessonRequestDTO;
 import com.learntrack.resourceserver.dto.LessonResponseDTO;
+import com.learntrack.resourceserver.dto.ScopedLessonDTO;
 import com.learntrack.resourceserver.models.Lesson;
 
 import java.util.ArrayList;
@@ -14,9 +15,14 @@ public class LessonConverter {
         lessonResponseDTO.setTitle(lesson.getTitle());
         lessonResponseDTO.setDescription(lesson.getDescription());
         lessonResponseDTO.setCourseId(lesson.getCourse().getId());
+        lessonResponseDTO.setVersion(lesson.getVersion());
         return lessonResponseDTO;
     }
 
+    public static LessonResponseDTO convertToLessonResponseDTO(ScopedLessonDTO lesson) {
+        return new LessonResponseDTO(lesson.getLessonId(), lesson.getTitle(), lesson.getDescription(), lesson.getCourseId(), lesson.getVersion());
+    }
+
     public static Lesson convertToEntity(LessonRequestDTO lessonRequestDTO) {
         Lesson lesson = new Lesson();
         lesson.setTitle(lessonRequestDTO.getTitle());
@@ -0,0 +1,36 @@
+package com.learntrack.resourceserver.converters;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes values as newline-delimited JSON, one object per line. Output is only flushed when the
+ * underlying stream's buffer fills up or the writer is closed, so rows can be written as they are
+ * read without holding the whole collection in memory.
+ */
+public class NdjsonWriter<T> implements Closeable {
+    private final ObjectWriter writer;
+    private final JsonGenerator generator;
+
+    public NdjsonWriter(ObjectMapper objectMapper, Class<T> type, OutputStream outputStream) throws IOException {
+        this.writer = objectMapper.writerFor(type).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.generator = objectMapper.getFactory().createGenerator(outputStream);
+        this.generator.setRootValueSeparator(null);
+    }
+
+    public void write(T value) throws IOException {
+        writer.writeValue(generator, value);
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+}
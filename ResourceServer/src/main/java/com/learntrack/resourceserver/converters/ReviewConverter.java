@@ -2,6 +2,7 @@ package com.learntrack.resourceserver.converters;
 
 import com.learntrack.resourceserver.dto.ReviewRequestDTO;
 import com.learntrack.resourceserver.dto.ReviewResponseDTO;
+import com.learntrack.resourceserver.dto.ScopedReviewDTO;
 import com.learntrack.resourceserver.models.Review;
 
 import java.util.ArrayList;
@@ -15,9 +16,14 @@ public class ReviewConverter {
         reviewResponseDTO.setContent(review.getContent());
         reviewResponseDTO.setLessonId(review.getLesson().getId());
         reviewResponseDTO.setCreatorId(review.getOwnerId());
+        reviewResponseDTO.setVersion(review.getVersion());
         return reviewResponseDTO;
     }
 
+    public static ReviewResponseDTO convertToReviewResponseDTO(ScopedReviewDTO review) {
+        return new ReviewResponseDTO(review.getReviewId(), review.getTitle(), review.getContent(), review.getLessonId(), review.getOwnerId(), review.getVersion());
+    }
+
     public static Review convertToEntity(ReviewRequestDTO reviewRequestDTO) {
         Review review = new Review();
         review.setTitle(reviewRequestDTO.getTitle());
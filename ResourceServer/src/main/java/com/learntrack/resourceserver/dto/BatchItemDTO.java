@@ -0,0 +1,13 @@
+package com.learntrack.resourceserver.dto;
+
+/**
+ * The part of a batch entry that does not depend on the entity: what to do, and for updates and deletes, which
+ * stored entity at which version.
+ */
+public interface BatchItemDTO {
+    BatchOperation getOp();
+
+    Long getId();
+
+    Long getVersion();
+}
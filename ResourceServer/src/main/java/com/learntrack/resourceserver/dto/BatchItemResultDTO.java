@@ -0,0 +1,69 @@
+package com.learntrack.resourceserver.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of one batch entry, in request order. {@code status} is the HTTP status the entry would have had as a
+ * single request; entries that were valid but not applied because another entry failed report
+ * {@code 424 Failed Dependency}.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchItemResultDTO {
+    private final int index;
+    private final BatchOperation op;
+    private final Long id;
+    private final Long version;
+    private final int status;
+    private final String error;
+
+    public BatchItemResultDTO(int index, BatchOperation op, Long id, Long version, int status, String error) {
+        this.index = index;
+        this.op = op;
+        this.id = id;
+        this.version = version;
+        this.status = status;
+        this.error = error;
+    }
+
+    public static BatchItemResultDTO applied(int index, BatchOperation op, Long id, Long version, int status) {
+        return new BatchItemResultDTO(index, op, id, version, status, null);
+    }
+
+    public static BatchItemResultDTO failed(int index, BatchOperation op, Long id, int status, String error) {
+        return new BatchItemResultDTO(index, op, id, null, status, error);
+    }
+
+    public static BatchItemResultDTO notApplied(int index, BatchOperation op, Long id) {
+        return new BatchItemResultDTO(index, op, id, null, 424, "Not applied because another entry failed");
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public BatchOperation getOp() {
+        return op;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    @JsonIgnore
+    public boolean isFailed() {
+        return error != null;
+    }
+}
@@ -0,0 +1,5 @@
+package com.learntrack.resourceserver.dto;
+
+public enum BatchOperation {
+    CREATE, UPDATE, DELETE
+}
@@ -0,0 +1,45 @@
+package com.learntrack.resourceserver.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.List;
+
+/**
+ * Everything a course detail page shows: the course, its lessons in creation order and their review counts.
+ */
+public class CourseDetailDTO {
+    private final Long id;
+    private final String name;
+    private final String description;
+    private final List<LessonSummaryDTO> lessons;
+    @JsonIgnore
+    private final Long version;
+
+    public CourseDetailDTO(Long id, String name, String description, Long version, List<LessonSummaryDTO> lessons) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.version = version;
+        this.lessons = lessons;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public List<LessonSummaryDTO> getLessons() {
+        return lessons;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+}
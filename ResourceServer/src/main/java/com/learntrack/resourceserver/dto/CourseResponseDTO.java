@@ -1,9 +1,13 @@
 package com.learntrack.resourceserver.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 public class CourseResponseDTO {
     private Long id;
     private String name;
     private String description;
+    @JsonIgnore
+    private Long version;
 
     public CourseResponseDTO() {
     }
@@ -14,6 +18,11 @@ public class CourseResponseDTO {
         this.description = description;
     }
 
+    public CourseResponseDTO(Long id, String name, String description, Long version) {
+        this(id, name, description);
+        this.version = version;
+    }
+
     public Long getId() {
         return id;
     }
@@ -37,4 +46,12 @@ public class CourseResponseDTO {
     public void setDescription(String description) {
         this.description = description;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,64 @@
+package com.learntrack.resourceserver.dto;
+
+/**
+ * One entry of a lesson batch. {@code id} is required for updates and deletes; {@code version}, when given,
+ * must match the stored version. Title and description are required when creating and optional when updating.
+ */
+public class LessonBatchItemDTO implements BatchItemDTO {
+    private BatchOperation op;
+    private Long id;
+    private Long version;
+    private String title;
+    private String description;
+
+    public LessonBatchItemDTO() {
+    }
+
+    public LessonBatchItemDTO(BatchOperation op, Long id, Long version, String title, String description) {
+        this.op = op;
+        this.id = id;
+        this.version = version;
+        this.title = title;
+        this.description = description;
+    }
+
+    public BatchOperation getOp() {
+        return op;
+    }
+
+    public void setOp(BatchOperation op) {
+        this.op = op;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+}
@@ -0,0 +1,51 @@
+package com.learntrack.resourceserver.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.List;
+
+/**
+ * Everything a lesson detail page shows: the lesson and all of its reviews.
+ */
+public class LessonDetailDTO {
+    private final Long id;
+    private final String title;
+    private final String description;
+    private final Long courseId;
+    private final List<ReviewResponseDTO> reviews;
+    @JsonIgnore
+    private final Long version;
+
+    public LessonDetailDTO(ScopedLessonDTO lesson, List<ReviewResponseDTO> reviews) {
+        this.id = lesson.getLessonId();
+        this.title = lesson.getTitle();
+        this.description = lesson.getDescription();
+        this.courseId = lesson.getCourseId();
+        this.version = lesson.getVersion();
+        this.reviews = reviews;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public Long getCourseId() {
+        return courseId;
+    }
+
+    public List<ReviewResponseDTO> getReviews() {
+        return reviews;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+}
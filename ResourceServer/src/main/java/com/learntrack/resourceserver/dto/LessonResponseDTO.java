@@ -1,10 +1,14 @@
 package com.learntrack.resourceserver.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 public class LessonResponseDTO {
     private Long id;
     private String title;
     private String description;
     private Long courseId;
+    @JsonIgnore
+    private Long version;
 
     public LessonResponseDTO() {
     }
@@ -16,6 +20,11 @@ public class LessonResponseDTO {
         this.courseId = courseId;
     }
 
+    public LessonResponseDTO(Long id, String title, String description, Long courseId, Long version) {
+        this(id, title, description, courseId);
+        this.version = version;
+    }
+
     public Long getId() {
         return id;
     }
@@ -47,4 +56,12 @@ public class LessonResponseDTO {
     public void setCourseId(Long courseId) {
         this.courseId = courseId;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,43 @@
+package com.learntrack.resourceserver.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * A lesson as listed on its course detail page, together with the number of reviews it has.
+ */
+public class LessonSummaryDTO {
+    private final Long id;
+    private final String title;
+    private final String description;
+    private final long reviewCount;
+    @JsonIgnore
+    private final Long version;
+
+    public LessonSummaryDTO(Long id, String title, String description, long reviewCount, Long version) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.reviewCount = reviewCount;
+        this.version = version;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public long getReviewCount() {
+        return reviewCount;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+}
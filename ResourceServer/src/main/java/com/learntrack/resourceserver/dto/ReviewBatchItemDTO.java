@@ -0,0 +1,64 @@
+package com.learntrack.resourceserver.dto;
+
+/**
+ * One entry of a review batch. {@code id} is required for updates and deletes; {@code version}, when given,
+ * must match the stored version. Title and content are required when creating and optional when updating.
+ */
+public class ReviewBatchItemDTO implements BatchItemDTO {
+    private BatchOperation op;
+    private Long id;
+    private Long version;
+    private String title;
+    private String content;
+
+    public ReviewBatchItemDTO() {
+    }
+
+    public ReviewBatchItemDTO(BatchOperation op, Long id, Long version, String title, String content) {
+        this.op = op;
+        this.id = id;
+        this.version = version;
+        this.title = title;
+        this.content = content;
+    }
+
+    public BatchOperation getOp() {
+        return op;
+    }
+
+    public void setOp(BatchOperation op) {
+        this.op = op;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+}
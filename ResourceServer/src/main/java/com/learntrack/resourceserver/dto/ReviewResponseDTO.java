@@ -1,11 +1,15 @@
 package com.learntrack.resourceserver.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 public class ReviewResponseDTO {
     private Long id;
     private String title;
     private String content;
     private Long lessonId;
     private Long creatorId;
+    @JsonIgnore
+    private Long version;
 
     public ReviewResponseDTO() {
     }
@@ -18,6 +22,11 @@ public class ReviewResponseDTO {
         this.creatorId = creatorId;
     }
 
+    public ReviewResponseDTO(Long id, String title, String content, Long lessonId, Long creatorId, Long version) {
+        this(id, title, content, lessonId, creatorId);
+        this.version = version;
+    }
+
     public Long getId() {
         return id;
     }
@@ -57,4 +66,12 @@ public class ReviewResponseDTO {
     public void setCreatorId(Long creatorId) {
         this.creatorId = creatorId;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
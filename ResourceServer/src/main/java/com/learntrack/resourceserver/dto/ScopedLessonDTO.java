@@ -0,0 +1,47 @@
+package com.learntrack.resourceserver.dto;
+
+/**
+ * Result of looking up a lesson within a course in a single statement. The course columns are always
+ * present; the lesson columns are null when the lesson does not exist or belongs to another course.
+ */
+public class ScopedLessonDTO {
+    private final Long courseId;
+    private final Long courseOwnerId;
+    private final Long lessonId;
+    private final String title;
+    private final String description;
+    private final Long version;
+
+    public ScopedLessonDTO(Long courseId, Long courseOwnerId, Long lessonId, String title, String description, Long version) {
+        this.courseId = courseId;
+        this.courseOwnerId = courseOwnerId;
+        this.lessonId = lessonId;
+        this.title = title;
+        this.description = description;
+        this.version = version;
+    }
+
+    public Long getCourseId() {
+        return courseId;
+    }
+
+    public Long getCourseOwnerId() {
+        return courseOwnerId;
+    }
+
+    public Long getLessonId() {
+        return lessonId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+}
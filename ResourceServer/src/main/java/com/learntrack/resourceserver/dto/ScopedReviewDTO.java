@@ -0,0 +1,53 @@
+package com.learntrack.resourceserver.dto;
+
+/**
+ * Result of looking up a review within a lesson and course in a single statement. The course id is
+ * always present; the lesson and review columns are null when that level of the path does not match.
+ */
+public class ScopedReviewDTO {
+    private final Long courseId;
+    private final Long lessonId;
+    private final Long reviewId;
+    private final String title;
+    private final String content;
+    private final Long ownerId;
+    private final Long version;
+
+    public ScopedReviewDTO(Long courseId, Long lessonId, Long reviewId, String title, String content, Long ownerId, Long version) {
+        this.courseId = courseId;
+        this.lessonId = lessonId;
+        this.reviewId = reviewId;
+        this.title = title;
+        this.content = content;
+        this.ownerId = ownerId;
+        this.version = version;
+    }
+
+    public Long getCourseId() {
+        return courseId;
+    }
+
+    public Long getLessonId() {
+        return lessonId;
+    }
+
+    public Long getReviewId() {
+        return reviewId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public Long getOwnerId() {
+        return ownerId;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,50 @@
+package com.learntrack.resourceserver.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * A course, lesson or review matching a search. {@code courseId} and {@code lessonId} locate the hit in the API
+ * ({@code lessonId} is absent for courses), {@code title} is the course name or the lesson/review title.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SearchHitDTO {
+    private final String type;
+    private final Long id;
+    private final Long courseId;
+    private final Long lessonId;
+    private final String title;
+    private final double rank;
+
+    public SearchHitDTO(String type, Long id, Long courseId, Long lessonId, String title, double rank) {
+        this.type = type;
+        this.id = id;
+        this.courseId = courseId;
+        this.lessonId = lessonId;
+        this.title = title;
+        this.rank = rank;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getCourseId() {
+        return courseId;
+    }
+
+    public Long getLessonId() {
+        return lessonId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public double getRank() {
+        return rank;
+    }
+}
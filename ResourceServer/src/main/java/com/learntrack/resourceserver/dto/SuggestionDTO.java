@@ -0,0 +1,46 @@
+package com.learntrack.resourceserver.dto;
+
+/**
+ * A course or lesson whose name or title matches a typed prefix. {@code courseId} is the course itself for
+ * courses and the owning course for lessons. {@code popularity} is the number of lessons of a course or of
+ * reviews of a lesson at the time it was indexed.
+ */
+public class SuggestionDTO {
+    private final String type;
+    private final long id;
+    private final long courseId;
+    private final String text;
+    private final long popularity;
+
+    public SuggestionDTO(String type, long id, long courseId, String text, long popularity) {
+        this.type = type;
+        this.id = id;
+        this.courseId = courseId;
+        this.text = text;
+        this.popularity = popularity;
+    }
+
+    public SuggestionDTO withPopularity(long popularity) {
+        return new SuggestionDTO(type, id, courseId, text, popularity);
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public long getCourseId() {
+        return courseId;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public long getPopularity() {
+        return popularity;
+    }
+}
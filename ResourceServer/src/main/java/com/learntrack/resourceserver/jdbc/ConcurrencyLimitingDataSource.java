@@ -0,0 +1,115 @@
+package com.learntrack.resourceserver.jdbc;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Hands out at most as many connections as the pool holds and makes everyone else wait, in arrival order, on a
+ * fair semaphore. On virtual threads that wait only parks the thread, so a burst queues here cheaply instead of
+ * churning through the pool's own hand-off and failing after its {@code connectionTimeout}. Requests served from
+ * the caches never open a connection and are not limited.
+ * <p>
+ * The permit is returned when the connection is closed, i.e. handed back to the pool.
+ */
+public class ConcurrencyLimitingDataSource extends DelegatingDataSource {
+    public static final String METER_PREFIX = "datasource.limiter";
+
+    private final Semaphore permits;
+    private final int maxConnections;
+    private final Duration acquireTimeout;
+    private final Timer waitTimer;
+
+    public ConcurrencyLimitingDataSource(DataSource delegate, int maxConnections, Duration acquireTimeout, MeterRegistry meterRegistry) {
+        super(delegate);
+        this.permits = new Semaphore(maxConnections, true);
+        this.maxConnections = maxConnections;
+        this.acquireTimeout = acquireTimeout;
+        this.waitTimer = Timer.builder(METER_PREFIX + ".wait").description("Time spent waiting for a connection permit").register(meterRegistry);
+        Gauge.builder(METER_PREFIX + ".waiting", permits, Semaphore::getQueueLength).description("Threads waiting for a connection permit").register(meterRegistry);
+        Gauge.builder(METER_PREFIX + ".available", permits, Semaphore::availablePermits).description("Connection permits available").register(meterRegistry);
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        return limited(this::obtainConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        return limited(() -> obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private Connection obtainConnection() throws SQLException {
+        return obtainTargetDataSource().getConnection();
+    }
+
+    private void acquire() throws SQLException {
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(acquireTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new SQLTransientConnectionException("No connection permit available within " + acquireTimeout + " (" + permits.getQueueLength() + " waiting)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a connection permit", e);
+        } finally {
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Connection limited(ConnectionSupplier supplier) throws SQLException {
+        Connection connection;
+        try {
+            connection = supplier.get();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+            if (method.getName().equals("close") && method.getParameterCount() == 0) {
+                try {
+                    connection.close();
+                } finally {
+                    if (released.compareAndSet(false, true)) {
+                        permits.release();
+                    }
+                }
+                return null;
+            }
+            if (method.getName().equals("unwrap") && args[0] == Connection.class) {
+                return proxy;
+            }
+            try {
+                return method.invoke(connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSupplier {
+        Connection get() throws SQLException;
+    }
+}
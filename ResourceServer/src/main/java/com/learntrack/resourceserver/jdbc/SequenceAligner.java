@@ -0,0 +1,53 @@
+package com.learntrack.resourceserver.jdbc;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lessons and reviews used to get their ids from IDENTITY columns. On a database that already has rows, the
+ * sequences {@code ddl-auto=update} creates for them start at 1, so they are moved past the highest existing id
+ * before the first insert. Only PostgreSQL is handled; the in-memory databases are created empty.
+ */
+@Component
+public class SequenceAligner {
+    private static final Map<String, String> SEQUENCES = Map.of("lesson_seq", "lesson", "review_seq", "review");
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    // the EntityManagerFactory is only injected so the schema update has created the sequences before this runs
+    public SequenceAligner(DataSource dataSource, EntityManagerFactory entityManagerFactory) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @PostConstruct
+    public void align() throws MetaDataAccessException {
+        String product = JdbcUtils.extractDatabaseMetaData(dataSource, metaData -> metaData.getDatabaseProductName());
+        if (!"PostgreSQL".equals(product)) {
+            return;
+        }
+
+        SEQUENCES.forEach((sequence, table) -> {
+            // @formatter:off
+            List<Long> moved = jdbcTemplate.queryForList(
+                    "SELECT setval('" + sequence + "', m.id) FROM (SELECT MAX(id) AS id FROM " + table + ") m " +
+                    "WHERE m.id >= (SELECT last_value FROM " + sequence + ")", Long.class);
+            // @formatter:on
+            if (!moved.isEmpty()) {
+                logger.info("Moved sequence '{}' past the existing ids of '{}' to {}", sequence, table, moved.get(0));
+            }
+        });
+    }
+}
@@ -1,17 +1,25 @@
 package com.learntrack.resourceserver.models;
 
+import com.learntrack.resourceserver.cache.CacheInvalidationListener;
+import com.learntrack.resourceserver.cache.EntityCountListener;
 import com.learntrack.resourceserver.dto.CourseRequestDTO;
+import com.learntrack.resourceserver.search.SearchIndexListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 
 import java.util.List;
 
 @Entity
+@EntityListeners({CacheInvalidationListener.class, EntityCountListener.class, SearchIndexListener.class})
 public class Course {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     @Column(name = "owner_id", nullable = false)
     private Long ownerId;
 
@@ -45,6 +53,10 @@ public class Course {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public Long getOwnerId() {
         return ownerId;
     }
@@ -1,17 +1,27 @@
 package com.learntrack.resourceserver.models;
 
+import com.learntrack.resourceserver.cache.CacheInvalidationListener;
+import com.learntrack.resourceserver.cache.EntityCountListener;
 import com.learntrack.resourceserver.dto.LessonRequestDTO;
+import com.learntrack.resourceserver.search.SearchIndexListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 
 import java.util.List;
 
 @Entity
+@EntityListeners({CacheInvalidationListener.class, EntityCountListener.class, SearchIndexListener.class})
 public class Lesson {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // a pooled sequence instead of IDENTITY so Hibernate can batch inserts (see hibernate.jdbc.batch_size)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "lesson_seq")
+    @SequenceGenerator(name = "lesson_seq", sequenceName = "lesson_seq", allocationSize = 50)
     private Long id;
 
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     @Column(name = "owner_id", nullable = false)
     private Long ownerId;
 
@@ -20,7 +30,7 @@ public class Lesson {
     @NotBlank
     private String description;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "course_id", nullable = false)
     private Course course;
 
@@ -64,6 +74,10 @@ public class Lesson {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public Long getOwnerId() {
         return ownerId;
     }
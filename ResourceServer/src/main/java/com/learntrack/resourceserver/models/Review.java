@@ -1,15 +1,24 @@
 package com.learntrack.resourceserver.models;
 
+import com.learntrack.resourceserver.cache.CacheInvalidationListener;
+import com.learntrack.resourceserver.cache.EntityCountListener;
 import com.learntrack.resourceserver.dto.ReviewRequestDTO;
+import com.learntrack.resourceserver.search.SearchIndexListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 
 @Entity
+@EntityListeners({CacheInvalidationListener.class, EntityCountListener.class, SearchIndexListener.class})
 public class Review {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "review_seq")
+    @SequenceGenerator(name = "review_seq", sequenceName = "review_seq", allocationSize = 50)
     private Long id;
 
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     @Column(name = "owner_id", nullable = false)
     private Long ownerId;
 
@@ -18,7 +27,7 @@ public class Review {
     @NotBlank
     private String content;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "lesson_id", nullable = false)
     private Lesson lesson;
 
@@ -59,6 +68,10 @@ public class Review {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public Long getOwnerId() {
         return ownerId;
     }
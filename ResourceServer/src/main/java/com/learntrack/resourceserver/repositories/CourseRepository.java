@@ -1,10 +1,37 @@
 package com.learntrack.resourceserver.repositories;
 
 import com.learntrack.resourceserver.models.Course;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
-public interface CourseRepository extends CrudRepository<Course, Long> {
+public interface CourseRepository extends CrudRepository<Course, Long>, PagingAndSortingRepository<Course, Long> {
     Optional<Course> findByIdAndOwnerId(Long id, Long ownerId);
+
+    List<Course> findByIdGreaterThanOrderByIdAsc(Long after, Limit limit);
+
+    @Query("SELECT c.id, c.name FROM Course c")
+    List<Object[]> findAllNames();
+
+    /**
+     * One row per lesson of the course, or a single row with null lesson columns when it has none. Every row
+     * repeats the course columns; no row at all means the course does not exist.
+     */
+    // @formatter:off
+    @Query("""
+            SELECT c.id, c.name, c.description, c.version,
+                   l.id, l.title, l.description, l.version,
+                   (SELECT COUNT(r) FROM Review r WHERE r.lesson.id = l.id)
+            FROM Course c
+            LEFT JOIN Lesson l ON l.course.id = c.id
+            WHERE c.id = :courseId
+            ORDER BY l.id
+            """)
+    // @formatter:on
+    List<Object[]> findDetailRows(@Param("courseId") Long courseId);
 }
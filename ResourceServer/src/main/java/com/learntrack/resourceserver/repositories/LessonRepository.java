@@ -1,8 +1,54 @@
 package com.learntrack.resourceserver.repositories;
 
+import com.learntrack.resourceserver.dto.LessonResponseDTO;
+import com.learntrack.resourceserver.dto.ScopedLessonDTO;
 import com.learntrack.resourceserver.models.Lesson;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface LessonRepository extends CrudRepository<Lesson, Long> {
+    int STREAM_FETCH_SIZE = 500;
+
     Iterable<Lesson> findAllByCourseId(Long courseId);
+
+    List<Lesson> findAllByCourseIdAndIdIn(Long courseId, Collection<Long> ids);
+
+    @Query("SELECT new com.learntrack.resourceserver.dto.LessonResponseDTO(l.id, l.title, l.description, l.course.id, l.version) FROM Lesson l WHERE l.course.id = :courseId")
+    List<LessonResponseDTO> findAllProjectedByCourseId(@Param("courseId") Long courseId);
+
+    // @formatter:off
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    // @formatter:on
+    Stream<Lesson> streamAllByCourseId(Long courseId);
+
+    // @formatter:off
+    @Query("""
+            SELECT new com.learntrack.resourceserver.dto.ScopedLessonDTO(c.id, c.ownerId, l.id, l.title, l.description, l.version)
+            FROM Course c
+            LEFT JOIN Lesson l ON l.id = :lessonId AND l.course.id = c.id
+            WHERE c.id = :courseId
+            """)
+    // @formatter:on
+    Optional<ScopedLessonDTO> findScoped(@Param("courseId") Long courseId, @Param("lessonId") Long lessonId);
+
+    @Query("SELECT l FROM Lesson l JOIN FETCH l.course c WHERE l.id = :lessonId AND c.id = :courseId")
+    Optional<Lesson> findInScope(@Param("courseId") Long courseId, @Param("lessonId") Long lessonId);
+
+    @Query("SELECT l.id, l.course.id, l.title FROM Lesson l")
+    List<Object[]> findAllTitles();
+
+    @Query("SELECT l.course.id, COUNT(l) FROM Lesson l GROUP BY l.course.id")
+    List<Object[]> countGroupedByCourseId();
 }
@@ -1,8 +1,68 @@
 package com.learntrack.resourceserver.repositories;
 
+import com.learntrack.resourceserver.cache.CacheNames;
+import com.learntrack.resourceserver.dto.ReviewResponseDTO;
+import com.learntrack.resourceserver.dto.ScopedReviewDTO;
 import com.learntrack.resourceserver.models.Review;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ReviewRepository extends CrudRepository<Review, Long> {
+    int STREAM_FETCH_SIZE = 500;
+
     Iterable<Review> findAllByLessonId(Long lessonId);
+
+    List<Review> findAllByLessonIdAndIdIn(Long lessonId, Collection<Long> ids);
+
+    @Query("SELECT new com.learntrack.resourceserver.dto.ReviewResponseDTO(r.id, r.title, r.content, r.lesson.id, r.ownerId, r.version) FROM Review r WHERE r.lesson.id = :lessonId")
+    List<ReviewResponseDTO> findAllProjectedByLessonId(@Param("lessonId") Long lessonId);
+
+    // @formatter:off
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    // @formatter:on
+    Stream<Review> streamAllByLessonId(Long lessonId);
+
+    // @formatter:off
+    @Query("""
+            SELECT new com.learntrack.resourceserver.dto.ScopedReviewDTO(c.id, l.id, r.id, r.title, r.content, r.ownerId, r.version)
+            FROM Course c
+            LEFT JOIN Lesson l ON l.id = :lessonId AND l.course.id = c.id
+            LEFT JOIN Review r ON r.id = :reviewId AND r.lesson.id = l.id
+            WHERE c.id = :courseId
+            """)
+    // @formatter:on
+    Optional<ScopedReviewDTO> findScoped(@Param("courseId") Long courseId, @Param("lessonId") Long lessonId, @Param("reviewId") Long reviewId);
+
+    @Query("SELECT r FROM Review r JOIN r.lesson l WHERE r.id = :reviewId AND l.id = :lessonId AND l.course.id = :courseId")
+    Optional<Review> findInScope(@Param("courseId") Long courseId, @Param("lessonId") Long lessonId, @Param("reviewId") Long reviewId);
+
+    /**
+     * Cached by review id alone, so a review change can be evicted without knowing the course of its lesson.
+     */
+    // @formatter:off
+    @Cacheable(cacheNames = CacheNames.REVIEWS, unless = "#result == null")
+    @Query("""
+            SELECT new com.learntrack.resourceserver.dto.ScopedReviewDTO(l.course.id, l.id, r.id, r.title, r.content, r.ownerId, r.version)
+            FROM Review r
+            JOIN r.lesson l
+            WHERE r.id = :reviewId
+            """)
+    // @formatter:on
+    Optional<ScopedReviewDTO> findScopedById(@Param("reviewId") Long reviewId);
+
+    @Query("SELECT r.lesson.id, COUNT(r) FROM Review r GROUP BY r.lesson.id")
+    List<Object[]> countGroupedByLessonId();
 }
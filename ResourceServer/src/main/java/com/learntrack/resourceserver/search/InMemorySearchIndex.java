@@ -0,0 +1,182 @@
+package com.learntrack.resourceserver.search;
+
+import com.learntrack.resourceserver.dto.SearchHitDTO;
+import com.learntrack.resourceserver.models.Course;
+import com.learntrack.resourceserver.models.Lesson;
+import com.learntrack.resourceserver.models.Review;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import static com.learntrack.resourceserver.transaction.TransactionCallbacks.afterCommit;
+
+/**
+ * Inverted index for databases without full-text search (the H2 test and load-test runs). Words are lower-cased
+ * but not stemmed. Ranking follows the PostgreSQL index: a word in a title counts 1.0, in a description or
+ * content 0.4, scaled by how rare the word is. Changes are applied when their transaction commits.
+ */
+public class InMemorySearchIndex implements SearchIndex {
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final double TITLE_WEIGHT = 1.0;
+    private static final double BODY_WEIGHT = 0.4;
+    // @formatter:off
+    private static final Comparator<SearchHitDTO> BY_RANK = Comparator.comparingDouble(SearchHitDTO::getRank).reversed()
+            .thenComparing(SearchHitDTO::getType)
+            .thenComparing(SearchHitDTO::getId);
+    // @formatter:on
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<Key, Document> documents = new ConcurrentHashMap<>();
+    private final Map<String, Set<Key>> postings = new ConcurrentHashMap<>();
+
+    public InMemorySearchIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void initialize() {
+        // @formatter:off
+        jdbcTemplate.query("SELECT id, name, description FROM course", rs -> {
+            put(document(COURSE, rs.getLong("id"), rs.getLong("id"), null, rs.getString("name"), rs.getString("description")));
+        });
+        jdbcTemplate.query("SELECT id, course_id, title, description FROM lesson", rs -> {
+            put(document(LESSON, rs.getLong("id"), rs.getLong("course_id"), rs.getLong("id"), rs.getString("title"), rs.getString("description")));
+        });
+        jdbcTemplate.query("SELECT r.id, l.course_id, r.lesson_id, r.title, r.content FROM review r JOIN lesson l ON l.id = r.lesson_id", rs -> {
+            put(document(REVIEW, rs.getLong("id"), rs.getLong("course_id"), rs.getLong("lesson_id"), rs.getString("title"), rs.getString("content")));
+        });
+        // @formatter:on
+    }
+
+    @Override
+    public List<SearchHitDTO> search(String query, int offset, int limit) {
+        Set<String> words = words(query);
+        if (words.isEmpty()) {
+            return List.of();
+        }
+
+        // walk the shortest posting list and check the other words against each candidate's own weights
+        Set<Key> candidates = null;
+        Map<String, Double> idf = new HashMap<>();
+        int documentCount = Math.max(1, documents.size());
+        for (String word : words) {
+            Set<Key> keys = postings.getOrDefault(word, Set.of());
+            if (keys.isEmpty()) {
+                return List.of();
+            }
+            idf.put(word, Math.log(1 + (double) documentCount / keys.size()));
+            if (candidates == null || keys.size() < candidates.size()) {
+                candidates = keys;
+            }
+        }
+
+        // keep only the best (offset + limit) hits, worst on top of the heap
+        int top = offset + limit;
+        PriorityQueue<SearchHitDTO> best = new PriorityQueue<>(BY_RANK.reversed());
+        for (Key key : candidates) {
+            Document document = documents.get(key);
+            if (document == null) {
+                continue;
+            }
+
+            double rank = 0;
+            for (String word : words) {
+                Double weight = document.weights().get(word);
+                if (weight == null) {
+                    rank = -1;
+                    break;
+                }
+                rank += weight * idf.get(word);
+            }
+            if (rank >= 0) {
+                best.add(new SearchHitDTO(key.type(), key.id(), document.courseId(), document.lessonId(), document.title(), rank));
+                if (best.size() > top) {
+                    best.poll();
+                }
+            }
+        }
+
+        List<SearchHitDTO> hits = new ArrayList<>(best);
+        hits.sort(BY_RANK);
+        return offset >= hits.size() ? List.of() : List.copyOf(hits.subList(offset, Math.min(hits.size(), offset + limit)));
+    }
+
+    @Override
+    public void afterWrite(Object entity) {
+        Document document = document(entity);
+        if (document != null) {
+            afterCommit(() -> put(document));
+        }
+    }
+
+    @Override
+    public void afterRemove(Object entity) {
+        Document document = document(entity);
+        if (document != null) {
+            afterCommit(() -> remove(document.key()));
+        }
+    }
+
+    private synchronized void put(Document document) {
+        remove(document.key());
+        documents.put(document.key(), document);
+        document.weights().keySet().forEach(word -> postings.computeIfAbsent(word, w -> ConcurrentHashMap.newKeySet()).add(document.key()));
+    }
+
+    private synchronized void remove(Key key) {
+        Document previous = documents.remove(key);
+        if (previous != null) {
+            previous.weights().keySet().forEach(word -> postings.computeIfPresent(word, (w, keys) -> {
+                keys.remove(key);
+                return keys.isEmpty() ? null : keys;
+            }));
+        }
+    }
+
+    private static Document document(Object entity) {
+        if (entity instanceof Course course) {
+            return document(COURSE, course.getId(), course.getId(), null, course.getName(), course.getDescription());
+        } else if (entity instanceof Lesson lesson) {
+            return document(LESSON, lesson.getId(), lesson.getCourse().getId(), lesson.getId(), lesson.getTitle(), lesson.getDescription());
+        } else if (entity instanceof Review review) {
+            Lesson lesson = review.getLesson();
+            return document(REVIEW, review.getId(), lesson.getCourse().getId(), lesson.getId(), review.getTitle(), review.getContent());
+        }
+        return null;
+    }
+
+    private static Document document(String type, long id, long courseId, Long lessonId, String title, String body) {
+        Map<String, Double> weights = new HashMap<>();
+        words(title).forEach(word -> weights.merge(word, TITLE_WEIGHT, Double::sum));
+        words(body).forEach(word -> weights.merge(word, BODY_WEIGHT, Double::sum));
+        return new Document(new Key(type, id), courseId, type.equals(COURSE) ? null : lessonId, title, weights);
+    }
+
+    static Set<String> words(String text) {
+        Set<String> words = new LinkedHashSet<>();
+        if (text != null) {
+            for (String word : WORD_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+                if (!word.isEmpty()) {
+                    words.add(word);
+                }
+            }
+        }
+        return words;
+    }
+
+    private record Key(String type, long id) {
+    }
+
+    private record Document(Key key, long courseId, Long lessonId, String title, Map<String, Double> weights) {
+    }
+}
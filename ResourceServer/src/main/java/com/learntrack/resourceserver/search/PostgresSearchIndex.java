@@ -0,0 +1,83 @@
+package com.learntrack.resourceserver.search;
+
+import com.learntrack.resourceserver.dto.SearchHitDTO;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+/**
+ * Searches {@code tsvector} columns that PostgreSQL generates from the text columns on every insert and update,
+ * through GIN indexes, so a query only reads the matching rows, and at most {@link #MAX_CANDIDATES_PER_TABLE}
+ * of them per table. Titles are weighted above descriptions and
+ * contents. The columns and indexes are created by {@link #initialize()} if missing, since Hibernate does
+ * not know about them.
+ */
+public class PostgresSearchIndex implements SearchIndex {
+    public static final String TEXT_SEARCH_CONFIG = "english";
+
+    /**
+     * Rows of one table that are ranked per query. Rows beyond it, for very common words, are not considered,
+     * which keeps the cost of a query bounded whatever the table size.
+     */
+    static final int MAX_CANDIDATES_PER_TABLE = 5000;
+
+    // @formatter:off
+    // each table contributes its best (offset + limit) hits out of at most MAX_CANDIDATES_PER_TABLE index matches,
+    // so the global sort only sees a few rows per table
+    private static final String SEARCH_SQL = """
+            WITH q AS (SELECT websearch_to_tsquery('%1$s', ?) AS query)
+            SELECT * FROM (
+                (SELECT 'course' AS type, c.id, c.id AS course_id, CAST(NULL AS bigint) AS lesson_id, c.name AS title, ts_rank(c.search_vector, q.query) AS rank
+                FROM (SELECT id, name, search_vector FROM course WHERE search_vector @@ (SELECT query FROM q) LIMIT ?) c, q
+                ORDER BY rank DESC, id LIMIT ?)
+                UNION ALL
+                (SELECT 'lesson' AS type, l.id, l.course_id, l.id AS lesson_id, l.title, ts_rank(l.search_vector, q.query) AS rank
+                FROM (SELECT id, course_id, title, search_vector FROM lesson WHERE search_vector @@ (SELECT query FROM q) LIMIT ?) l, q
+                ORDER BY rank DESC, id LIMIT ?)
+                UNION ALL
+                (SELECT 'review' AS type, r.id, l.course_id, r.lesson_id, r.title, ts_rank(r.search_vector, q.query) AS rank
+                FROM (SELECT id, lesson_id, title, search_vector FROM review WHERE search_vector @@ (SELECT query FROM q) LIMIT ?) r JOIN lesson l ON l.id = r.lesson_id, q
+                ORDER BY rank DESC, id LIMIT ?)
+            ) hits
+            ORDER BY rank DESC, type, id
+            LIMIT ? OFFSET ?
+            """.formatted(TEXT_SEARCH_CONFIG);
+    // @formatter:on
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PostgresSearchIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void initialize() {
+        createSearchVector("course", "name", "description");
+        createSearchVector("lesson", "title", "description");
+        createSearchVector("review", "title", "content");
+    }
+
+    private void createSearchVector(String table, String titleColumn, String bodyColumn) {
+        // @formatter:off
+        jdbcTemplate.execute(("ALTER TABLE %1$s ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (" +
+                "setweight(to_tsvector('%4$s', coalesce(%2$s, '')), 'A') || " +
+                "setweight(to_tsvector('%4$s', coalesce(%3$s, '')), 'B')) STORED").formatted(table, titleColumn, bodyColumn, TEXT_SEARCH_CONFIG));
+        // @formatter:on
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS %1$s_search_vector_idx ON %1$s USING GIN (search_vector)".formatted(table));
+    }
+
+    @Override
+    public List<SearchHitDTO> search(String query, int offset, int limit) {
+        int top = offset + limit;
+        // @formatter:off
+        return jdbcTemplate.query(SEARCH_SQL, (rs, rowNum) -> new SearchHitDTO(
+                rs.getString("type"),
+                rs.getLong("id"),
+                rs.getLong("course_id"),
+                rs.getObject("lesson_id", Long.class),
+                rs.getString("title"),
+                rs.getDouble("rank")),
+                query, MAX_CANDIDATES_PER_TABLE, top, MAX_CANDIDATES_PER_TABLE, top, MAX_CANDIDATES_PER_TABLE, top, limit, offset);
+        // @formatter:on
+    }
+}
@@ -0,0 +1,289 @@
+package com.learntrack.resourceserver.search;
+
+import com.learntrack.resourceserver.dto.SuggestionDTO;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Prefix index over course names and lesson titles. Every node keeps the {@link #MAX_SUGGESTIONS} most popular
+ * entries below it, so a lookup is a walk down the prefix and returns a ready-made array without ranking
+ * anything. Entries are found by the start of any of their first {@link #MAX_WORDS} words ("java" finds
+ * "Intro to Java").
+ * <p>
+ * Reads take no lock: each node publishes its children as an immutable array sorted by character, and its
+ * suggestions as an immutable array. Writes are serialized, replace the child arrays they change (copy on write)
+ * and recompute the suggestions along the changed paths, bottom up. A node is a handful of fields and two small
+ * arrays, instead of a hash map and a hash set per character.
+ */
+public class PrefixTrie {
+    public static final int MAX_SUGGESTIONS = 10;
+    static final int MAX_WORDS = 8;
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final SuggestionDTO[] EMPTY = new SuggestionDTO[0];
+    // @formatter:off
+    private static final Comparator<SuggestionDTO> BY_POPULARITY = Comparator.comparingLong(SuggestionDTO::getPopularity).reversed()
+            .thenComparing(SuggestionDTO::getText, String.CASE_INSENSITIVE_ORDER)
+            .thenComparing(SuggestionDTO::getType)
+            .thenComparingLong(SuggestionDTO::getId);
+    // @formatter:on
+
+    private final Node root = new Node('\0');
+    private final Map<Key, SuggestionDTO> entries = new HashMap<>();
+
+    /**
+     * Builds a trie from all entries at once, computing every node's suggestions in a single pass instead of once
+     * per inserted key.
+     */
+    public static PrefixTrie of(Iterable<SuggestionDTO> entries) {
+        PrefixTrie trie = new PrefixTrie();
+        for (SuggestionDTO entry : entries) {
+            trie.entries.put(new Key(entry.getType(), entry.getId()), entry);
+            for (String key : keys(entry.getText())) {
+                List<Node> path = trie.path(key, true);
+                path.get(path.size() - 1).addTerminal(entry);
+            }
+        }
+        recomputeAll(trie.root);
+        return trie;
+    }
+
+    public List<SuggestionDTO> suggest(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+
+        Node node = root;
+        for (int i = 0; i < normalized.length() && node != null; i++) {
+            node = node.child(normalized.charAt(i));
+        }
+        if (node == null) {
+            return List.of();
+        }
+
+        SuggestionDTO[] top = node.top;
+        return Arrays.asList(top).subList(0, Math.min(top.length, Math.max(0, limit)));
+    }
+
+    public synchronized SuggestionDTO get(String type, long id) {
+        return entries.get(new Key(type, id));
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized void put(SuggestionDTO entry) {
+        remove(entry.getType(), entry.getId());
+        entries.put(new Key(entry.getType(), entry.getId()), entry);
+        for (String key : keys(entry.getText())) {
+            List<Node> path = path(key, true);
+            path.get(path.size() - 1).addTerminal(entry);
+            recompute(path);
+        }
+    }
+
+    public synchronized void remove(String type, long id) {
+        SuggestionDTO entry = entries.remove(new Key(type, id));
+        if (entry == null) {
+            return;
+        }
+
+        for (String key : keys(entry.getText())) {
+            List<Node> path = path(key, false);
+            if (path.size() == key.length() + 1) {
+                path.get(path.size() - 1).removeTerminal(entry);
+                recompute(path);
+                prune(path, key);
+            }
+        }
+    }
+
+    public synchronized void removeIf(Predicate<SuggestionDTO> filter) {
+        entries.values().stream().filter(filter).toList().forEach(entry -> remove(entry.getType(), entry.getId()));
+    }
+
+    private List<Node> path(String key, boolean create) {
+        List<Node> path = new ArrayList<>(key.length() + 1);
+        Node node = root;
+        path.add(node);
+        for (int i = 0; i < key.length(); i++) {
+            node = create ? node.childOrCreate(key.charAt(i)) : node.child(key.charAt(i));
+            if (node == null) {
+                break;
+            }
+            path.add(node);
+        }
+        return path;
+    }
+
+    private static void recompute(List<Node> path) {
+        for (int i = path.size() - 1; i >= 0; i--) {
+            recompute(path.get(i));
+        }
+    }
+
+    private static void recomputeAll(Node node) {
+        // iterative post-order walk, names can be long enough to make recursion deep
+        Deque<Node> pending = new ArrayDeque<>();
+        Deque<Node> postOrder = new ArrayDeque<>();
+        pending.push(node);
+        while (!pending.isEmpty()) {
+            Node next = pending.pop();
+            postOrder.push(next);
+            for (Node child : next.children) {
+                pending.push(child);
+            }
+        }
+        postOrder.forEach(PrefixTrie::recompute);
+    }
+
+    private static void recompute(Node node) {
+        Map<Key, SuggestionDTO> candidates = new LinkedHashMap<>();
+        for (SuggestionDTO entry : node.terminal) {
+            candidates.put(new Key(entry.getType(), entry.getId()), entry);
+        }
+        for (Node child : node.children) {
+            for (SuggestionDTO entry : child.top) {
+                candidates.put(new Key(entry.getType(), entry.getId()), entry);
+            }
+        }
+        node.top = candidates.values().stream().sorted(BY_POPULARITY).limit(MAX_SUGGESTIONS).toArray(SuggestionDTO[]::new);
+    }
+
+    private static void prune(List<Node> path, String key) {
+        for (int i = path.size() - 1; i > 0; i--) {
+            Node node = path.get(i);
+            if (node.terminal.length > 0 || node.children.length > 0) {
+                return;
+            }
+            path.get(i - 1).removeChild(key.charAt(i - 1));
+        }
+    }
+
+    /**
+     * The normalized text from the start of each of its first words, e.g. "intro to java", "to java", "java".
+     */
+    static Set<String> keys(String text) {
+        String normalized = normalize(text);
+        Set<String> keys = new HashSet<>();
+        if (normalized.isEmpty()) {
+            return keys;
+        }
+
+        keys.add(normalized);
+        for (int i = 0, words = 1; i < normalized.length() && words < MAX_WORDS; i++) {
+            if (normalized.charAt(i) == ' ') {
+                keys.add(normalized.substring(i + 1));
+                words++;
+            }
+        }
+        return keys;
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : WHITESPACE.matcher(text.strip().toLowerCase(Locale.ROOT)).replaceAll(" ");
+    }
+
+    private static final class Node {
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        final char label;
+        // sorted by label and never modified once published, writers replace the whole array
+        volatile Node[] children = NO_CHILDREN;
+        // only touched by writers, under the trie's lock
+        SuggestionDTO[] terminal = EMPTY;
+        volatile SuggestionDTO[] top = EMPTY;
+
+        Node(char label) {
+            this.label = label;
+        }
+
+        Node child(char c) {
+            Node[] current = children;
+            int index = indexOf(current, c);
+            return index >= 0 ? current[index] : null;
+        }
+
+        Node childOrCreate(char c) {
+            Node[] current = children;
+            int index = indexOf(current, c);
+            if (index >= 0) {
+                return current[index];
+            }
+
+            int insertAt = -index - 1;
+            Node child = new Node(c);
+            Node[] replacement = new Node[current.length + 1];
+            System.arraycopy(current, 0, replacement, 0, insertAt);
+            replacement[insertAt] = child;
+            System.arraycopy(current, insertAt, replacement, insertAt + 1, current.length - insertAt);
+            children = replacement;
+            return child;
+        }
+
+        void removeChild(char c) {
+            Node[] current = children;
+            int index = indexOf(current, c);
+            if (index < 0) {
+                return;
+            }
+
+            Node[] replacement = current.length == 1 ? NO_CHILDREN : new Node[current.length - 1];
+            System.arraycopy(current, 0, replacement, 0, index);
+            System.arraycopy(current, index + 1, replacement, index, current.length - index - 1);
+            children = replacement;
+        }
+
+        void addTerminal(SuggestionDTO entry) {
+            terminal = Arrays.copyOf(terminal, terminal.length + 1);
+            terminal[terminal.length - 1] = entry;
+        }
+
+        void removeTerminal(SuggestionDTO entry) {
+            for (int i = 0; i < terminal.length; i++) {
+                if (terminal[i] == entry) {
+                    SuggestionDTO[] replacement = terminal.length == 1 ? EMPTY : new SuggestionDTO[terminal.length - 1];
+                    System.arraycopy(terminal, 0, replacement, 0, i);
+                    System.arraycopy(terminal, i + 1, replacement, i, terminal.length - i - 1);
+                    terminal = replacement;
+                    return;
+                }
+            }
+        }
+
+        private static int indexOf(Node[] nodes, char c) {
+            int low = 0;
+            int high = nodes.length - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                char label = nodes[middle].label;
+                if (label < c) {
+                    low = middle + 1;
+                } else if (label > c) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -(low + 1);
+        }
+    }
+
+    private record Key(String type, long id) {
+    }
+}
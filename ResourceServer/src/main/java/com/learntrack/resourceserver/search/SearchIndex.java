@@ -0,0 +1,35 @@
+package com.learntrack.resourceserver.search;
+
+import com.learntrack.resourceserver.dto.SearchHitDTO;
+
+import java.util.List;
+
+/**
+ * Full-text search over course names and descriptions, lesson titles and descriptions, and review titles and
+ * contents. Hits are ordered by rank, best first; all words of the query must match.
+ */
+public interface SearchIndex {
+    String COURSE = "course";
+    String LESSON = "lesson";
+    String REVIEW = "review";
+
+    /**
+     * Prepares the index once the schema exists, see {@link SearchIndexInitializer}.
+     */
+    void initialize();
+
+    List<SearchHitDTO> search(String query, int offset, int limit);
+
+    /**
+     * Called from {@link SearchIndexListener} when an entity is persisted or updated. Indexes the database
+     * maintains itself ignore it.
+     */
+    default void afterWrite(Object entity) {
+    }
+
+    /**
+     * Called from {@link SearchIndexListener} when an entity is removed.
+     */
+    default void afterRemove(Object entity) {
+    }
+}
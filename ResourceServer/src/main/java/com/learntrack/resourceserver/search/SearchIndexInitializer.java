@@ -0,0 +1,23 @@
+package com.learntrack.resourceserver.search;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * The {@link SearchIndex} cannot depend on the {@link EntityManagerFactory} itself, because Hibernate needs it
+ * to create the {@link SearchIndexListener}. This bean waits for the schema instead and then initializes it.
+ */
+@Component
+public class SearchIndexInitializer {
+    private final SearchIndex searchIndex;
+
+    public SearchIndexInitializer(SearchIndex searchIndex, EntityManagerFactory entityManagerFactory) {
+        this.searchIndex = searchIndex;
+    }
+
+    @PostConstruct
+    public void initialize() {
+        searchIndex.initialize();
+    }
+}
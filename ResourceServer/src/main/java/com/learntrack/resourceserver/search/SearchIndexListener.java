@@ -0,0 +1,28 @@
+package com.learntrack.resourceserver.search;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * Forwards entity changes to the {@link SearchIndex}, including the lessons and reviews removed through the
+ * cascade of a course delete.
+ */
+public class SearchIndexListener {
+    private final SearchIndex searchIndex;
+
+    public SearchIndexListener(SearchIndex searchIndex) {
+        this.searchIndex = searchIndex;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void afterWrite(Object entity) {
+        searchIndex.afterWrite(entity);
+    }
+
+    @PostRemove
+    public void afterRemove(Object entity) {
+        searchIndex.afterRemove(entity);
+    }
+}
@@ -0,0 +1,50 @@
+package com.learntrack.resourceserver.security;
+
+/**
+ * The caller of a request, parsed once from the access token when it is authenticated.
+ * <p>
+ * Deliberately not a {@link java.security.Principal}: Spring MVC resolves {@code Principal} parameters itself,
+ * before any custom resolver, and would reject this type.
+ */
+public final class AuthenticatedUser {
+    private final long userId;
+    private final int roles;
+
+    public AuthenticatedUser(long userId, int roles) {
+        this.userId = userId;
+        this.roles = roles;
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    public int getRoles() {
+        return roles;
+    }
+
+    public boolean hasRole(Role role) {
+        return (roles & role.bit()) != 0;
+    }
+
+    public boolean hasAnyRole(Role... candidates) {
+        int bits = 0;
+        for (Role candidate : candidates) {
+            bits |= candidate.bit();
+        }
+        return (roles & bits) != 0;
+    }
+
+    public boolean isOwner(Long ownerId) {
+        return ownerId != null && ownerId == userId;
+    }
+
+    public String getName() {
+        return Long.toString(userId);
+    }
+
+    @Override
+    public String toString() {
+        return "AuthenticatedUser{userId=" + userId + ", roles=" + Integer.toBinaryString(roles) + "}";
+    }
+}
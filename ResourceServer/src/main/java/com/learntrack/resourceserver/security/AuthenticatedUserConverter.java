@@ -0,0 +1,67 @@
+package com.learntrack.resourceserver.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+
+import java.util.Collection;
+
+/**
+ * Turns a validated JWT into an {@link AuthenticatedUserToken}, reading the {@code user_id} and {@code roles}
+ * claims exactly once per request. Tokens without a usable {@code user_id} (e.g. client credentials) stay a
+ * plain {@link JwtAuthenticationToken} and are treated as having no current user.
+ */
+public class AuthenticatedUserConverter implements Converter<Jwt, AbstractAuthenticationToken> {
+    public static final String USER_ID_CLAIM = "user_id";
+    public static final String ROLES_CLAIM = "roles";
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final Converter<Jwt, Collection<GrantedAuthority>> authoritiesConverter;
+
+    public AuthenticatedUserConverter() {
+        this(new JwtGrantedAuthoritiesConverter());
+    }
+
+    public AuthenticatedUserConverter(Converter<Jwt, Collection<GrantedAuthority>> authoritiesConverter) {
+        this.authoritiesConverter = authoritiesConverter;
+    }
+
+    @Override
+    public AbstractAuthenticationToken convert(Jwt jwt) {
+        Collection<GrantedAuthority> authorities = authoritiesConverter.convert(jwt);
+
+        Long userId = parseUserId(jwt.getClaims().get(USER_ID_CLAIM));
+        if (userId == null) {
+            return new JwtAuthenticationToken(jwt, authorities, jwt.getSubject());
+        }
+
+        Object roles = jwt.getClaims().get(ROLES_CLAIM);
+        int roleBits = roles instanceof Iterable<?> names ? Role.toBits(names) : 0;
+
+        return new AuthenticatedUserToken(jwt, new AuthenticatedUser(userId, roleBits), authorities);
+    }
+
+    private Long parseUserId(Object userIdObject) {
+        if (userIdObject instanceof Number number) {
+            return number.longValue();
+        }
+        if (userIdObject instanceof String string) {
+            try {
+                return Long.parseLong(string);
+            } catch (NumberFormatException e) {
+                logger.warn("user_id claim is not a number: '{}'", string);
+                return null;
+            }
+        }
+        if (userIdObject != null) {
+            logger.warn("user_id claim is not in expected format: {}", userIdObject.getClass().getName());
+        }
+        return null;
+    }
+}
@@ -0,0 +1,35 @@
+package com.learntrack.resourceserver.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.AbstractOAuth2TokenAuthenticationToken;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * A validated JWT whose principal is the already parsed {@link AuthenticatedUser}.
+ */
+public class AuthenticatedUserToken extends AbstractOAuth2TokenAuthenticationToken<Jwt> {
+    private final AuthenticatedUser user;
+
+    public AuthenticatedUserToken(Jwt jwt, AuthenticatedUser user, Collection<? extends GrantedAuthority> authorities) {
+        super(jwt, user, jwt, authorities);
+        this.user = user;
+        setAuthenticated(true);
+    }
+
+    public AuthenticatedUser getUser() {
+        return user;
+    }
+
+    @Override
+    public Map<String, Object> getTokenAttributes() {
+        return getToken().getClaims();
+    }
+
+    @Override
+    public String getName() {
+        return user.getName();
+    }
+}
@@ -0,0 +1,118 @@
+package com.learntrack.resourceserver.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Remembers tokens the delegate has already verified, keyed by the SHA-256 of the token, until the token's
+ * {@code exp}. A hit skips the RSA signature check and claim parsing, but the signing key ({@code kid}) must
+ * still be in the current JWK set, so tokens signed with a key that was rotated out are verified again (and
+ * rejected) instead of being served from the cache. Failed decodes are never cached.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final JwtDecoder delegate;
+    private final JWKSource<SecurityContext> jwkSource;
+    private final Cache<TokenHash, Jwt> cache;
+
+    public CachingJwtDecoder(JwtDecoder delegate, JWKSource<SecurityContext> jwkSource, long maximumSize) {
+        this.delegate = delegate;
+        this.jwkSource = jwkSource;
+        // @formatter:off
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new UntilExpiresAt())
+                .recordStats()
+                .build();
+        // @formatter:on
+    }
+
+    public Cache<TokenHash, Jwt> getCache() {
+        return cache;
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        TokenHash key = TokenHash.of(token);
+
+        Jwt cached = cache.getIfPresent(key);
+        if (cached != null) {
+            if (isSigningKeyKnown(cached)) {
+                return cached;
+            }
+            logger.debug("Signing key '{}' is no longer published, verifying the token again", cached.getHeaders().get("kid"));
+            cache.invalidate(key);
+        }
+
+        Jwt jwt = delegate.decode(token);
+        if (jwt.getExpiresAt() != null) {
+            cache.put(key, jwt);
+        }
+        return jwt;
+    }
+
+    private boolean isSigningKeyKnown(Jwt jwt) {
+        Object kid = jwt.getHeaders().get("kid");
+        JWKMatcher.Builder matcher = new JWKMatcher.Builder();
+        if (kid instanceof String keyId) {
+            matcher.keyID(keyId);
+        }
+        try {
+            return !jwkSource.get(new JWKSelector(matcher.build()), null).isEmpty();
+        } catch (KeySourceException e) {
+            logger.warn("Could not check the signing key of a cached token: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private static final class UntilExpiresAt implements Expiry<TokenHash, Jwt> {
+        @Override
+        public long expireAfterCreate(TokenHash key, Jwt jwt, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), jwt.getExpiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(TokenHash key, Jwt jwt, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, jwt, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(TokenHash key, Jwt jwt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    /**
+     * SHA-256 of a token, so the cache holds neither the bearer token itself nor its full length as a key.
+     */
+    public record TokenHash(long a, long b, long c, long d) {
+        static TokenHash of(String token) {
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+                ByteBuffer buffer = ByteBuffer.wrap(digest);
+                return new TokenHash(buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong());
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not available", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.learntrack.resourceserver.security;
+
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Loads the JWK set once the application is ready, so the first authenticated request does not pay for the
+ * fetch. From then on the refresh-ahead cache keeps it current in the background.
+ */
+@Component
+public class JwkSetPrefetcher {
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final JWKSource<SecurityContext> jwkSource;
+
+    public JwkSetPrefetcher(JWKSource<SecurityContext> jwkSource) {
+        this.jwkSource = jwkSource;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void prefetch() {
+        try {
+            int keys = jwkSource.get(new JWKSelector(new JWKMatcher.Builder().build()), null).size();
+            logger.info("Prefetched JWK set with {} keys", keys);
+        } catch (KeySourceException e) {
+            logger.warn("Could not prefetch JWK set, it will be fetched on the first request: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.learntrack.resourceserver.security;
+
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.util.events.EventListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Counts the events raised by the JWK set source under {@code jwks.events}, tagged with the layer that raised
+ * them and the event type. {@code WaitingForRefreshEvent} means a request thread blocked on a fetch, so it
+ * should stay near zero once refresh-ahead is running.
+ */
+public class JwkSourceMetrics {
+    public static final String METER_NAME = "jwks.events";
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final MeterRegistry meterRegistry;
+
+    public JwkSourceMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <S> EventListener<S, SecurityContext> listener(String layer) {
+        return event -> {
+            String type = event.getClass().getSimpleName();
+            logger.debug("JWK set source event '{}' from {}", type, layer);
+            meterRegistry.counter(METER_NAME, "layer", layer, "event", type).increment();
+        };
+    }
+}
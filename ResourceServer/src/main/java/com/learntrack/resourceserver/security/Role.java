@@ -0,0 +1,45 @@
+package com.learntrack.resourceserver.security;
+
+/**
+ * Roles issued by the authorization server in the {@code roles} claim. Each role owns one bit of
+ * {@link AuthenticatedUser#getRoles()}.
+ */
+public enum Role {
+    USER("ROLE_USER"),
+    LECTURER("ROLE_LECTURER"),
+    ADMIN("ROLE_ADMIN");
+
+    private static final Role[] VALUES = values();
+
+    private final String authority;
+    private final int bit;
+
+    Role(String authority) {
+        this.authority = authority;
+        this.bit = 1 << ordinal();
+    }
+
+    public String getAuthority() {
+        return authority;
+    }
+
+    public int bit() {
+        return bit;
+    }
+
+    /**
+     * Folds the role names of a {@code roles} claim into a bitset, ignoring names this server does not know.
+     */
+    public static int toBits(Iterable<?> authorities) {
+        int bits = 0;
+        for (Object authority : authorities) {
+            for (Role role : VALUES) {
+                if (role.authority.equals(authority)) {
+                    bits |= role.bit;
+                    break;
+                }
+            }
+        }
+        return bits;
+    }
+}
@@ -0,0 +1,192 @@
+package com.learntrack.resourceserver.services;
+
+import com.learntrack.resourceserver.dto.BatchItemDTO;
+import com.learntrack.resourceserver.dto.BatchItemResultDTO;
+import com.learntrack.resourceserver.dto.BatchOperation;
+import jakarta.persistence.EntityManager;
+import org.springframework.data.repository.CrudRepository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Applies a batch of creates, updates and deletes of one entity type all at once or not at all. Every entry is
+ * checked first, a {@code null} entry failing with 400; if any fails, nothing is written and the valid entries
+ * report 424. The entities referenced by updates and deletes are loaded with a single query, and new entities
+ * take their ids from the pooled sequence, so the inserts and updates are flushed in JDBC batches.
+ * <p>
+ * Must be called inside a transaction. What is checked beyond ids and versions, and how entries become entities,
+ * is left to the {@link Validator} and {@link Mapper} of each call.
+ */
+final class BatchApplier<I extends BatchItemDTO, E> {
+    private final String name;
+    private final CrudRepository<E, Long> repository;
+    private final EntityManager entityManager;
+    private final Function<E, Long> idOf;
+    private final Function<E, Long> versionOf;
+    private final BiConsumer<BatchOperation, E> onApplied;
+
+    BatchApplier(String name, CrudRepository<E, Long> repository, EntityManager entityManager, Function<E, Long> idOf, Function<E, Long> versionOf) {
+        this(name, repository, entityManager, idOf, versionOf, (op, entity) -> {
+        });
+    }
+
+    /**
+     * @param name      the entity name used in error messages, e.g. "Lesson"
+     * @param onApplied called for every entry once the batch has been flushed
+     */
+    BatchApplier(String name, CrudRepository<E, Long> repository, EntityManager entityManager, Function<E, Long> idOf, Function<E, Long> versionOf, BiConsumer<BatchOperation, E> onApplied) {
+        this.name = name;
+        this.repository = repository;
+        this.entityManager = entityManager;
+        this.idOf = idOf;
+        this.versionOf = versionOf;
+        this.onApplied = onApplied;
+    }
+
+    /**
+     * @param scope  the parent the entities must belong to, used in 404 messages, e.g. "course with id: 3"
+     * @param loader loads the entities with the given ids that belong to the scope
+     */
+    List<BatchItemResultDTO> apply(List<I> items, String scope, Function<Set<Long>, List<E>> loader, Validator<I, E> validator, Mapper<I, E> mapper) {
+        Set<Long> ids = new HashSet<>();
+        Set<Long> duplicateIds = new HashSet<>();
+        for (I item : items) {
+            if (item != null && item.getOp() != BatchOperation.CREATE && item.getId() != null && !ids.add(item.getId())) {
+                duplicateIds.add(item.getId());
+            }
+        }
+
+        Map<Long, E> existing = new HashMap<>();
+        if (!ids.isEmpty()) {
+            loader.apply(ids).forEach(entity -> existing.put(idOf.apply(entity), entity));
+        }
+
+        List<BatchItemResultDTO> failures = new ArrayList<>(items.size());
+        boolean failed = false;
+        for (int i = 0; i < items.size(); i++) {
+            BatchItemResultDTO failure = validate(i, items.get(i), scope, existing, duplicateIds, validator);
+            failures.add(failure);
+            failed |= failure != null;
+        }
+
+        if (failed) {
+            List<BatchItemResultDTO> results = new ArrayList<>(items.size());
+            for (int i = 0; i < items.size(); i++) {
+                I item = items.get(i);
+                results.add(failures.get(i) != null ? failures.get(i) : BatchItemResultDTO.notApplied(i, item.getOp(), item.getId()));
+            }
+            return results;
+        }
+
+        List<E> entities = new ArrayList<>(items.size());
+        List<E> created = new ArrayList<>();
+        for (I item : items) {
+            E entity;
+            switch (item.getOp()) {
+                case CREATE -> {
+                    entity = mapper.create(item);
+                    created.add(entity);
+                }
+                case UPDATE -> {
+                    entity = existing.get(item.getId());
+                    mapper.update(entity, item);
+                }
+                default -> {
+                    entity = existing.get(item.getId());
+                    repository.delete(entity);
+                }
+            }
+            entities.add(entity);
+        }
+        repository.saveAll(created);
+        entityManager.flush();
+
+        List<BatchItemResultDTO> results = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            BatchOperation op = items.get(i).getOp();
+            E entity = entities.get(i);
+            onApplied.accept(op, entity);
+            Long id = idOf.apply(entity);
+            // @formatter:off
+            results.add(switch (op) {
+                case CREATE -> BatchItemResultDTO.applied(i, op, id, versionOf.apply(entity), 201);
+                case UPDATE -> BatchItemResultDTO.applied(i, op, id, versionOf.apply(entity), 200);
+                case DELETE -> BatchItemResultDTO.applied(i, op, id, null, 204);
+            });
+            // @formatter:on
+        }
+        return results;
+    }
+
+    private BatchItemResultDTO validate(int index, I item, String scope, Map<Long, E> existing, Set<Long> duplicateIds, Validator<I, E> validator) {
+        if (item == null) {
+            return BatchItemResultDTO.failed(index, null, null, 400, "entry must not be null");
+        }
+
+        BatchOperation op = item.getOp();
+        if (op == null) {
+            return BatchItemResultDTO.failed(index, null, item.getId(), 400, "op is required");
+        }
+
+        if (op == BatchOperation.CREATE) {
+            return toResult(index, op, null, validator.validate(item, null));
+        }
+
+        if (item.getId() == null) {
+            return BatchItemResultDTO.failed(index, op, null, 400, "id is required");
+        }
+        if (duplicateIds.contains(item.getId())) {
+            return BatchItemResultDTO.failed(index, op, item.getId(), 400, name + " with id: " + item.getId() + " appears more than once");
+        }
+
+        E entity = existing.get(item.getId());
+        if (entity == null) {
+            return BatchItemResultDTO.failed(index, op, item.getId(), 404, name + " with id: " + item.getId() + " not found for " + scope);
+        }
+        BatchItemResultDTO rejected = toResult(index, op, item.getId(), validator.validate(item, entity));
+        if (rejected != null) {
+            return rejected;
+        }
+        if (item.getVersion() != null && !item.getVersion().equals(versionOf.apply(entity))) {
+            return BatchItemResultDTO.failed(index, op, item.getId(), 409, name + " with id: " + item.getId() + " has been modified");
+        }
+        return null;
+    }
+
+    private static BatchItemResultDTO toResult(int index, BatchOperation op, Long id, Rejection rejection) {
+        return rejection == null ? null : BatchItemResultDTO.failed(index, op, id, rejection.status(), rejection.error());
+    }
+
+    static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    static boolean isBlankIfPresent(String value) {
+        return value != null && value.isBlank();
+    }
+
+    /**
+     * Entity-specific checks of one entry, run after the common ones (op, id, duplicates, existence) and before
+     * the version check. {@code existing} is {@code null} for creates.
+     */
+    @FunctionalInterface
+    interface Validator<I, E> {
+        Rejection validate(I item, E existing);
+    }
+
+    interface Mapper<I, E> {
+        E create(I item);
+
+        void update(E entity, I item);
+    }
+
+    record Rejection(int status, String error) {
+    }
+}
@@ -1,33 +1,76 @@
 package com.learntrack.resourceserver.services;
 
+import com.learntrack.resourceserver.cache.CacheNames;
+import com.learntrack.resourceserver.cache.EntityCounters;
+import com.learntrack.resourceserver.converters.CourseConverter;
+import com.learntrack.resourceserver.dto.CourseDetailDTO;
+import com.learntrack.resourceserver.dto.CourseResponseDTO;
+import com.learntrack.resourceserver.dto.LessonSummaryDTO;
 import com.learntrack.resourceserver.models.Course;
 import com.learntrack.resourceserver.repositories.CourseRepository;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 @Service
 public class CourseService {
     private final CourseRepository courseRepository;
+    private final EntityCounters entityCounters;
+    private final SuggestionService suggestionService;
 
-    public CourseService(CourseRepository courseRepository) {
+    public CourseService(CourseRepository courseRepository, EntityCounters entityCounters, SuggestionService suggestionService) {
         this.courseRepository = courseRepository;
+        this.entityCounters = entityCounters;
+        this.suggestionService = suggestionService;
     }
 
-    public Iterable<Course> findAll() {
-        return courseRepository.findAll();
+    @Cacheable(CacheNames.COURSE_PAGES)
+    public List<CourseResponseDTO> findPage(Long after, int limit) {
+        return CourseConverter.convertToCourseResponseDTOList(courseRepository.findByIdGreaterThanOrderByIdAsc(after == null ? 0L : after, Limit.of(limit)));
     }
 
     public Optional<Course> findById(Long id) {
         return courseRepository.findById(id);
     }
 
+    @Cacheable(cacheNames = CacheNames.COURSES, unless = "#result == null")
+    public Optional<CourseResponseDTO> findResponseById(Long id) {
+        return courseRepository.findById(id).map(CourseConverter::convertToCourseResponseDTO);
+    }
+
+    /**
+     * Reads the course, its lessons and their review counts in a single statement.
+     */
+    public Optional<CourseDetailDTO> findDetail(Long id) {
+        List<Object[]> rows = courseRepository.findDetailRows(id);
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+
+        List<LessonSummaryDTO> lessons = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            if (row[4] != null) {
+                lessons.add(new LessonSummaryDTO((Long) row[4], (String) row[5], (String) row[6], (Long) row[8], (Long) row[7]));
+            }
+        }
+
+        Object[] course = rows.get(0);
+        return Optional.of(new CourseDetailDTO((Long) course[0], (String) course[1], (String) course[2], (Long) course[3], lessons));
+    }
+
     public Course save(Course course) {
-        return courseRepository.save(course);
+        Course saved = courseRepository.save(course);
+        suggestionService.courseSaved(saved);
+        return saved;
     }
 
     public void deleteById(Long id) {
         courseRepository.deleteById(id);
+        suggestionService.courseDeleted(id);
     }
 
     public boolean existsById(Long id) {
@@ -39,6 +82,6 @@ public class CourseService {
     }
 
     public long count() {
-        return courseRepository.count();
+        return entityCounters.courseCount();
     }
 }
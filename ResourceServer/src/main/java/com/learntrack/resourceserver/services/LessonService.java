@@ -1,17 +1,42 @@
 package com.learntrack.resourceserver.services;
 
+import com.learntrack.resourceserver.cache.CacheNames;
+import com.learntrack.resourceserver.cache.EntityCounters;
+import com.learntrack.resourceserver.dto.BatchItemResultDTO;
+import com.learntrack.resourceserver.dto.BatchOperation;
+import com.learntrack.resourceserver.dto.LessonBatchItemDTO;
+import com.learntrack.resourceserver.dto.LessonResponseDTO;
+import com.learntrack.resourceserver.dto.ScopedLessonDTO;
+import com.learntrack.resourceserver.models.Course;
 import com.learntrack.resourceserver.models.Lesson;
 import com.learntrack.resourceserver.repositories.LessonRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static com.learntrack.resourceserver.services.BatchApplier.isBlank;
+import static com.learntrack.resourceserver.services.BatchApplier.isBlankIfPresent;
 
 @Service
 public class LessonService {
     private final LessonRepository lessonRepository;
+    private final EntityManager entityManager;
+    private final EntityCounters entityCounters;
+    private final SuggestionService suggestionService;
+    private final BatchApplier<LessonBatchItemDTO, Lesson> batchApplier;
 
-    public LessonService(LessonRepository lessonRepository) {
+    public LessonService(LessonRepository lessonRepository, EntityManager entityManager, EntityCounters entityCounters, SuggestionService suggestionService) {
         this.lessonRepository = lessonRepository;
+        this.entityManager = entityManager;
+        this.entityCounters = entityCounters;
+        this.suggestionService = suggestionService;
+        this.batchApplier = new BatchApplier<>("Lesson", lessonRepository, entityManager, Lesson::getId, Lesson::getVersion, this::lessonApplied);
     }
 
     public Iterable<Lesson> findAll() {
@@ -22,19 +47,105 @@ public class LessonService {
         return lessonRepository.findAllByCourseId(courseId);
     }
 
+    @Cacheable(CacheNames.LESSON_LISTS)
+    public List<LessonResponseDTO> findAllProjectedByCourseId(Long courseId) {
+        return lessonRepository.findAllProjectedByCourseId(courseId);
+    }
+
+    /**
+     * Reads the lessons through a forward-only cursor and hands them to the consumer one at a time.
+     * Each lesson is detached once consumed so the persistence context does not grow with the result set.
+     */
+    @Transactional(readOnly = true)
+    public void streamAllByCourseId(Long courseId, Consumer<Lesson> consumer) {
+        try (Stream<Lesson> lessons = lessonRepository.streamAllByCourseId(courseId)) {
+            lessons.forEach(lesson -> {
+                consumer.accept(lesson);
+                entityManager.detach(lesson);
+            });
+        }
+    }
+
     public Optional<Lesson> findById(Long id) {
         return lessonRepository.findById(id);
     }
 
+    public Lesson getReference(Long id) {
+        return entityManager.getReference(Lesson.class, id);
+    }
+
+    @Cacheable(cacheNames = CacheNames.LESSONS, unless = "#result == null || #result.lessonId == null")
+    public Optional<ScopedLessonDTO> findScoped(Long courseId, Long lessonId) {
+        return lessonRepository.findScoped(courseId, lessonId);
+    }
+
+    /**
+     * The lesson entity with its course loaded, if the lesson belongs to that course. A miss does not say which
+     * part of the path was not found; {@link #findScoped} does.
+     */
+    public Optional<Lesson> findInScope(Long courseId, Long lessonId) {
+        return lessonRepository.findInScope(courseId, lessonId);
+    }
+
     public Lesson save(Lesson lesson) {
-        return lessonRepository.save(lesson);
+        Lesson saved = lessonRepository.save(lesson);
+        suggestionService.lessonSaved(saved);
+        return saved;
+    }
+
+    /**
+     * Applies all entries in one transaction or none of them, see {@link BatchApplier}. New lessons belong to the
+     * owner of the course.
+     */
+    @Transactional
+    public List<BatchItemResultDTO> applyBatch(Course course, List<LessonBatchItemDTO> items) {
+        // @formatter:off
+        return batchApplier.apply(items, "course with id: " + course.getId(),
+                ids -> lessonRepository.findAllByCourseIdAndIdIn(course.getId(), ids),
+                LessonService::validate,
+                new BatchApplier.Mapper<>() {
+                    @Override
+                    public Lesson create(LessonBatchItemDTO item) {
+                        return new Lesson(item.getTitle(), item.getDescription(), course, course.getOwnerId());
+                    }
+
+                    @Override
+                    public void update(Lesson lesson, LessonBatchItemDTO item) {
+                        if (item.getTitle() != null) lesson.setTitle(item.getTitle());
+                        if (item.getDescription() != null) lesson.setDescription(item.getDescription());
+                    }
+                });
+        // @formatter:on
+    }
+
+    private static BatchApplier.Rejection validate(LessonBatchItemDTO item, Lesson existing) {
+        if (item.getOp() == BatchOperation.CREATE && (isBlank(item.getTitle()) || isBlank(item.getDescription()))) {
+            return new BatchApplier.Rejection(400, "title and description are required");
+        }
+        if (item.getOp() == BatchOperation.UPDATE && (isBlankIfPresent(item.getTitle()) || isBlankIfPresent(item.getDescription()))) {
+            return new BatchApplier.Rejection(400, "title and description must not be blank");
+        }
+        return null;
+    }
+
+    private void lessonApplied(BatchOperation op, Lesson lesson) {
+        if (op == BatchOperation.DELETE) {
+            suggestionService.lessonDeleted(lesson.getId());
+        } else {
+            suggestionService.lessonSaved(lesson);
+        }
     }
 
     public void deleteById(Long id) {
         lessonRepository.deleteById(id);
+        suggestionService.lessonDeleted(id);
     }
 
     public boolean existsById(Long id) {
         return lessonRepository.existsById(id);
     }
+
+    public long countByCourseId(Long courseId) {
+        return entityCounters.lessonCount(courseId);
+    }
 }
@@ -1,17 +1,40 @@
 package com.learntrack.resourceserver.services;
 
+import com.learntrack.resourceserver.cache.CacheNames;
+import com.learntrack.resourceserver.cache.EntityCounters;
+import com.learntrack.resourceserver.dto.BatchItemResultDTO;
+import com.learntrack.resourceserver.dto.BatchOperation;
+import com.learntrack.resourceserver.dto.ReviewBatchItemDTO;
+import com.learntrack.resourceserver.dto.ReviewResponseDTO;
+import com.learntrack.resourceserver.dto.ScopedReviewDTO;
+import com.learntrack.resourceserver.models.Lesson;
 import com.learntrack.resourceserver.models.Review;
 import com.learntrack.resourceserver.repositories.ReviewRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static com.learntrack.resourceserver.services.BatchApplier.isBlank;
+import static com.learntrack.resourceserver.services.BatchApplier.isBlankIfPresent;
 
 @Service
 public class ReviewService {
     private final ReviewRepository reviewRepository;
+    private final EntityManager entityManager;
+    private final EntityCounters entityCounters;
+    private final BatchApplier<ReviewBatchItemDTO, Review> batchApplier;
 
-    public ReviewService(ReviewRepository reviewRepository) {
+    public ReviewService(ReviewRepository reviewRepository, EntityManager entityManager, EntityCounters entityCounters) {
         this.reviewRepository = reviewRepository;
+        this.entityManager = entityManager;
+        this.entityCounters = entityCounters;
+        this.batchApplier = new BatchApplier<>("Review", reviewRepository, entityManager, Review::getId, Review::getVersion);
     }
 
     public Iterable<Review> findAll() {
@@ -22,14 +45,92 @@ public class ReviewService {
         return reviewRepository.findById(id);
     }
 
+    /**
+     * A review found by id, usually from the cache, answers the lookup when it sits under the given lesson and
+     * course. Otherwise the path is resolved level by level, so the caller can tell which part was not found.
+     */
+    public Optional<ScopedReviewDTO> findScoped(Long courseId, Long lessonId, Long reviewId) {
+        Optional<ScopedReviewDTO> review = reviewRepository.findScopedById(reviewId);
+        if (review.isPresent() && review.get().getCourseId().equals(courseId) && review.get().getLessonId().equals(lessonId)) {
+            return review;
+        }
+        return reviewRepository.findScoped(courseId, lessonId, reviewId);
+    }
+
+    /**
+     * The review entity, if it sits under the given lesson and course. A miss does not say which part of the path
+     * was not found; {@link #findScoped} does.
+     */
+    public Optional<Review> findInScope(Long courseId, Long lessonId, Long reviewId) {
+        return reviewRepository.findInScope(courseId, lessonId, reviewId);
+    }
+
     public Iterable<Review> findAllByLessonId(Long lessonId) {
         return reviewRepository.findAllByLessonId(lessonId);
     }
 
+    @Cacheable(CacheNames.REVIEW_LISTS)
+    public List<ReviewResponseDTO> findAllProjectedByLessonId(Long lessonId) {
+        return reviewRepository.findAllProjectedByLessonId(lessonId);
+    }
+
+    /**
+     * Reads the reviews through a forward-only cursor and hands them to the consumer one at a time.
+     * Each review is detached once consumed so the persistence context does not grow with the result set.
+     */
+    @Transactional(readOnly = true)
+    public void streamAllByLessonId(Long lessonId, Consumer<Review> consumer) {
+        try (Stream<Review> reviews = reviewRepository.streamAllByLessonId(lessonId)) {
+            reviews.forEach(review -> {
+                consumer.accept(review);
+                entityManager.detach(review);
+            });
+        }
+    }
+
     public Review save(Review review) {
         return reviewRepository.save(review);
     }
 
+    /**
+     * Applies all entries in one transaction or none of them, see {@link BatchApplier}. New reviews belong to
+     * {@code userId}; updates and deletes are only allowed on the reviews {@code userId} created.
+     */
+    @Transactional
+    public List<BatchItemResultDTO> applyBatch(Long lessonId, Long userId, List<ReviewBatchItemDTO> items) {
+        Lesson lesson = entityManager.getReference(Lesson.class, lessonId);
+        // @formatter:off
+        return batchApplier.apply(items, "lesson with id: " + lessonId,
+                ids -> reviewRepository.findAllByLessonIdAndIdIn(lessonId, ids),
+                (item, existing) -> validate(item, existing, userId),
+                new BatchApplier.Mapper<>() {
+                    @Override
+                    public Review create(ReviewBatchItemDTO item) {
+                        return new Review(item.getTitle(), item.getContent(), lesson, userId);
+                    }
+
+                    @Override
+                    public void update(Review review, ReviewBatchItemDTO item) {
+                        if (item.getTitle() != null) review.setTitle(item.getTitle());
+                        if (item.getContent() != null) review.setContent(item.getContent());
+                    }
+                });
+        // @formatter:on
+    }
+
+    private static BatchApplier.Rejection validate(ReviewBatchItemDTO item, Review existing, Long userId) {
+        if (item.getOp() == BatchOperation.CREATE && (isBlank(item.getTitle()) || isBlank(item.getContent()))) {
+            return new BatchApplier.Rejection(400, "title and content are required");
+        }
+        if (existing != null && !userId.equals(existing.getOwnerId())) {
+            return new BatchApplier.Rejection(403, "Review with id: " + existing.getId() + " was created by another user");
+        }
+        if (item.getOp() == BatchOperation.UPDATE && (isBlankIfPresent(item.getTitle()) || isBlankIfPresent(item.getContent()))) {
+            return new BatchApplier.Rejection(400, "title and content must not be blank");
+        }
+        return null;
+    }
+
     public void deleteById(Long id) {
         reviewRepository.deleteById(id);
     }
@@ -37,4 +138,8 @@ public class ReviewService {
     public boolean existsById(Long id) {
         return reviewRepository.existsById(id);
     }
+
+    public long countByLessonId(Long lessonId) {
+        return entityCounters.reviewCount(lessonId);
+    }
 }
@@ -0,0 +1,152 @@
+package com.learntrack.resourceserver.services;
+
+import com.learntrack.resourceserver.cache.EntityCounters;
+import com.learntrack.resourceserver.dto.SuggestionDTO;
+import com.learntrack.resourceserver.models.Course;
+import com.learntrack.resourceserver.models.Lesson;
+import com.learntrack.resourceserver.repositories.CourseRepository;
+import com.learntrack.resourceserver.repositories.LessonRepository;
+import com.learntrack.resourceserver.repositories.ReviewRepository;
+import com.learntrack.resourceserver.search.PrefixTrie;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static com.learntrack.resourceserver.transaction.TransactionCallbacks.afterCommit;
+
+/**
+ * Type-ahead over course names and lesson titles, ranked by popularity: the number of lessons of a course and
+ * the number of reviews of a lesson. The trie is loaded at startup, kept current by {@link CourseService} and
+ * {@link LessonService} as they save and delete, and rebuilt periodically so review counts, which change
+ * without touching a course or lesson, are picked up as well.
+ * <p>
+ * Updates are applied under {@code updateLock}. While a rebuild reads the database they are also recorded, and
+ * replayed onto the new trie before it replaces the old one, so no update is lost to the swap.
+ */
+@Service
+public class SuggestionService {
+    public static final String COURSE = "course";
+    public static final String LESSON = "lesson";
+
+    private final CourseRepository courseRepository;
+    private final LessonRepository lessonRepository;
+    private final ReviewRepository reviewRepository;
+    private final EntityCounters entityCounters;
+    private volatile PrefixTrie trie = new PrefixTrie();
+    private final Object updateLock = new Object();
+    // non-null while a rebuild is reading the database; guarded by updateLock
+    private List<Consumer<PrefixTrie>> pendingUpdates;
+
+    Logger logger = LoggerFactory.getLogger(SuggestionService.class);
+
+    public SuggestionService(CourseRepository courseRepository, LessonRepository lessonRepository, ReviewRepository reviewRepository, EntityCounters entityCounters) {
+        this.courseRepository = courseRepository;
+        this.lessonRepository = lessonRepository;
+        this.reviewRepository = reviewRepository;
+        this.entityCounters = entityCounters;
+    }
+
+    public List<SuggestionDTO> suggest(String prefix, int limit) {
+        return trie.suggest(prefix, limit);
+    }
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${suggestions.rebuild-interval:PT10M}", initialDelayString = "${suggestions.rebuild-interval:PT10M}")
+    public void rebuild() {
+        synchronized (updateLock) {
+            pendingUpdates = new ArrayList<>();
+        }
+        try {
+            PrefixTrie rebuilt = load();
+            synchronized (updateLock) {
+                pendingUpdates.forEach(update -> update.accept(rebuilt));
+                trie = rebuilt;
+            }
+            logger.debug("Rebuilt suggestions from {} courses and lessons", rebuilt.size());
+        } finally {
+            synchronized (updateLock) {
+                pendingUpdates = null;
+            }
+        }
+    }
+
+    private PrefixTrie load() {
+        Map<Long, Long> lessonsByCourse = toMap(lessonRepository.countGroupedByCourseId());
+        Map<Long, Long> reviewsByLesson = toMap(reviewRepository.countGroupedByLessonId());
+
+        List<SuggestionDTO> entries = new ArrayList<>();
+        for (Object[] row : courseRepository.findAllNames()) {
+            Long courseId = (Long) row[0];
+            entries.add(new SuggestionDTO(COURSE, courseId, courseId, (String) row[1], lessonsByCourse.getOrDefault(courseId, 0L)));
+        }
+        for (Object[] row : lessonRepository.findAllTitles()) {
+            Long lessonId = (Long) row[0];
+            entries.add(new SuggestionDTO(LESSON, lessonId, (Long) row[1], (String) row[2], reviewsByLesson.getOrDefault(lessonId, 0L)));
+        }
+
+        return PrefixTrie.of(entries);
+    }
+
+    public void courseSaved(Course course) {
+        SuggestionDTO entry = new SuggestionDTO(COURSE, course.getId(), course.getId(), course.getName(), 0);
+        afterCommit(() -> update(current -> current.put(entry.withPopularity(entityCounters.lessonCount(entry.getId())))));
+    }
+
+    public void courseDeleted(Long courseId) {
+        afterCommit(() -> update(current -> {
+            current.remove(COURSE, courseId);
+            current.removeIf(entry -> entry.getCourseId() == courseId);
+        }));
+    }
+
+    public void lessonSaved(Lesson lesson) {
+        SuggestionDTO entry = new SuggestionDTO(LESSON, lesson.getId(), lesson.getCourse().getId(), lesson.getTitle(), 0);
+        afterCommit(() -> update(current -> {
+            current.put(entry.withPopularity(entityCounters.reviewCount(entry.getId())));
+            updateCoursePopularity(current, entry.getCourseId());
+        }));
+    }
+
+    public void lessonDeleted(Long lessonId) {
+        afterCommit(() -> update(current -> {
+            SuggestionDTO entry = current.get(LESSON, lessonId);
+            current.remove(LESSON, lessonId);
+            if (entry != null) {
+                updateCoursePopularity(current, entry.getCourseId());
+            }
+        }));
+    }
+
+    private void update(Consumer<PrefixTrie> change) {
+        synchronized (updateLock) {
+            change.accept(trie);
+            if (pendingUpdates != null) {
+                pendingUpdates.add(change);
+            }
+        }
+    }
+
+    private void updateCoursePopularity(PrefixTrie current, long courseId) {
+        SuggestionDTO course = current.get(COURSE, courseId);
+        long popularity = entityCounters.lessonCount(courseId);
+        if (course != null && course.getPopularity() != popularity) {
+            current.put(course.withPopularity(popularity));
+        }
+    }
+
+    private static Map<Long, Long> toMap(List<Object[]> rows) {
+        Map<Long, Long> counts = new HashMap<>(rows.size());
+        for (Object[] row : rows) {
+            counts.put((Long) row[0], (Long) row[1]);
+        }
+        return counts;
+    }
+}
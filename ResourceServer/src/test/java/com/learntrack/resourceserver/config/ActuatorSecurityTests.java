@@ -0,0 +1,54 @@
+package com.learntrack.resourceserver.config;
+
+import com.learntrack.resourceserver.security.AuthenticatedUser;
+import com.learntrack.resourceserver.security.AuthenticatedUserToken;
+import com.learntrack.resourceserver.security.Role;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@AutoConfigureTestDatabase
+@AutoConfigureMockMvc
+class ActuatorSecurityTests {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void healthIsPublic() throws Exception {
+        mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+    }
+
+    @Test
+    void metricsRequireAdmin() throws Exception {
+        mockMvc.perform(get("/actuator/metrics")).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/metrics").with(caller(Role.USER))).andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/metrics").with(caller(Role.ADMIN))).andExpect(status().isOk());
+    }
+
+    @Test
+    void cachesAreNotExposed() throws Exception {
+        mockMvc.perform(get("/actuator/caches").with(caller(Role.ADMIN))).andExpect(status().isNotFound());
+    }
+
+    private static RequestPostProcessor caller(Role role) {
+        Jwt jwt = Jwt.withTokenValue("token").header("alg", "RS256").subject("user").claim("roles", List.of(role.getAuthority())).build();
+        AuthenticatedUserToken authentication = new AuthenticatedUserToken(jwt, new AuthenticatedUser(1L, role.bit()), List.of());
+        return request -> {
+            request.setAttribute(RequestAttributeSecurityContextRepository.DEFAULT_REQUEST_ATTR_NAME, new SecurityContextImpl(authentication));
+            return request;
+        };
+    }
+}
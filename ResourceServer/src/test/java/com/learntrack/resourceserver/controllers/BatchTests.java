@@ -0,0 +1,195 @@
+package com.learntrack.resourceserver.controllers;
+
+import com.learntrack.resourceserver.dto.BatchItemResultDTO;
+import com.learntrack.resourceserver.dto.BatchOperation;
+import com.learntrack.resourceserver.dto.LessonBatchItemDTO;
+import com.learntrack.resourceserver.dto.ReviewBatchItemDTO;
+import com.learntrack.resourceserver.models.Course;
+import com.learntrack.resourceserver.models.Lesson;
+import com.learntrack.resourceserver.models.Review;
+import com.learntrack.resourceserver.repositories.CourseRepository;
+import com.learntrack.resourceserver.repositories.LessonRepository;
+import com.learntrack.resourceserver.repositories.ReviewRepository;
+import com.learntrack.resourceserver.security.AuthenticatedUser;
+import com.learntrack.resourceserver.security.Role;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// @formatter:off
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+// @formatter:on
+@AutoConfigureTestDatabase
+class BatchTests {
+    private static final AuthenticatedUser LECTURER = new AuthenticatedUser(1L, Role.LECTURER.bit());
+    private static final AuthenticatedUser STUDENT = new AuthenticatedUser(2L, Role.USER.bit());
+
+    @Autowired
+    private BatchController batchController;
+
+    @Autowired
+    private RequestMappingHandlerMapping requestMappingHandlerMapping;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private LessonRepository lessonRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Course course;
+    private Lesson lesson;
+    private Review review;
+
+    @BeforeEach
+    void setUp() {
+        course = courseRepository.save(new Course("Course", "Description", LECTURER.getUserId()));
+        lesson = lessonRepository.save(new Lesson("Lesson", "Description", course, LECTURER.getUserId()));
+        review = reviewRepository.save(new Review("Review", "Content", lesson, STUDENT.getUserId()));
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        reviewRepository.deleteAll();
+        lessonRepository.deleteAll();
+        courseRepository.deleteAll();
+    }
+
+    @Test
+    void batchPathsAreMapped() throws Exception {
+        HandlerMethod lessons = (HandlerMethod) requestMappingHandlerMapping.getHandler(new MockHttpServletRequest("POST", "/api/v1/courses/1/lessons:batch")).getHandler();
+        HandlerMethod reviews = (HandlerMethod) requestMappingHandlerMapping.getHandler(new MockHttpServletRequest("POST", "/api/v1/courses/1/lessons/2/reviews:batch")).getHandler();
+
+        assertThat(lessons.getMethod().getName()).isEqualTo("lessons");
+        assertThat(reviews.getMethod().getName()).isEqualTo("reviews");
+    }
+
+    @Test
+    void createdLessonsAreInsertedInBatches() {
+        List<LessonBatchItemDTO> items = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            items.add(new LessonBatchItemDTO(BatchOperation.CREATE, null, null, "Lesson " + i, "Description"));
+        }
+
+        ResponseEntity<List<BatchItemResultDTO>> response = batchController.lessons(course.getId(), items, LECTURER);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).hasSize(40).allSatisfy(result -> {
+            assertThat(result.getStatus()).isEqualTo(201);
+            assertThat(result.getId()).isNotNull();
+        });
+        assertThat(lessonRepository.count()).isEqualTo(41);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(40);
+        // the course lookup, one sequence call for the whole pool and a single batched insert
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    void updatesAndDeletesApplyInOneTransaction() {
+        Lesson other = lessonRepository.save(new Lesson("Other", "Description", course, LECTURER.getUserId()));
+
+        // @formatter:off
+        List<LessonBatchItemDTO> items = List.of(
+                new LessonBatchItemDTO(BatchOperation.UPDATE, lesson.getId(), lesson.getVersion(), "Renamed", null),
+                new LessonBatchItemDTO(BatchOperation.DELETE, other.getId(), null, null, null));
+        // @formatter:on
+
+        ResponseEntity<List<BatchItemResultDTO>> response = batchController.lessons(course.getId(), items, LECTURER);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).extracting(BatchItemResultDTO::getStatus).containsExactly(200, 204);
+        assertThat(response.getBody().get(0).getVersion()).isEqualTo(lesson.getVersion() + 1);
+        assertThat(lessonRepository.findById(lesson.getId())).get().extracting(Lesson::getTitle).isEqualTo("Renamed");
+        assertThat(lessonRepository.existsById(other.getId())).isFalse();
+    }
+
+    @Test
+    void oneFailedEntryAppliesNothing() {
+        // @formatter:off
+        List<LessonBatchItemDTO> items = List.of(
+                new LessonBatchItemDTO(BatchOperation.CREATE, null, null, "New", "Description"),
+                new LessonBatchItemDTO(BatchOperation.UPDATE, lesson.getId(), lesson.getVersion() + 1, "Renamed", null),
+                new LessonBatchItemDTO(BatchOperation.DELETE, -1L, null, null, null),
+                new LessonBatchItemDTO(BatchOperation.CREATE, null, null, " ", "Description"));
+        // @formatter:on
+
+        ResponseEntity<List<BatchItemResultDTO>> response = batchController.lessons(course.getId(), items, LECTURER);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody()).extracting(BatchItemResultDTO::getStatus).containsExactly(424, 409, 404, 400);
+        assertThat(lessonRepository.count()).isEqualTo(1);
+        assertThat(lessonRepository.findById(lesson.getId())).get().extracting(Lesson::getTitle).isEqualTo("Lesson");
+    }
+
+    @Test
+    void nullEntriesAreRejectedPerItem() {
+        List<LessonBatchItemDTO> lessons = new ArrayList<>();
+        lessons.add(new LessonBatchItemDTO(BatchOperation.CREATE, null, null, "New", "Description"));
+        lessons.add(null);
+        List<ReviewBatchItemDTO> reviews = new ArrayList<>();
+        reviews.add(null);
+
+        ResponseEntity<List<BatchItemResultDTO>> lessonResponse = batchController.lessons(course.getId(), lessons, LECTURER);
+        assertThat(lessonResponse.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(lessonResponse.getBody()).extracting(BatchItemResultDTO::getStatus).containsExactly(424, 400);
+
+        ResponseEntity<List<BatchItemResultDTO>> reviewResponse = batchController.reviews(course.getId(), lesson.getId(), reviews, STUDENT);
+        assertThat(reviewResponse.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(reviewResponse.getBody()).extracting(BatchItemResultDTO::getStatus).containsExactly(400);
+        assertThat(lessonRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void lessonsOfAnotherLecturersCourseAreForbidden() {
+        AuthenticatedUser otherLecturer = new AuthenticatedUser(3L, Role.LECTURER.bit());
+        List<LessonBatchItemDTO> items = List.of(new LessonBatchItemDTO(BatchOperation.CREATE, null, null, "New", "Description"));
+
+        assertThat(batchController.lessons(course.getId(), items, otherLecturer).getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+        assertThat(batchController.lessons(course.getId(), items, STUDENT).getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+    }
+
+    @Test
+    void reviewsCanOnlyBeChangedByTheirCreator() {
+        // @formatter:off
+        List<ReviewBatchItemDTO> items = List.of(
+                new ReviewBatchItemDTO(BatchOperation.CREATE, null, null, "Review", "Content"),
+                new ReviewBatchItemDTO(BatchOperation.UPDATE, review.getId(), null, "Renamed", null));
+        // @formatter:on
+
+        ResponseEntity<List<BatchItemResultDTO>> forbidden = batchController.reviews(course.getId(), lesson.getId(), items, LECTURER);
+        assertThat(forbidden.getBody()).extracting(BatchItemResultDTO::getStatus).containsExactly(424, 403);
+
+        ResponseEntity<List<BatchItemResultDTO>> applied = batchController.reviews(course.getId(), lesson.getId(), items, STUDENT);
+        assertThat(applied.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(applied.getBody()).extracting(BatchItemResultDTO::getStatus).containsExactly(201, 200);
+        assertThat(reviewRepository.count()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,161 @@
+package com.learntrack.resourceserver.controllers;
+
+import com.learntrack.resourceserver.models.Course;
+import com.learntrack.resourceserver.models.Lesson;
+import com.learntrack.resourceserver.models.Review;
+import com.learntrack.resourceserver.repositories.CourseRepository;
+import com.learntrack.resourceserver.repositories.LessonRepository;
+import com.learntrack.resourceserver.repositories.ReviewRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// @formatter:off
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+// @formatter:on
+@AutoConfigureTestDatabase
+@AutoConfigureMockMvc
+class CacheInvalidationTests {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private LessonRepository lessonRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Statistics statistics;
+    private Course course;
+    private Lesson lesson;
+    private Review review;
+
+    @BeforeEach
+    void setUp() {
+        course = courseRepository.save(new Course("Course", "Description", 1L));
+        lesson = lessonRepository.save(new Lesson("Lesson", "Description", course, 1L));
+        review = reviewRepository.save(new Review("Review", "Content", lesson, 2L));
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        reviewRepository.deleteAll();
+        lessonRepository.deleteAll();
+        courseRepository.deleteAll();
+    }
+
+    @Test
+    void repeatedReadsAreServedFromTheCache() throws Exception {
+        String reviewPath = "/api/v1/courses/{courseId}/lessons/{lessonId}/reviews/{reviewId}";
+        mockMvc.perform(get(reviewPath, course.getId(), lesson.getId(), review.getId())).andExpect(status().isOk());
+
+        statistics.clear();
+        mockMvc.perform(get(reviewPath, course.getId(), lesson.getId(), review.getId())).andExpect(status().isOk());
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void missingCourseIsNotFound() throws Exception {
+        long missing = course.getId() + 1000;
+
+        mockMvc.perform(get("/api/v1/courses/{id}", missing)).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/v1/courses/{id}", missing)).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/v1/courses/{courseId}/lessons", missing)).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/v1/courses/{courseId}/lessons/count", missing)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void updateEvictsTheCachedCourse() throws Exception {
+        mockMvc.perform(get("/api/v1/courses/{id}", course.getId())).andExpect(jsonPath("$.name").value("Course"));
+
+        Course courseToUpdate = courseRepository.findById(course.getId()).orElseThrow();
+        courseToUpdate.setName("Renamed");
+        courseRepository.save(courseToUpdate);
+
+        mockMvc.perform(get("/api/v1/courses/{id}", course.getId())).andExpect(jsonPath("$.name").value("Renamed"));
+        mockMvc.perform(get("/api/v1/courses")).andExpect(jsonPath("$[0].name").value("Renamed"));
+    }
+
+    @Test
+    void reviewUpdateEvictsTheCachedReview() throws Exception {
+        String reviewPath = "/api/v1/courses/{courseId}/lessons/{lessonId}/reviews/{reviewId}";
+        mockMvc.perform(get(reviewPath, course.getId(), lesson.getId(), review.getId())).andExpect(jsonPath("$.title").value("Review"));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Review reviewToUpdate = reviewRepository.findById(review.getId()).orElseThrow();
+            reviewToUpdate.setTitle("Renamed");
+        });
+
+        mockMvc.perform(get(reviewPath, course.getId(), lesson.getId(), review.getId())).andExpect(jsonPath("$.title").value("Renamed"));
+    }
+
+    @Test
+    void cachedReviewIsOnlyServedUnderItsOwnPath() throws Exception {
+        Course otherCourse = courseRepository.save(new Course("Other", "Description", 1L));
+        String reviewPath = "/api/v1/courses/{courseId}/lessons/{lessonId}/reviews/{reviewId}";
+        mockMvc.perform(get(reviewPath, course.getId(), lesson.getId(), review.getId())).andExpect(status().isOk());
+
+        mockMvc.perform(get(reviewPath, otherCourse.getId(), lesson.getId(), review.getId())).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void courseDeleteEvictsCascadedLessonsAndReviews() throws Exception {
+        mockMvc.perform(get("/api/v1/courses/{courseId}/lessons/{lessonId}", course.getId(), lesson.getId())).andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/courses/{courseId}/lessons/{lessonId}/reviews", course.getId(), lesson.getId())).andExpect(jsonPath("$.length()").value(1));
+        mockMvc.perform(get("/api/v1/courses/{courseId}/lessons/{lessonId}/reviews/{reviewId}", course.getId(), lesson.getId(), review.getId())).andExpect(status().isOk());
+
+        courseRepository.deleteById(course.getId());
+
+        mockMvc.perform(get("/api/v1/courses/{courseId}/lessons/{lessonId}", course.getId(), lesson.getId())).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/v1/courses/{courseId}/lessons/{lessonId}/reviews", course.getId(), lesson.getId())).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/v1/courses/{courseId}/lessons/{lessonId}/reviews/{reviewId}", course.getId(), lesson.getId(), review.getId())).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void countersFollowInsertsAndCascadedDeletes() throws Exception {
+        mockMvc.perform(get("/api/v1/courses/{courseId}/lessons/count", course.getId())).andExpect(jsonPath("$").value(1));
+        mockMvc.perform(get("/api/v1/courses/{courseId}/lessons/{lessonId}/reviews/count", course.getId(), lesson.getId())).andExpect(jsonPath("$").value(1));
+
+        reviewRepository.save(new Review("Another review", "Content", lesson, 3L));
+        mockMvc.perform(get("/api/v1/courses/{courseId}/lessons/{lessonId}/reviews/count", course.getId(), lesson.getId())).andExpect(jsonPath("$").value(2));
+
+        long courses = courseRepository.count();
+        mockMvc.perform(get("/api/v1/courses/count")).andExpect(jsonPath("$").value(courses));
+
+        statistics.clear();
+        mockMvc.perform(get("/api/v1/courses/count")).andExpect(status().isOk());
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        courseRepository.deleteById(course.getId());
+        mockMvc.perform(get("/api/v1/courses/count")).andExpect(jsonPath("$").value(courses - 1));
+    }
+}
@@ -0,0 +1,184 @@
+package com.learntrack.resourceserver.controllers;
+
+import com.learntrack.resourceserver.models.Course;
+import com.learntrack.resourceserver.models.Lesson;
+import com.learntrack.resourceserver.models.Review;
+import com.learntrack.resourceserver.repositories.CourseRepository;
+import com.learntrack.resourceserver.repositories.LessonRepository;
+import com.learntrack.resourceserver.repositories.ReviewRepository;
+import com.learntrack.resourceserver.security.Role;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@AutoConfigureTestDatabase
+@AutoConfigureMockMvc
+class ConditionalRequestTests {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private LessonRepository lessonRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @MockBean
+    private JwtDecoder jwtDecoder;
+
+    private Course course;
+    private Lesson lesson;
+    private Review review;
+
+    @BeforeEach
+    void setUp() {
+        course = courseRepository.save(new Course("Course", "Description", 1L));
+        lesson = lessonRepository.save(new Lesson("Lesson", "Description", course, 1L));
+        review = reviewRepository.save(new Review("Review", "Content", lesson, 2L));
+
+        given(jwtDecoder.decode("lecturer")).willReturn(jwt(1L, Role.LECTURER));
+        given(jwtDecoder.decode("student")).willReturn(jwt(2L, Role.USER));
+    }
+
+    @AfterEach
+    void tearDown() {
+        reviewRepository.deleteAll();
+        lessonRepository.deleteAll();
+        courseRepository.deleteAll();
+    }
+
+    @Test
+    void matchingETagReturnsNotModifiedWithoutBody() throws Exception {
+        String[] paths = {
+                "/api/v1/courses",
+                "/api/v1/courses/" + course.getId(),
+                "/api/v1/courses/" + course.getId() + "/lessons",
+                "/api/v1/courses/" + course.getId() + "/lessons/" + lesson.getId(),
+                "/api/v1/courses/" + course.getId() + "/lessons/" + lesson.getId() + "/reviews",
+                "/api/v1/courses/" + course.getId() + "/lessons/" + lesson.getId() + "/reviews/" + review.getId()
+        };
+
+        for (String path : paths) {
+            String eTag = mockMvc.perform(get(path)).andExpect(status().isOk()).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+            assertThat(eTag).as(path).isNotBlank();
+
+            mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(content().string(""));
+        }
+    }
+
+    @Test
+    void updateChangesTheETag() throws Exception {
+        String coursePath = "/api/v1/courses/" + course.getId();
+        String lessonsPath = coursePath + "/lessons";
+        String courseETag = mockMvc.perform(get(coursePath)).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String lessonsETag = mockMvc.perform(get(lessonsPath)).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        Course courseToUpdate = courseRepository.findById(course.getId()).orElseThrow();
+        courseToUpdate.setName("Renamed");
+        courseRepository.save(courseToUpdate);
+
+        Lesson lessonToUpdate = lessonRepository.findById(lesson.getId()).orElseThrow();
+        lessonToUpdate.setTitle("Renamed");
+        lessonRepository.save(lessonToUpdate);
+
+        mockMvc.perform(get(coursePath).header(HttpHeaders.IF_NONE_MATCH, courseETag)).andExpect(status().isOk());
+        mockMvc.perform(get(lessonsPath).header(HttpHeaders.IF_NONE_MATCH, lessonsETag)).andExpect(status().isOk());
+    }
+
+    @Test
+    void staleIfMatchIsRejected() throws Exception {
+        String coursePath = "/api/v1/courses/" + course.getId();
+        String staleETag = mockMvc.perform(get(coursePath)).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // a write without If-Match is unconditional and moves the version on
+        mockMvc.perform(put(coursePath).header(HttpHeaders.AUTHORIZATION, "Bearer lecturer").contentType(MediaType.APPLICATION_JSON).content("{\"name\": \"First\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(put(coursePath).header(HttpHeaders.AUTHORIZATION, "Bearer lecturer").header(HttpHeaders.IF_MATCH, staleETag).contentType(MediaType.APPLICATION_JSON).content("{\"name\": \"Second\"}"))
+                .andExpect(status().isPreconditionFailed());
+        assertThat(courseRepository.findById(course.getId()).orElseThrow().getName()).isEqualTo("First");
+
+        String currentETag = mockMvc.perform(get(coursePath)).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String updatedETag = mockMvc.perform(put(coursePath).header(HttpHeaders.AUTHORIZATION, "Bearer lecturer").header(HttpHeaders.IF_MATCH, currentETag).contentType(MediaType.APPLICATION_JSON).content("{\"name\": \"Second\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(updatedETag).isNotEqualTo(currentETag);
+        assertThat(courseRepository.findById(course.getId()).orElseThrow().getName()).isEqualTo("Second");
+    }
+
+    @Test
+    void lessonUpdateIsAnsweredWithoutAnOpenSession() throws Exception {
+        String lessonPath = "/api/v1/courses/" + course.getId() + "/lessons/" + lesson.getId();
+
+        // the lesson's course is a lazy proxy by the time the response is built
+        mockMvc.perform(put(lessonPath).header(HttpHeaders.AUTHORIZATION, "Bearer lecturer").contentType(MediaType.APPLICATION_JSON).content("{\"title\": \"Renamed\", \"description\": \"Description\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.courseId").value(course.getId()))
+                .andExpect(jsonPath("$.title").value("Renamed"));
+    }
+
+    @Test
+    void reviewUpdateIsScopedToItsPathAndOwner() throws Exception {
+        Lesson otherLesson = lessonRepository.save(new Lesson("Other", "Description", course, 1L));
+        String lessonsPath = "/api/v1/courses/" + course.getId() + "/lessons/";
+        String body = "{\"title\": \"Renamed\", \"content\": \"Content\"}";
+
+        mockMvc.perform(put(lessonsPath + otherLesson.getId() + "/reviews/" + review.getId()).header(HttpHeaders.AUTHORIZATION, "Bearer student").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(put(lessonsPath + lesson.getId() + "/reviews/" + review.getId()).header(HttpHeaders.AUTHORIZATION, "Bearer lecturer").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(put(lessonsPath + lesson.getId() + "/reviews/" + review.getId()).header(HttpHeaders.AUTHORIZATION, "Bearer student").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.lessonId").value(lesson.getId()))
+                .andExpect(jsonPath("$.title").value("Renamed"));
+    }
+
+    @Test
+    void staleIfMatchDoesNotDelete() throws Exception {
+        String lessonPath = "/api/v1/courses/" + course.getId() + "/lessons/" + lesson.getId();
+        String reviewPath = lessonPath + "/reviews/" + review.getId();
+
+        mockMvc.perform(delete(lessonPath).header(HttpHeaders.AUTHORIZATION, "Bearer lecturer").header(HttpHeaders.IF_MATCH, "\"lesson-" + lesson.getId() + "-99\""))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(delete(reviewPath).header(HttpHeaders.AUTHORIZATION, "Bearer student").header(HttpHeaders.IF_MATCH, "\"review-" + review.getId() + "-99\""))
+                .andExpect(status().isPreconditionFailed());
+        assertThat(lessonRepository.existsById(lesson.getId())).isTrue();
+        assertThat(reviewRepository.existsById(review.getId())).isTrue();
+
+        String reviewETag = mockMvc.perform(get(reviewPath)).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(delete(reviewPath).header(HttpHeaders.AUTHORIZATION, "Bearer student").header(HttpHeaders.IF_MATCH, reviewETag))
+                .andExpect(status().isNoContent());
+        assertThat(reviewRepository.existsById(review.getId())).isFalse();
+    }
+
+    private static Jwt jwt(long userId, Role role) {
+        return Jwt.withTokenValue("token").header("alg", "RS256").subject("user").claim("user_id", userId).claim("roles", List.of(role.getAuthority())).build();
+    }
+}
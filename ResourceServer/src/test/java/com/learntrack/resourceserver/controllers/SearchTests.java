@@ -0,0 +1,111 @@
+package com.learntrack.resourceserver.controllers;
+
+import com.learntrack.resourceserver.models.Course;
+import com.learntrack.resourceserver.models.Lesson;
+import com.learntrack.resourceserver.models.Review;
+import com.learntrack.resourceserver.repositories.CourseRepository;
+import com.learntrack.resourceserver.repositories.LessonRepository;
+import com.learntrack.resourceserver.repositories.ReviewRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@AutoConfigureTestDatabase
+@AutoConfigureMockMvc
+class SearchTests {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private LessonRepository lessonRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    private Course course;
+    private Lesson lesson;
+    private Review review;
+
+    @BeforeEach
+    void setUp() {
+        course = courseRepository.save(new Course("Distributed systems", "Consensus and replication", 1L));
+        lesson = lessonRepository.save(new Lesson("Raft consensus", "Leader election in distributed logs", course, 1L));
+        review = reviewRepository.save(new Review("Great", "Finally understood consensus", lesson, 2L));
+    }
+
+    @AfterEach
+    void tearDown() {
+        reviewRepository.deleteAll();
+        lessonRepository.deleteAll();
+        courseRepository.deleteAll();
+    }
+
+    @Test
+    void hitsAreRankedWithTitlesFirst() throws Exception {
+        // @formatter:off
+        mockMvc.perform(get("/api/v1/search").param("q", "Consensus"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].type", contains("lesson", "course", "review")))
+                .andExpect(jsonPath("$[0].id").value(lesson.getId()))
+                .andExpect(jsonPath("$[0].courseId").value(course.getId()))
+                .andExpect(jsonPath("$[1].lessonId").doesNotExist())
+                .andExpect(jsonPath("$[2].lessonId").value(lesson.getId()));
+        // @formatter:on
+    }
+
+    @Test
+    void allWordsMustMatch() throws Exception {
+        mockMvc.perform(get("/api/v1/search").param("q", "distributed consensus")).andExpect(jsonPath("$[*].type", containsInAnyOrder("lesson", "course")));
+        mockMvc.perform(get("/api/v1/search").param("q", "consensus paxos")).andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    void hitsArePaginated() throws Exception {
+        // @formatter:off
+        mockMvc.perform(get("/api/v1/search").param("q", "consensus").param("limit", "2"))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(header().string(SearchController.NEXT_OFFSET_HEADER, "2"));
+
+        mockMvc.perform(get("/api/v1/search").param("q", "consensus").param("offset", "2").param("limit", "2"))
+                .andExpect(jsonPath("$[*].type", contains("review")))
+                .andExpect(header().doesNotExist(SearchController.NEXT_OFFSET_HEADER));
+        // @formatter:on
+    }
+
+    @Test
+    void writesAreIndexed() throws Exception {
+        review.setContent("Paxos next please");
+        reviewRepository.save(review);
+        mockMvc.perform(get("/api/v1/search").param("q", "paxos")).andExpect(jsonPath("$[*].id", contains(review.getId().intValue())));
+
+        courseRepository.deleteById(course.getId());
+        mockMvc.perform(get("/api/v1/search").param("q", "consensus")).andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    void blankQueriesAreRejected() throws Exception {
+        mockMvc.perform(get("/api/v1/search").param("q", " ")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void deepOffsetsAreRejected() throws Exception {
+        mockMvc.perform(get("/api/v1/search").param("q", "consensus").param("offset", String.valueOf(SearchController.MAX_OFFSET))).andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/search").param("q", "consensus").param("offset", String.valueOf(SearchController.MAX_OFFSET + 1))).andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,170 @@
+package com.learntrack.resourceserver.controllers;
+
+import com.learntrack.resourceserver.models.Course;
+import com.learntrack.resourceserver.models.Lesson;
+import com.learntrack.resourceserver.models.Review;
+import com.learntrack.resourceserver.repositories.CourseRepository;
+import com.learntrack.resourceserver.repositories.LessonRepository;
+import com.learntrack.resourceserver.repositories.ReviewRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// @formatter:off
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+// @formatter:on
+@AutoConfigureTestDatabase
+@AutoConfigureMockMvc
+class StatementCountTests {
+    private static final int LESSONS = 5;
+    private static final int REVIEWS_PER_LESSON = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private LessonRepository lessonRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Course course;
+    private Lesson lesson;
+    private Review review;
+
+    @BeforeEach
+    void setUp() {
+        course = courseRepository.save(new Course("Course", "Description", 1L));
+        for (int i = 0; i < LESSONS; i++) {
+            lesson = lessonRepository.save(new Lesson("Lesson " + i, "Description", course, 1L));
+            for (int j = 0; j < REVIEWS_PER_LESSON; j++) {
+                review = reviewRepository.save(new Review("Review " + j, "Content", lesson, 2L));
+            }
+        }
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        reviewRepository.deleteAll();
+        lessonRepository.deleteAll();
+        courseRepository.deleteAll();
+    }
+
+    @Test
+    void findAllCoursesRunsOneStatement() throws Exception {
+        mockMvc.perform(get("/api/v1/courses")).andExpect(status().isOk());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void findCourseByIdRunsOneStatement() throws Exception {
+        mockMvc.perform(get("/api/v1/courses/{id}", course.getId())).andExpect(status().isOk());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void findAllLessonsRunsTwoStatementsRegardlessOfSize() throws Exception {
+        // @formatter:off
+        mockMvc.perform(get("/api/v1/courses/{courseId}/lessons", course.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(LESSONS))
+                .andExpect(jsonPath("$[0].courseId").value(course.getId()));
+        // @formatter:on
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void findLessonByIdRunsOneStatement() throws Exception {
+        mockMvc.perform(get("/api/v1/courses/{courseId}/lessons/{lessonId}", course.getId(), lesson.getId())).andExpect(status().isOk());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void findAllReviewsRunsTwoStatementsRegardlessOfSize() throws Exception {
+        // @formatter:off
+        mockMvc.perform(get("/api/v1/courses/{courseId}/lessons/{lessonId}/reviews", course.getId(), lesson.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(REVIEWS_PER_LESSON))
+                .andExpect(jsonPath("$[0].lessonId").value(lesson.getId()));
+        // @formatter:on
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void findCourseDetailRunsOneStatementRegardlessOfSize() throws Exception {
+        // @formatter:off
+        mockMvc.perform(get("/api/v1/courses/{id}/detail", course.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Course"))
+                .andExpect(jsonPath("$.lessons.length()").value(LESSONS))
+                .andExpect(jsonPath("$.lessons[4].id").value(lesson.getId()))
+                .andExpect(jsonPath("$.lessons[*].reviewCount", everyItem(is(REVIEWS_PER_LESSON))));
+        // @formatter:on
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void findCourseDetailWithoutLessons() throws Exception {
+        Course empty = courseRepository.save(new Course("Empty", "Description", 1L));
+        statistics.clear();
+
+        mockMvc.perform(get("/api/v1/courses/{id}/detail", empty.getId())).andExpect(status().isOk()).andExpect(jsonPath("$.lessons.length()").value(0));
+        mockMvc.perform(get("/api/v1/courses/{id}/detail", -1L)).andExpect(status().isNotFound());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void findLessonDetailRunsTwoStatementsRegardlessOfSize() throws Exception {
+        // @formatter:off
+        mockMvc.perform(get("/api/v1/courses/{courseId}/lessons/{lessonId}/detail", course.getId(), lesson.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value(lesson.getTitle()))
+                .andExpect(jsonPath("$.reviews.length()").value(REVIEWS_PER_LESSON))
+                .andExpect(jsonPath("$.reviews[0].lessonId").value(lesson.getId()));
+        // @formatter:on
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void findReviewByIdRunsOneStatement() throws Exception {
+        mockMvc.perform(get("/api/v1/courses/{courseId}/lessons/{lessonId}/reviews/{reviewId}", course.getId(), lesson.getId(), review.getId())).andExpect(status().isOk());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
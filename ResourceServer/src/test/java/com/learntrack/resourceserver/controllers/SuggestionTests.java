@@ -0,0 +1,73 @@
+package com.learntrack.resourceserver.controllers;
+
+import com.learntrack.resourceserver.models.Course;
+import com.learntrack.resourceserver.models.Lesson;
+import com.learntrack.resourceserver.repositories.CourseRepository;
+import com.learntrack.resourceserver.services.CourseService;
+import com.learntrack.resourceserver.services.LessonService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@AutoConfigureTestDatabase
+@AutoConfigureMockMvc
+class SuggestionTests {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private LessonService lessonService;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @AfterEach
+    void tearDown() {
+        courseRepository.findAll().forEach(course -> courseService.deleteById(course.getId()));
+    }
+
+    @Test
+    void suggestionsFollowSavesAndDeletes() throws Exception {
+        Course spring = courseService.save(new Course("Spring Boot", "Description", 1L));
+        Course security = courseService.save(new Course("Spring Security", "Description", 1L));
+        Lesson lesson = lessonService.save(new Lesson("Spring profiles", "Description", spring, 1L));
+
+        // @formatter:off
+        mockMvc.perform(get("/api/v1/courses/suggest").param("prefix", "spr"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].text", contains("Spring Boot", "Spring profiles", "Spring Security")))
+                .andExpect(jsonPath("$[0].popularity").value(1))
+                .andExpect(jsonPath("$[1].type").value("lesson"))
+                .andExpect(jsonPath("$[1].courseId").value(spring.getId()));
+        // @formatter:on
+
+        lessonService.deleteById(lesson.getId());
+        courseService.deleteById(security.getId());
+
+        mockMvc.perform(get("/api/v1/courses/suggest").param("prefix", "spr")).andExpect(jsonPath("$[*].text", contains("Spring Boot")));
+        mockMvc.perform(get("/api/v1/courses/suggest").param("prefix", "boot").param("limit", "0")).andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    void deletingACourseRemovesItsLessons() throws Exception {
+        Course course = courseService.save(new Course("Databases", "Description", 1L));
+        lessonService.save(new Lesson("Database indexes", "Description", course, 1L));
+
+        courseService.deleteById(course.getId());
+
+        mockMvc.perform(get("/api/v1/courses/suggest").param("prefix", "data")).andExpect(jsonPath("$.length()").value(0));
+    }
+}
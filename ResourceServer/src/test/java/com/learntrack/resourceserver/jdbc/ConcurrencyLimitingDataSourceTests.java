@@ -0,0 +1,50 @@
+package com.learntrack.resourceserver.jdbc;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConcurrencyLimitingDataSourceTests {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ConcurrencyLimitingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:limiter");
+        dataSource = new ConcurrencyLimitingDataSource(h2, 2, Duration.ofMillis(100), meterRegistry);
+    }
+
+    @Test
+    void callersBeyondTheLimitTimeOut() throws Exception {
+        try (Connection first = dataSource.getConnection(); Connection second = dataSource.getConnection()) {
+            assertThat(first.isValid(1)).isTrue();
+            assertThat(availablePermits()).isZero();
+
+            assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+        }
+        assertThat(availablePermits()).isEqualTo(2);
+    }
+
+    @Test
+    void closingTwiceReleasesThePermitOnce() throws Exception {
+        Connection connection = dataSource.getConnection();
+        connection.close();
+        connection.close();
+
+        assertThat(availablePermits()).isEqualTo(2);
+        assertThat(connection.unwrap(Connection.class)).isSameAs(connection);
+    }
+
+    private double availablePermits() {
+        return meterRegistry.get(ConcurrencyLimitingDataSource.METER_PREFIX + ".available").gauge().value();
+    }
+}
@@ -0,0 +1,78 @@
+package com.learntrack.resourceserver.search;
+
+import com.learntrack.resourceserver.dto.SuggestionDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrefixTrieTests {
+
+    @Test
+    void matchesTheStartOfAnyWordMostPopularFirst() {
+        // @formatter:off
+        PrefixTrie trie = PrefixTrie.of(List.of(
+                course(1, "Intro to Java", 3),
+                course(2, "Java Concurrency", 7),
+                course(3, "JavaScript  basics", 5),
+                course(4, "Python", 9)));
+        // @formatter:on
+
+        assertThat(trie.suggest("jav", 10)).extracting(SuggestionDTO::getId).containsExactly(2L, 3L, 1L);
+        assertThat(trie.suggest("  JAVASCRIPT B", 10)).extracting(SuggestionDTO::getId).containsExactly(3L);
+        assertThat(trie.suggest("to j", 10)).extracting(SuggestionDTO::getId).containsExactly(1L);
+        assertThat(trie.suggest("ruby", 10)).isEmpty();
+        assertThat(trie.suggest(" ", 10)).isEmpty();
+    }
+
+    @Test
+    void keepsOnlyTheMostPopularPerPrefix() {
+        List<SuggestionDTO> entries = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            entries.add(course(i, "Course " + i, i));
+        }
+        PrefixTrie trie = PrefixTrie.of(entries);
+
+        assertThat(trie.suggest("c", 100)).hasSize(PrefixTrie.MAX_SUGGESTIONS).first().extracting(SuggestionDTO::getId).isEqualTo(49L);
+        assertThat(trie.suggest("c", 3)).extracting(SuggestionDTO::getId).containsExactly(49L, 48L, 47L);
+    }
+
+    @Test
+    void incrementalUpdatesReplaceAndRemoveEntries() {
+        PrefixTrie trie = PrefixTrie.of(List.of(course(1, "Algorithms", 1), course(2, "Algebra", 2)));
+
+        trie.put(course(1, "Algorithms", 5));
+        assertThat(trie.suggest("alg", 10)).extracting(SuggestionDTO::getId).containsExactly(1L, 2L);
+
+        trie.put(course(2, "Linear algebra", 2));
+        assertThat(trie.suggest("lin", 10)).extracting(SuggestionDTO::getId).containsExactly(2L);
+
+        trie.remove("course", 1);
+        assertThat(trie.suggest("algo", 10)).isEmpty();
+        assertThat(trie.suggest("alg", 10)).extracting(SuggestionDTO::getId).containsExactly(2L);
+        assertThat(trie.size()).isEqualTo(1);
+    }
+
+    @Test
+    void findsChildrenInsertedInAnyOrder() {
+        PrefixTrie trie = new PrefixTrie();
+        String names = "qwertyuiopasdfghjklzxcvbnm";
+        for (int i = 0; i < names.length(); i++) {
+            trie.put(course(i, names.charAt(i) + "xyz", i));
+        }
+
+        for (int i = 0; i < names.length(); i++) {
+            assertThat(trie.suggest(String.valueOf(names.charAt(i)), 10)).extracting(SuggestionDTO::getId).containsExactly((long) i);
+        }
+
+        trie.remove("course", names.indexOf('m'));
+        assertThat(trie.suggest("m", 10)).isEmpty();
+        assertThat(trie.suggest("n", 10)).extracting(SuggestionDTO::getId).containsExactly((long) names.indexOf('n'));
+    }
+
+    private static SuggestionDTO course(long id, String name, long popularity) {
+        return new SuggestionDTO("course", id, id, name, popularity);
+    }
+}
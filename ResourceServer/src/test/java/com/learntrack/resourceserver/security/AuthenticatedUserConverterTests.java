@@ -0,0 +1,55 @@
+package com.learntrack.resourceserver.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuthenticatedUserConverterTests {
+    private final AuthenticatedUserConverter converter = new AuthenticatedUserConverter();
+
+    @Test
+    void parsesUserIdAndRolesOnce() {
+        Jwt jwt = jwt().claim("user_id", "42").claim("roles", List.of("ROLE_USER", "ROLE_LECTURER", "ROLE_UNKNOWN")).build();
+
+        AbstractAuthenticationToken authentication = converter.convert(jwt);
+
+        assertThat(authentication).isInstanceOf(AuthenticatedUserToken.class);
+        AuthenticatedUser user = (AuthenticatedUser) authentication.getPrincipal();
+        assertThat(user.getUserId()).isEqualTo(42L);
+        assertThat(authentication.getName()).isEqualTo("42");
+        assertThat(user.hasRole(Role.USER)).isTrue();
+        assertThat(user.hasRole(Role.ADMIN)).isFalse();
+        assertThat(user.hasAnyRole(Role.LECTURER, Role.ADMIN)).isTrue();
+        assertThat(user.hasAnyRole(Role.ADMIN)).isFalse();
+        assertThat(user.hasAnyRole()).isFalse();
+        assertThat(user.isOwner(42L)).isTrue();
+        assertThat(user.isOwner(7L)).isFalse();
+        assertThat(user.isOwner(null)).isFalse();
+    }
+
+    @Test
+    void numericUserIdWithoutRoles() {
+        AbstractAuthenticationToken authentication = converter.convert(jwt().claim("user_id", 5).build());
+
+        AuthenticatedUser user = (AuthenticatedUser) authentication.getPrincipal();
+        assertThat(user.getUserId()).isEqualTo(5L);
+        assertThat(user.getRoles()).isZero();
+    }
+
+    @Test
+    void tokenWithoutUserIdHasNoCurrentUser() {
+        AbstractAuthenticationToken authentication = converter.convert(jwt().build());
+
+        assertThat(authentication).isInstanceOf(JwtAuthenticationToken.class);
+        assertThat(authentication.getName()).isEqualTo("client");
+    }
+
+    private static Jwt.Builder jwt() {
+        return Jwt.withTokenValue("token").header("alg", "RS256").subject("client");
+    }
+}
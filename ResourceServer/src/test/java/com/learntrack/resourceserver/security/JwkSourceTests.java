@@ -0,0 +1,118 @@
+package com.learntrack.resourceserver.security;
+
+import com.learntrack.resourceserver.config.SecurityConfig;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.Closeable;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwkSourceTests {
+    private final AtomicInteger fetches = new AtomicInteger();
+    private final AtomicReference<RSAKey> currentKey = new AtomicReference<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private HttpServer server;
+    private JWKSource<SecurityContext> jwkSource;
+    private JwtDecoder decoder;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        currentKey.set(new RSAKeyGenerator(2048).keyID("first").generate());
+
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/jwks.json", exchange -> {
+            fetches.incrementAndGet();
+            byte[] body = new JWKSet(currentKey.get().toPublicJWK()).toString().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+
+        SecurityConfig config = new SecurityConfig();
+        ReflectionTestUtils.setField(config, "jwkSetUri", "http://localhost:" + server.getAddress().getPort() + "/jwks.json");
+        ReflectionTestUtils.setField(config, "jwksCacheTtl", Duration.ofMinutes(15));
+        ReflectionTestUtils.setField(config, "jwksRefreshAhead", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(config, "jwksRefreshTimeout", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(config, "jwksRateLimit", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(config, "jwtCacheMaximumSize", 100L);
+
+        jwkSource = config.jwkSource(meterRegistry);
+        decoder = config.jwtDecoder(jwkSource, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        ((Closeable) jwkSource).close();
+        server.stop(0);
+    }
+
+    @Test
+    void keysAreFetchedOnceAndServedFromTheCache() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            assertThat(decoder.decode(sign(currentKey.get())).getSubject()).isEqualTo("user");
+        }
+
+        assertThat(fetches).hasValue(1);
+        assertThat(meterRegistry.find(JwkSourceMetrics.METER_NAME).counters()).isNotEmpty();
+    }
+
+    @Test
+    void unknownKeyIdTriggersARefetch() throws Exception {
+        decoder.decode(sign(currentKey.get()));
+
+        currentKey.set(new RSAKeyGenerator(2048).keyID("second").generate());
+
+        assertThat(decoder.decode(sign(currentKey.get())).getSubject()).isEqualTo("user");
+        assertThat(fetches).hasValue(2);
+    }
+
+    @Test
+    void cachedTokensSignedWithARotatedOutKeyAreRejected() throws Exception {
+        String oldToken = sign(currentKey.get());
+        decoder.decode(oldToken);
+
+        currentKey.set(new RSAKeyGenerator(2048).keyID("second").generate());
+        decoder.decode(sign(currentKey.get()));
+
+        assertThatThrownBy(() -> decoder.decode(oldToken)).isInstanceOf(JwtException.class);
+    }
+
+    private static String sign(RSAKey key) throws JOSEException {
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .subject("user")
+                .expirationTime(Date.from(Instant.now().plusSeconds(300)))
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(), claims);
+        jwt.sign(new RSASSASigner(key));
+        return jwt.serialize();
+    }
+}